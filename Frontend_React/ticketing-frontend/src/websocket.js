@@ -3,14 +3,45 @@ import { Stomp } from '@stomp/stompjs';
 
 let stompClient = null;
 
+// Turns one compact event array ([code, ...fields]) into the line shown in the simulation log.
+const formatEvent = ([code, ...fields]) => {
+  switch (code) {
+    case 1:
+      return `Vendor ID: ${fields[0]} added ${fields.length - 1} Ticket(s) to the pool. Ticket IDs: ${fields.slice(1).join(', ')}`;
+    case 2:
+      return `Customer ID: ${fields[0]} removed ${fields.length - 1} Ticket(s) from the pool. Ticket IDs: ${fields.slice(1).join(', ')}`;
+    case 3:
+      return `Ticket pool is full for Vendor ID: ${fields[0]}`;
+    case 4:
+      return `Ticket pool is empty for Customer ID: ${fields[0]}`;
+    case 5:
+      return fields[0] === 0 ? `Vendor thread added. Total vendors: ${fields[1]}` : `Customer thread added. Total customers: ${fields[1]}`;
+    case 6:
+      return 'All tickets sold out! Customers purchasing tickets if remaining...';
+    case 7:
+      return ['Simulation Summary:', ...Object.entries(fields[0]).map(([key, value]) => `${key}: ${value}`)].join('\n');
+    default:
+      return fields[0];
+  }
+};
+
+// Accepts both the text payload and the compact JSON payload (ticketing.events.encoding=JSON).
+const decodeMessage = (body) => {
+  try {
+    const data = JSON.parse(body);
+    return Array.isArray(data) ? data.map(formatEvent).join('\n') : data;
+  } catch (e) {
+    return body;
+  }
+};
+
 export const connectWebSocket = (onMessageReceived) => {
   const socket = new SockJS('http://localhost:8080/websocket');
   stompClient = Stomp.over(socket);
   
   stompClient.connect({}, () => {
     stompClient.subscribe('/topic/simulation', (message) => {
-      const data = JSON.parse(message.body);
-      onMessageReceived(data);
+      onMessageReceived(decodeMessage(message.body));
     });
   });
 };
@@ -0,0 +1,38 @@
+package com.ticketingSystem.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ActorExecutorConfig provides the shared executor used by simulations running in
+ * {@link com.ticketingSystem.backend.logic.ExecutionMode#POOLED} mode, which every
+ * simulation session shares. Replace the "actorExecutor" bean to plug in a different
+ * {@link ScheduledExecutorService}.
+ */
+@Configuration
+public class ActorExecutorConfig {
+
+    /**
+     * Creates a fixed-size pool of daemon threads that runs the steps of vendor and customer actors.
+     *
+     * @param poolSize the number of worker threads; 0 or less uses one thread per available core
+     * @return the scheduled executor service shared by pooled actors
+     */
+    @Bean(name = "actorExecutor", destroyMethod = "shutdownNow")
+    public ScheduledExecutorService actorExecutor(@Value("${ticketing.actors.pool-size:0}") int poolSize) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "actor-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newScheduledThreadPool(threads, threadFactory);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ticketingSystem.backend.config;
+
+import com.ticketingSystem.backend.ledger.SalesLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * LedgerConfig opens the {@link SalesLedger} that records every ticket sold, replaying the
+ * sales already on disk. Set ticketing.ledger.enabled=false to run without it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ticketing.ledger.enabled", havingValue = "true", matchIfMissing = true)
+public class LedgerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerConfig.class);
+
+    /**
+     * Opens the sales ledger.
+     *
+     * @param directory           the directory of the ledger's segment files
+     * @param segmentSize         the size of each segment file in bytes
+     * @param fsyncIntervalMillis how often recorded sales are forced to disk, in milliseconds
+     * @return the sales ledger, closed with the application context
+     * @throws IOException if the ledger cannot be opened
+     */
+    @Bean(destroyMethod = "close")
+    public SalesLedger salesLedger(@Value("${ticketing.ledger.directory:data/ledger}") String directory,
+                                   @Value("${ticketing.ledger.segment-size:67108864}") long segmentSize,
+                                   @Value("${ticketing.ledger.fsync-interval-ms:10}") long fsyncIntervalMillis) throws IOException {
+        SalesLedger ledger = new SalesLedger(Path.of(directory), segmentSize, fsyncIntervalMillis);
+        logger.info("Sales ledger replayed {} sales from {}", ledger.getSales(), directory);
+        return ledger;
+    }
+}
@@ -0,0 +1,176 @@
+package com.ticketingSystem.backend.config;
+
+import com.ticketingSystem.backend.events.SimulationEventPublisher;
+import com.ticketingSystem.backend.logic.EventInventory;
+import com.ticketingSystem.backend.logic.PoolStatistics;
+import com.ticketingSystem.backend.logic.SimulationSessionRegistry;
+import com.ticketingSystem.backend.logic.TicketingSystem;
+import com.ticketingSystem.backend.polling.PollingService;
+import com.ticketingSystem.backend.service.ConfigurationService;
+import com.ticketingSystem.backend.service.SalePersistenceService;
+import com.ticketingSystem.backend.web_socket.SubscriberBufferDecoratorFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TicketingMetrics exposes the ticket pool, actor and broadcast statistics to Micrometer,
+ * and so to the Prometheus endpoint at /actuator/prometheus. Pool and actor meters describe
+ * the default session, summed over the pools of all its events; the number of additional
+ * sessions is reported alongside, as are the hits and misses of the configuration cache.
+ * Every meter reads totals the engine already keeps, or the session's published
+ * {@link com.ticketingSystem.backend.logic.EngineSnapshot}, when it is scraped, so metrics add
+ * nothing to the vendor and customer hot paths. Ticket rates per second come from the
+ * counters, e.g. {@code rate(ticketing_tickets_added_total[1m])}.
+ */
+@Component
+public class TicketingMetrics implements MeterBinder {
+
+    private final TicketingSystem ticketingSystem;
+    private final EventInventory inventory;
+    private final SimulationEventPublisher eventPublisher;
+    private final SimulationSessionRegistry sessions;
+    private final ConfigurationService configurationService;
+    private final PollingService pollingService;
+    private final SubscriberBufferDecoratorFactory subscriberBuffers;
+
+    @Autowired(required = false)
+    private SalePersistenceService salePersistence; // Absent when ticketing.persistence.enabled=false
+
+    public TicketingMetrics(TicketingSystem ticketingSystem, SimulationEventPublisher eventPublisher,
+                            SimulationSessionRegistry sessions, ConfigurationService configurationService,
+                            PollingService pollingService, SubscriberBufferDecoratorFactory subscriberBuffers) {
+        this.ticketingSystem = ticketingSystem;
+        this.inventory = ticketingSystem.getInventory();
+        this.eventPublisher = eventPublisher;
+        this.sessions = sessions;
+        this.configurationService = configurationService;
+        this.pollingService = pollingService;
+        this.subscriberBuffers = subscriberBuffers;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ticketing.tickets.added", inventory, pools -> pools.sum(PoolStatistics::getTicketsAdded))
+                .description("Tickets added to the pool by vendors")
+                .register(registry);
+        FunctionCounter.builder("ticketing.tickets.removed", inventory, pools -> pools.sum(PoolStatistics::getTicketsRemoved))
+                .description("Tickets bought from the pool by customers")
+                .register(registry);
+        FunctionCounter.builder("ticketing.pool.rejections", inventory, pools -> pools.sum(PoolStatistics::getFailedAdds))
+                .description("Attempts to add or remove tickets that found the pool full or empty")
+                .tag("reason", "full")
+                .register(registry);
+        FunctionCounter.builder("ticketing.pool.rejections", inventory, pools -> pools.sum(PoolStatistics::getFailedRemoves))
+                .description("Attempts to add or remove tickets that found the pool full or empty")
+                .tag("reason", "empty")
+                .register(registry);
+
+        Gauge.builder("ticketing.pool.occupancy", ticketingSystem, system -> system.getSnapshot().getPoolSize())
+                .description("Tickets currently in the pools")
+                .register(registry);
+        Gauge.builder("ticketing.pool.capacity", ticketingSystem, system -> system.getSnapshot().getCapacity())
+                .description("Maximum number of tickets the pools hold")
+                .register(registry);
+
+        Gauge.builder("ticketing.events", ticketingSystem, system -> system.getSnapshot().getEventCount())
+                .description("Events sold by the current run, each from its own pool")
+                .register(registry);
+
+        FunctionTimer.builder("ticketing.pool.lock.wait", inventory,
+                        pools -> pools.sum(PoolStatistics::getLockAcquisitions),
+                        pools -> pools.sum(PoolStatistics::getLockWaitNanos), TimeUnit.NANOSECONDS)
+                .description("Time spent waiting for the lock of a LOCKED pool")
+                .register(registry);
+        FunctionTimer.builder("ticketing.pool.lock.hold", inventory,
+                        pools -> pools.sum(PoolStatistics::getLockAcquisitions),
+                        pools -> pools.sum(PoolStatistics::getLockHoldNanos), TimeUnit.NANOSECONDS)
+                .description("Time the lock of a LOCKED pool is held")
+                .register(registry);
+
+        Gauge.builder("ticketing.actors.live", ticketingSystem, system -> system.getSnapshot().getLiveVendors())
+                .description("Vendors and customers still running")
+                .tag("role", "vendor")
+                .register(registry);
+        Gauge.builder("ticketing.actors.live", ticketingSystem, system -> system.getSnapshot().getLiveCustomers())
+                .description("Vendors and customers still running")
+                .tag("role", "customer")
+                .register(registry);
+
+        Gauge.builder("ticketing.sessions", sessions, SimulationSessionRegistry::getSessionCount)
+                .description("Simulation sessions besides the default one")
+                .register(registry);
+
+        Gauge.builder("ticketing.stream.subscribers", pollingService, PollingService::getSubscriberCount)
+                .description("Open Server-Sent Events status streams")
+                .register(registry);
+        FunctionCounter.builder("ticketing.stream.dropped", pollingService, PollingService::getDroppedSubscribers)
+                .description("Status streams dropped for falling behind")
+                .register(registry);
+
+        FunctionCounter.builder("ticketing.websocket.messages", eventPublisher, SimulationEventPublisher::getPublishedBatches)
+                .description("WebSocket messages sent to simulation clients")
+                .register(registry);
+        FunctionCounter.builder("ticketing.events.published", eventPublisher, SimulationEventPublisher::getPublishedEvents)
+                .description("Simulation events sent to clients")
+                .register(registry);
+        FunctionCounter.builder("ticketing.events.dropped", eventPublisher, SimulationEventPublisher::getDroppedEvents)
+                .description("Simulation events dropped by the overflow policy")
+                .register(registry);
+        Gauge.builder("ticketing.events.queued", eventPublisher, SimulationEventPublisher::getQueuedEvents)
+                .description("Simulation events waiting to be published")
+                .register(registry);
+
+        Gauge.builder("ticketing.websocket.subscribers", subscriberBuffers, SubscriberBufferDecoratorFactory::getSessionCount)
+                .description("Connected WebSocket clients")
+                .register(registry);
+        Gauge.builder("ticketing.websocket.buffered", subscriberBuffers, SubscriberBufferDecoratorFactory::getBufferedMessages)
+                .description("Messages waiting in the outbound buffers of WebSocket clients")
+                .register(registry);
+        FunctionCounter.builder("ticketing.websocket.discarded", subscriberBuffers, SubscriberBufferDecoratorFactory::getDroppedMessages)
+                .description("Messages a slow WebSocket client lost to its buffer limits")
+                .tag("reason", "dropped")
+                .register(registry);
+        FunctionCounter.builder("ticketing.websocket.discarded", subscriberBuffers, SubscriberBufferDecoratorFactory::getConflatedMessages)
+                .description("Messages a slow WebSocket client lost to its buffer limits")
+                .tag("reason", "conflated")
+                .register(registry);
+        FunctionCounter.builder("ticketing.websocket.terminated", subscriberBuffers, SubscriberBufferDecoratorFactory::getTerminatedSessions)
+                .description("WebSocket clients disconnected for exceeding the send time limit")
+                .register(registry);
+
+        // cache.gets{cache="configurations",result="hit"|"miss"} and friends
+        CaffeineCacheMetrics.monitor(registry, configurationService.getConfigurationCache(), "configurations");
+        CaffeineCacheMetrics.monitor(registry, configurationService.getConfigurationListCache(), "configurations.all");
+
+        if (salePersistence != null) {
+            bindSalePersistence(registry);
+        }
+    }
+
+    private void bindSalePersistence(MeterRegistry registry) {
+        FunctionCounter.builder("ticketing.sales.persisted", salePersistence, SalePersistenceService::getPersistedSales)
+                .description("Sales written to the sales table")
+                .register(registry);
+        FunctionCounter.builder("ticketing.sales.dropped", salePersistence, SalePersistenceService::getDroppedSales)
+                .description("Sales that found the write-behind buffer full, or whose batch could not be written")
+                .register(registry);
+        FunctionCounter.builder("ticketing.sales.stalls", salePersistence, SalePersistenceService::getStalls)
+                .description("Sales whose customer waited for room in the write-behind buffer")
+                .register(registry);
+        Gauge.builder("ticketing.sales.queued", salePersistence, SalePersistenceService::getQueuedSales)
+                .description("Sales waiting to be written")
+                .register(registry);
+        FunctionTimer.builder("ticketing.sales.flush", salePersistence,
+                        SalePersistenceService::getFlushes, SalePersistenceService::getFlushNanos, TimeUnit.NANOSECONDS)
+                .description("Time taken to write one batch of sales")
+                .register(registry);
+    }
+}
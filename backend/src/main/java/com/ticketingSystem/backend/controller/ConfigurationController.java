@@ -1,51 +1,118 @@
 package com.ticketingSystem.backend.controller;
 
 import com.ticketingSystem.backend.model.ConfigurationEntity;
-import com.ticketingSystem.backend.repository.ConfigurationRepository;
+import com.ticketingSystem.backend.service.ConfigurationListing;
+import com.ticketingSystem.backend.service.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * The ConfigurationController class provides REST API endpoints for managing
  * configurations in the ticketing system.
  * It handles operations like retrieving, adding, and deleting configurations.
+ * Reads are answered from the service's cache, which adding and deleting keep up to date.
+ * Listings carry an ETag, so a client polling them with If-None-Match gets an empty
+ * not modified response as long as no configuration has changed.
  */
 @RestController
 @RequestMapping("/api/configs")
 public class ConfigurationController {
 
-    /** The repository that handles CRUD operations for ConfigurationEntity. */
+    private static final int MAX_PAGE_SIZE = 500;
+
+    /** The service that handles CRUD operations for ConfigurationEntity, behind its cache. */
     @Autowired
-    private ConfigurationRepository configurationRepository;
+    private ConfigurationService configurationService;
 
     /**
      * Gets a list of all configurations.
      *
-     * @return ResponseEntity containing a list of all ConfigurationEntity objects.
+     * @return ResponseEntity containing a list of all ConfigurationEntity objects ordered by ID,
+     *         or a not modified status if it matches the If-None-Match header.
      */
     @GetMapping("/getAll")
     public ResponseEntity<List<ConfigurationEntity>> getAllConfigurations() {
-        List<ConfigurationEntity> configurations = configurationRepository.findAll();
-        return ResponseEntity.ok(configurations);
+        ConfigurationListing listing = configurationService.getListing();
+        // Spring answers 304 without writing the body when the ETag matches If-None-Match
+        return ResponseEntity.ok()
+                .eTag(listing.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(listing.getConfigurations());
+    }
+
+    /**
+     * Gets one page of configurations by keyset: those with an ID above the last one the client has.
+     * Pages stay correct while configurations are added and deleted, and cost the same wherever they start.
+     *
+     * @param afterId the ID of the last configuration of the previous page, 0 for the first page
+     * @param limit   the maximum number of configurations on the page, at most {@value #MAX_PAGE_SIZE}
+     * @return the configurations of the page, the afterId of the next page (null after the last page)
+     *         and the version of the list, or a not modified status if it matches the If-None-Match header
+     */
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getConfigurationPage(@RequestParam(defaultValue = "0") long afterId,
+                                                                    @RequestParam(defaultValue = "50") int limit) {
+        ConfigurationListing listing = configurationService.getListing();
+        List<ConfigurationEntity> configurations = listing.getPage(afterId, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        Long nextAfterId = null;
+        if (!configurations.isEmpty()) {
+            long lastId = configurations.get(configurations.size() - 1).getId();
+            nextAfterId = listing.hasMoreAfter(lastId) ? lastId : null;
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("configurations", configurations);
+        page.put("nextAfterId", nextAfterId);
+        page.put("version", listing.getVersion());
+        return ResponseEntity.ok()
+                .eTag(listing.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(page);
+    }
+
+    /**
+     * Gets the configurations added, updated and deleted since a version the client has seen,
+     * e.g. the version of a page or of an earlier call. Clients that keep their own copy of the
+     * list can poll this instead of the whole list.
+     *
+     * @param since the version the client has seen
+     * @return the current version, the configurations saved since and the IDs deleted since; the whole
+     *         list with "full": true if the version is too old or from before a restart; or a not modified
+     *         status if nothing changed and the ETag matches the If-None-Match header
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getChanges(@RequestParam long since) {
+        Map<String, Object> changes = configurationService.getChangesSince(since);
+        return ResponseEntity.ok()
+                .eTag(since + "-" + changes.get("version"))
+                .cacheControl(CacheControl.noCache())
+                .body(changes);
     }
 
     /**
      * Adds a new configuration to the system.
      *
      * @param config The ConfigurationEntity object to be added to the system.
-     * @return ResponseEntity containing the saved ConfigurationEntity object, or an error status.
+     * @return ResponseEntity containing the saved ConfigurationEntity object, a bad request status if the
+     *         configuration is not valid, or an error status.
      */
     @PostMapping("/add")
     public ResponseEntity<ConfigurationEntity> addConfiguration(@RequestBody ConfigurationEntity config) {
         try {
             // Save the configuration and return it
-            ConfigurationEntity savedConfig = configurationRepository.save(config);
+            ConfigurationEntity savedConfig = configurationService.saveConfiguration(config);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedConfig);
+        } catch (IllegalArgumentException e) {
+            // Return bad request if the configuration fails validation
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         } catch (Exception e) {
             // Return internal server error if something goes wrong
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -62,11 +129,11 @@ public class ConfigurationController {
     @DeleteMapping("/delete/{configId}")
     public ResponseEntity<String> deleteConfiguration(@PathVariable Long configId) {
         // Check if the configuration exists
-        if (!configurationRepository.existsById(configId)) {
+        if (!configurationService.existsById(configId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Configuration with ID " + configId + " not found.");
         }
         // Delete the configuration
-        configurationRepository.deleteById(configId);
+        configurationService.deleteConfigurationById(configId);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body("Configuration with ID " + configId + " has been deleted.");
     }
 
@@ -78,7 +145,7 @@ public class ConfigurationController {
      */
     @GetMapping("/get/{id}")
     public ResponseEntity<ConfigurationEntity> getConfiguration(@PathVariable Long id) {
-        Optional<ConfigurationEntity> requestedConfig = configurationRepository.findById(id);
+        Optional<ConfigurationEntity> requestedConfig = configurationService.getConfigurationById(id);
         if (requestedConfig.isPresent()) {
             return ResponseEntity.status(HttpStatus.OK).body(requestedConfig.get());
         } else {
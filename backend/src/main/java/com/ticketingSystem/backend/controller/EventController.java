@@ -0,0 +1,76 @@
+package com.ticketingSystem.backend.controller;
+
+import com.ticketingSystem.backend.model.EventEntity;
+import com.ticketingSystem.backend.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The EventController class provides REST API endpoints for managing the event catalogue.
+ * Simulations are started for a list of these events with the "events" request parameter.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    /** The repository that handles CRUD operations for EventEntity. */
+    @Autowired
+    private EventRepository eventRepository;
+
+    /**
+     * Gets a list of all events.
+     *
+     * @return ResponseEntity containing a list of all EventEntity objects.
+     */
+    @GetMapping("/getAll")
+    public ResponseEntity<List<EventEntity>> getAllEvents() {
+        return ResponseEntity.ok(eventRepository.findAll());
+    }
+
+    /**
+     * Adds a new event to the catalogue.
+     *
+     * @param event The EventEntity object to be added.
+     * @return ResponseEntity containing the saved EventEntity object, or a bad request status if it has no name.
+     */
+    @PostMapping("/add")
+    public ResponseEntity<EventEntity> addEvent(@RequestBody EventEntity event) {
+        if (event.getName() == null || event.getName().isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(eventRepository.save(event));
+    }
+
+    /**
+     * Deletes an event by its ID. Runs already selling it are not affected.
+     *
+     * @param eventId The ID of the event to delete.
+     * @return ResponseEntity containing a message confirming deletion or indicating failure.
+     */
+    @DeleteMapping("/delete/{eventId}")
+    public ResponseEntity<String> deleteEvent(@PathVariable Long eventId) {
+        if (!eventRepository.existsById(eventId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Event with ID " + eventId + " not found.");
+        }
+        eventRepository.deleteById(eventId);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).body("Event with ID " + eventId + " has been deleted.");
+    }
+
+    /**
+     * Retrieves an event by its ID.
+     *
+     * @param id The ID of the event to retrieve.
+     * @return ResponseEntity containing the requested EventEntity if found, otherwise not found status.
+     */
+    @GetMapping("/get/{id}")
+    public ResponseEntity<EventEntity> getEvent(@PathVariable Long id) {
+        Optional<EventEntity> event = eventRepository.findById(id);
+        return event.map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+}
@@ -0,0 +1,56 @@
+package com.ticketingSystem.backend.controller;
+
+import com.ticketingSystem.backend.ledger.Sale;
+import com.ticketingSystem.backend.ledger.SalesLedger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller for reading the sales ledger, the durable record of every ticket sold.
+ * Every endpoint answers with a not found status when the ledger is disabled.
+ */
+@RestController
+@RequestMapping("/api/ledger")
+public class LedgerController {
+
+    private static final int MAX_RECENT_SALES = 1000;
+
+    @Autowired(required = false)
+    private SalesLedger salesLedger; // Absent when ticketing.ledger.enabled=false
+
+    /**
+     * Endpoint to get the totals of the ledger: sales recorded, sales already forced to disk,
+     * and sales per event, including those replayed at startup.
+     *
+     * @return the ledger totals
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getLedger() {
+        if (salesLedger == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(salesLedger.describe());
+    }
+
+    /**
+     * Endpoint to get the most recent sales, newest first.
+     *
+     * @param limit the maximum number of sales, at most {@value #MAX_RECENT_SALES}
+     * @return the most recent sales of the current ledger segment
+     */
+    @GetMapping("/sales")
+    public ResponseEntity<List<Sale>> getRecentSales(@RequestParam(defaultValue = "50") int limit) {
+        if (salesLedger == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(salesLedger.getRecentSales(Math.min(limit, MAX_RECENT_SALES)));
+    }
+}
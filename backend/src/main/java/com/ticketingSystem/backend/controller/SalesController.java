@@ -0,0 +1,43 @@
+package com.ticketingSystem.backend.controller;
+
+import com.ticketingSystem.backend.repository.SaleRepository;
+import com.ticketingSystem.backend.service.SalePersistenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controller for the sales table, which the write-behind stage fills in batches.
+ * Answers with a not found status when sales persistence is disabled.
+ */
+@RestController
+@RequestMapping("/api/sales")
+public class SalesController {
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired(required = false)
+    private SalePersistenceService salePersistence; // Absent when ticketing.persistence.enabled=false
+
+    /**
+     * Endpoint to get the state of the write-behind stage and the number of sales in the table.
+     *
+     * @return the sales persisted, dropped and still queued, buffer stalls, flush latency,
+     *         and the total number of stored sales
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSales() {
+        if (salePersistence == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        Map<String, Object> sales = salePersistence.describe();
+        sales.put("stored", saleRepository.count());
+        return ResponseEntity.ok(sales);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ticketingSystem.backend.controller;
+
+import com.ticketingSystem.backend.logic.EngineSnapshot;
+import com.ticketingSystem.backend.logic.SimulationSessionRegistry;
+import com.ticketingSystem.backend.logic.TicketingSystem;
+import com.ticketingSystem.backend.model.ConfigurationEntity;
+import com.ticketingSystem.backend.model.EventEntity;
+import com.ticketingSystem.backend.repository.EventRepository;
+import com.ticketingSystem.backend.service.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Controller for running several independent simulations at once.
+ * Each session gets its own pool, vendors, customers and WebSocket topic; the other
+ * endpoints act on a session when given its ID in the "session" request parameter.
+ */
+@RestController
+@RequestMapping("/api/sessions")
+public class SessionController {
+
+    private final SimulationSessionRegistry sessions; // Registry of the simulation sessions
+    private final ConfigurationService configurationService; // Cached access to configurations
+    private final EventRepository eventRepository; // Repository for accessing the event catalogue
+
+    @Autowired
+    public SessionController(SimulationSessionRegistry sessions, ConfigurationService configurationService,
+                             EventRepository eventRepository) {
+        this.sessions = sessions;
+        this.configurationService = configurationService;
+        this.eventRepository = eventRepository;
+    }
+
+    /**
+     * Endpoint to start a new session with the configuration with the given ID.
+     *
+     * @param configId the ID of the configuration to run
+     * @param events   the IDs of the events to sell, none to sell the sample event
+     * @return the session ID and the topic its events are sent to, a not found status if the
+     *         configuration or an event does not exist, or a service unavailable status if every session slot is busy
+     */
+    @PostMapping("/{configId}")
+    public ResponseEntity<Map<String, Object>> startSession(@PathVariable Long configId,
+                                                            @RequestParam(required = false) List<Long> events) {
+        Optional<ConfigurationEntity> configuration = configurationService.getConfigurationById(configId);
+        Optional<List<EventEntity>> selectedEvents = TicketingSystemController.findEvents(eventRepository, events);
+        if (configuration.isEmpty() || selectedEvents.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        try {
+            TicketingSystem session = sessions.start(configuration.get(), selectedEvents.get());
+            return ResponseEntity.status(HttpStatus.CREATED).body(describe(session));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Endpoint to list every session, the default one first.
+     *
+     * @return the ID, topic, lifecycle state, tickets in the pools and number of events of each session
+     */
+    @GetMapping
+    public List<Map<String, Object>> getSessions() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (TicketingSystem session : sessions.getSessions()) {
+            result.add(describe(session));
+        }
+        return result;
+    }
+
+    /**
+     * Endpoint to stop a session and discard it.
+     *
+     * @param sessionId the ID of the session
+     * @return a no content status, or a not found status if there is no such session
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> removeSession(@PathVariable String sessionId) {
+        return sessions.remove(sessionId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    private static Map<String, Object> describe(TicketingSystem session) {
+        EngineSnapshot snapshot = session.getSnapshot();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("sessionId", session.getSessionID());
+        description.put("topic", session.getEventTopic());
+        description.put("state", snapshot.getState());
+        description.put("poolSize", snapshot.getPoolSize());
+        description.put("events", snapshot.getEventCount());
+        return description;
+    }
+}
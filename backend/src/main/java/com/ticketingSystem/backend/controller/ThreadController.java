@@ -1,54 +1,66 @@
 package com.ticketingSystem.backend.controller;
 
+import com.ticketingSystem.backend.logic.SimulationSessionRegistry;
 import com.ticketingSystem.backend.logic.ThreadManager;
-import com.ticketingSystem.backend.logic.TicketPool;
 import com.ticketingSystem.backend.logic.Vendor;
 import com.ticketingSystem.backend.logic.Customer;
+import com.ticketingSystem.backend.logic.EventInventory;
+import com.ticketingSystem.backend.logic.TicketPool;
 import com.ticketingSystem.backend.logic.TicketingSystem;
 import com.ticketingSystem.backend.model.ConfigurationEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * The ThreadController class provides API endpoints for dynamically managing
  * vendors and customers in the ticketing system during runtime.
  * It allows for adding and removing vendors and customers based on the current configuration.
+ * Every endpoint acts on the default session unless a "session" request parameter names another one.
  */
 @RestController
 @RequestMapping("/api/dynamic")
 public class ThreadController {
 
-    private final ThreadManager threadManager;
-    private final TicketPool ticketPool;
+    private final SimulationSessionRegistry sessions;
 
     /**
      * Constructor that initializes the ThreadController with required services.
      *
-     * @param threadManager The manager responsible for handling threads (vendors and customers).
-     * @param ticketPool    The pool responsible for managing the tickets.
+     * @param sessions The registry of simulation sessions, each with its own vendors and customers.
      */
     @Autowired
-    public ThreadController(ThreadManager threadManager, TicketPool ticketPool, TicketingSystem ticketingSystem) {
-        this.threadManager = threadManager;
-        this.ticketPool = ticketPool;
+    public ThreadController(SimulationSessionRegistry sessions) {
+        this.sessions = sessions;
     }
 
     /**
      * Endpoint to add a vendor dynamically based on the current configuration.
      * The new vendor will be added to the thread manager and start handling tickets.
      *
+     * @param session The ID of the simulation session, the default session if not given.
+     * @param event   The ID of the event the vendor releases tickets for; the next event in turn if not given.
      * @return A response message indicating the result of the operation.
      */
     @PostMapping("/addVendor")
-    public String addVendor() {
-        if (!TicketingSystem.isRunning()) {
+    public String addVendor(@RequestParam(defaultValue = SimulationSessionRegistry.DEFAULT_SESSION) String session,
+                            @RequestParam(required = false) Long event) {
+        TicketingSystem ticketingSystem = sessions.get(session);
+        if (ticketingSystem == null || !ticketingSystem.isRunning()) {
             return "failed";
         }
-        ConfigurationEntity config = TicketingSystem.getCurrentConfig();
+        ThreadManager threadManager = ticketingSystem.getThreadManager();
+        ConfigurationEntity config = ticketingSystem.getCurrentConfig();
         if (config != null) {
             // Create and configure a new vendor with the current configuration
-            Vendor vendor = new Vendor(ticketPool);
-            vendor.configure(config.getTicketReleaseRate(), config.getTotalTickets(), threadManager.getVendorCount() + 1);
+            EventInventory inventory = ticketingSystem.getInventory();
+            TicketPool ticketPool = event != null ? inventory.getPoolForEvent(event) : inventory.getPool(threadManager.getVendorCount());
+            if (ticketPool == null) {
+                return "Event " + event + " is not part of this run.";
+            }
+            Vendor vendor = new Vendor(ticketingSystem, ticketPool);
+            vendor.configure(config.getTicketReleaseRate(), config.getTotalTickets(), threadManager.getVendorCount() + 1, config.getVendorBatchSize());
             threadManager.addVendor(vendor);
             return "Vendor added. Total vendors: " + threadManager.getVendorCount();
         } else {
@@ -60,18 +72,36 @@ public class ThreadController {
      * Endpoint to add a customer dynamically based on the current configuration.
      * The new customer will be added to the thread manager and start interacting with the ticket pool.
      *
+     * @param session The ID of the simulation session, the default session if not given.
+     * @param events  The IDs of the events the customer wants, favourite first; every event of the run if not given.
      * @return A response message indicating the result of the operation.
      */
     @PostMapping("/addCustomer")
-    public String addCustomer() {
-        if (!TicketingSystem.isRunning()) {
+    public String addCustomer(@RequestParam(defaultValue = SimulationSessionRegistry.DEFAULT_SESSION) String session,
+                              @RequestParam(required = false) List<Long> events) {
+        TicketingSystem ticketingSystem = sessions.get(session);
+        if (ticketingSystem == null || !ticketingSystem.isRunning()) {
             return "failed";
         }
-        ConfigurationEntity config = TicketingSystem.getCurrentConfig();
+        ThreadManager threadManager = ticketingSystem.getThreadManager();
+        ConfigurationEntity config = ticketingSystem.getCurrentConfig();
         if (config != null) {
             // Create and configure a new customer with the current configuration
-            Customer customer = new Customer(ticketPool);
-            customer.configure(config.getCustomerRetrievalRate(), threadManager.getCustomerCount() + 1);
+            EventInventory inventory = ticketingSystem.getInventory();
+            TicketPool[] preferences;
+            if (events == null || events.isEmpty()) {
+                preferences = inventory.getPreferences(threadManager.getCustomerCount());
+            } else {
+                preferences = new TicketPool[events.size()];
+                for (int i = 0; i < preferences.length; i++) {
+                    preferences[i] = inventory.getPoolForEvent(events.get(i));
+                    if (preferences[i] == null) {
+                        return "Event " + events.get(i) + " is not part of this run.";
+                    }
+                }
+            }
+            Customer customer = new Customer(ticketingSystem, preferences);
+            customer.configure(config.getCustomerRetrievalRate(), threadManager.getCustomerCount() + 1, config.getCustomerBatchSize());
             threadManager.addCustomer(customer);
             return "Customer added. Total customers: " + threadManager.getCustomerCount();
         } else {
@@ -1,18 +1,30 @@
 package com.ticketingSystem.backend.controller;
 
-import com.ticketingSystem.backend.logic.ThreadManager;
+import com.ticketingSystem.backend.logic.DiscreteEventSimulator;
+import com.ticketingSystem.backend.logic.EngineSnapshot;
+import com.ticketingSystem.backend.logic.SimulationSessionRegistry;
+import com.ticketingSystem.backend.logic.SimulationState;
 import com.ticketingSystem.backend.logic.TicketingSystem;
 import com.ticketingSystem.backend.model.ConfigurationEntity;
-import com.ticketingSystem.backend.repository.ConfigurationRepository;
-import com.ticketingSystem.backend.web_socket.WebSocketController;
+import com.ticketingSystem.backend.model.EventEntity;
+import com.ticketingSystem.backend.repository.EventRepository;
+import com.ticketingSystem.backend.events.SimulationEventPublisher;
+import com.ticketingSystem.backend.service.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -23,25 +35,33 @@ import java.util.Optional;
 @RequestMapping("/api/ticketing-system")
 public class TicketingSystemController {
 
+    static final long MAX_AWAIT_MILLIS = 120_000; // Longest a client may park an /await request
+
+    @Autowired
+    private SimulationEventPublisher eventPublisher; // Publisher for sending real-time updates in order with engine events
+
     @Autowired
-    private WebSocketController webSocketController; // WebSocket controller for sending real-time updates
+    private EventRepository eventRepository; // Repository for accessing the event catalogue
+
+    @Autowired
+    private DiscreteEventSimulator discreteEventSimulator; // Headless engine for accelerated runs on a virtual clock
 
     private final TicketingSystem ticketingSystem; // Instance of the TicketingSystem to manage ticketing logic
-    private final ConfigurationRepository configurationRepository; // Repository for accessing configurations
-    private final ThreadManager threadManager; // Thread manager for handling vendor and customer threads
+    private final ConfigurationService configurationService; // Cached access to configurations
+    private final SimulationSessionRegistry sessions; // Registry of the simulation sessions running side by side
 
     /**
      * Constructor-based dependency injection for the required components.
      *
-     * @param ticketingSystem the ticketing system to manage the ticketing process
-     * @param configurationRepository the repository to interact with configuration entities
-     * @param threadManager the thread manager to handle vendor and customer threads
+     * @param ticketingSystem the ticketing system of the default session
+     * @param configurationService the service to read configuration entities through
+     * @param sessions the registry of simulation sessions
      */
     @Autowired
-    public TicketingSystemController(TicketingSystem ticketingSystem, ConfigurationRepository configurationRepository, ThreadManager threadManager) {
+    public TicketingSystemController(TicketingSystem ticketingSystem, ConfigurationService configurationService, SimulationSessionRegistry sessions) {
         this.ticketingSystem = ticketingSystem;
-        this.configurationRepository = configurationRepository;
-        this.threadManager = threadManager;
+        this.configurationService = configurationService;
+        this.sessions = sessions;
     }
 
     /**
@@ -52,48 +72,190 @@ public class TicketingSystemController {
      * or an error message if the configuration is not found.
      *
      * @param id the ID of the configuration to be used for starting the system
+     * @param events the IDs of the events to sell, each from its own pool; none to sell the sample event
      * @return a ResponseEntity indicating whether the system was successfully started or not
      */
     @PostMapping("/start/{id}")
-    public ResponseEntity<String> startSystem(@PathVariable Long id) {
-        // Attempt to retrieve the configuration by ID from the repository
-        Optional<ConfigurationEntity> configuration = configurationRepository.findById(id);
+    public ResponseEntity<String> startSystem(@PathVariable Long id, @RequestParam(required = false) List<Long> events) {
+        // Attempt to retrieve the configuration by ID, from the cache if it was read recently
+        Optional<ConfigurationEntity> configuration = configurationService.getConfigurationById(id);
+        Optional<List<EventEntity>> selectedEvents = findEvents(eventRepository, events);
+        if (selectedEvents.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Event not found");
+        }
 
         // If configuration is found, start the system with it, else return a not found status
         if (configuration.isPresent()) {
             ConfigurationEntity config = configuration.get();
-            ticketingSystem.startSystem(config); // Start the system with the given configuration
+            ticketingSystem.startSystem(config, selectedEvents.get()); // Start the system with the given configuration
             return ResponseEntity.status(HttpStatus.OK).body("Ticketing system started with configuration ID: " + id);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Configuration not found");
         }
     }
 
+    /**
+     * Endpoint to run the configuration with the given ID in accelerated mode.
+     *
+     * The run happens on a virtual clock without threads or sleeps, so it does not touch the
+     * live simulation and sends nothing to WebSocket clients. The same seed always produces
+     * the same summary.
+     *
+     * @param id   the ID of the configuration to simulate
+     * @param seed the random seed of the run
+     * @return the simulation summary, or a not found status if the configuration does not exist
+     */
+    @PostMapping("/simulate/{id}")
+    public ResponseEntity<Map<String, Object>> simulate(@PathVariable Long id, @RequestParam(defaultValue = "0") long seed) {
+        Optional<ConfigurationEntity> configuration = configurationService.getConfigurationById(id);
+        if (configuration.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(discreteEventSimulator.simulate(configuration.get(), seed));
+    }
+
     /**
      * Endpoint to stop the ticketing system.
      *
-     * This method stops all running threads (vendors and customers) and sends a message
-     * to the WebSocket controller indicating that the system has been stopped.
+     * This method stops all running threads (vendors and customers) and queues a message
+     * for WebSocket clients indicating that the system has been stopped.
      *
+     * @param session the ID of the simulation session, the default session if not given
      * @return a message indicating that the ticketing system has been stopped
      */
     @PostMapping("/stop")
-    public String stopSystem() {
-        threadManager.stopAllThreads(); // Stop all active threads related to vendors and customers
-        webSocketController.sendTicketMessage("Ticketing system stopped"); // Send a WebSocket message about system stop
+    public String stopSystem(@RequestParam(defaultValue = SimulationSessionRegistry.DEFAULT_SESSION) String session) {
+        TicketingSystem system = sessions.get(session);
+        if (system == null) {
+            return "Session not found";
+        }
+        system.stopSystem(); // Stop all active threads related to vendors and customers
+        eventPublisher.publish(system.getEventTopic(), "Ticketing system stopped"); // Queue a WebSocket message about system stop
         return "Ticketing System Stopped";
     }
 
+    /**
+     * Endpoint to get the latency percentiles of the current or last run.
+     *
+     * Reports p50, p90, p99, p99.9 and max, in milliseconds, of how long tickets wait in the
+     * pool before being bought and of how long customers wait for each purchase.
+     *
+     * @param session the ID of the simulation session, the default session if not given
+     * @return the latency percentiles, or a not found status if the session does not exist
+     */
+    @GetMapping("/latency")
+    public ResponseEntity<Map<String, Object>> getLatencies(@RequestParam(defaultValue = SimulationSessionRegistry.DEFAULT_SESSION) String session) {
+        TicketingSystem system = sessions.get(session);
+        if (system == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(system.getLatencies());
+    }
+
+    /**
+     * Long-poll endpoint that answers as soon as the current run of a session ends, without
+     * the client polling and without holding a server thread while it waits.
+     *
+     * The response carries the state of the run: COMPLETED or STOPPED once it has ended, or
+     * the state it is still in when the timeout expires first, in which case the client polls again.
+     *
+     * @param session the ID of the simulation session, the default session if not given
+     * @param timeout the longest time to wait, in milliseconds, at most {@value #MAX_AWAIT_MILLIS}
+     * @return the session ID and state of the run, or a not found status if the session does not exist
+     */
+    @GetMapping("/await")
+    public DeferredResult<ResponseEntity<Map<String, Object>>> awaitCompletion(
+            @RequestParam(defaultValue = SimulationSessionRegistry.DEFAULT_SESSION) String session,
+            @RequestParam(defaultValue = "30000") long timeout) {
+        TicketingSystem system = sessions.get(session);
+        if (system == null) {
+            DeferredResult<ResponseEntity<Map<String, Object>>> notFound = new DeferredResult<>();
+            notFound.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+            return notFound;
+        }
+        DeferredResult<ResponseEntity<Map<String, Object>>> result = new DeferredResult<>(
+                Math.max(1, Math.min(timeout, MAX_AWAIT_MILLIS)), () -> ResponseEntity.ok(describeRun(system, system.getState())));
+        system.getCompletion().thenAccept(state -> result.setResult(ResponseEntity.ok(describeRun(system, state))));
+        return result;
+    }
+
+    private static Map<String, Object> describeRun(TicketingSystem system, SimulationState state) {
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("sessionId", system.getSessionID());
+        run.put("state", state);
+        return run;
+    }
+
+    /**
+     * Endpoint to get the events of the current or last run, with the tickets in each event's
+     * pool and the tickets sold for it.
+     *
+     * @param session the ID of the simulation session, the default session if not given
+     * @return one entry per event, or a not found status if the session does not exist
+     */
+    @GetMapping("/events")
+    public ResponseEntity<List<Map<String, Object>>> getEvents(@RequestParam(defaultValue = SimulationSessionRegistry.DEFAULT_SESSION) String session) {
+        TicketingSystem system = sessions.get(session);
+        if (system == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(system.getSnapshot().getEvents());
+    }
+
+    /**
+     * Endpoint to get the latest published snapshot of a session: run state, tickets in the pools,
+     * tickets released and sold, actor counts and the tickets of every vendor and customer.
+     * It reads no engine state, so polling it does not slow the run down.
+     *
+     * @param session the ID of the simulation session, the default session if not given
+     * @return the snapshot, at most ticketing.snapshot.interval-ms old, or a not found status if the session does not exist
+     */
+    @GetMapping("/status")
+    public ResponseEntity<EngineSnapshot> getStatus(@RequestParam(defaultValue = SimulationSessionRegistry.DEFAULT_SESSION) String session) {
+        TicketingSystem system = sessions.get(session);
+        if (system == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(system.getSnapshot());
+    }
+
     /**
      * Endpoint to reset the ticketing system.
      *
      * This method resets the ticketing system, returning it to its initial state.
      *
+     * @param session the ID of the simulation session, the default session if not given
      * @return a message indicating that the ticketing system has been reset
      */
     @PostMapping("/reset")
-    public String resetSystem() {
-        ticketingSystem.resetSystem(); // Reset the system to its initial state
+    public String resetSystem(@RequestParam(defaultValue = SimulationSessionRegistry.DEFAULT_SESSION) String session) {
+        TicketingSystem system = sessions.get(session);
+        if (system == null) {
+            return "Session not found";
+        }
+        system.resetSystem(); // Reset the system to its initial state
         return "Ticketing System reset";
     }
+
+    /**
+     * Looks up the events to sell, in the order they were given.
+     *
+     * @param eventRepository the event catalogue
+     * @param eventIDs        the IDs of the events, or null for none
+     * @return the events, or an empty optional if any of them does not exist
+     */
+    static Optional<List<EventEntity>> findEvents(EventRepository eventRepository, List<Long> eventIDs) {
+        if (eventIDs == null || eventIDs.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        List<EventEntity> events = new ArrayList<>(eventIDs.size());
+        for (Long eventID : eventIDs) {
+            Optional<EventEntity> event = eventRepository.findById(eventID);
+            if (event.isEmpty()) {
+                return Optional.empty();
+            }
+            events.add(event.get());
+        }
+        return Optional.of(events);
+    }
 }
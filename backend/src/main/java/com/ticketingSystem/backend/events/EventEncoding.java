@@ -0,0 +1,20 @@
+package com.ticketingSystem.backend.events;
+
+/**
+ * The EventEncoding enum selects the payload format the {@link SimulationEventPublisher}
+ * sends to "/topic/simulation".
+ */
+public enum EventEncoding {
+
+    /** Human-readable lines, as sent before typed events existed. */
+    TEXT,
+
+    /** A JSON array of compact event arrays, such as [[1,3,17],[2,4,17]]. */
+    JSON,
+
+    /**
+     * A binary STOMP payload (application/octet-stream). SockJS transports are text-only,
+     * so binary payloads need a client connected to the native "/websocket-native" endpoint.
+     */
+    BINARY
+}
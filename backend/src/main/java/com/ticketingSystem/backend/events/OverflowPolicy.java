@@ -0,0 +1,18 @@
+package com.ticketingSystem.backend.events;
+
+/**
+ * The OverflowPolicy enum decides what happens to a simulation event when the
+ * {@link SimulationEventPublisher} queue cannot keep up. Control events (status messages, the
+ * sold-out notice and the summary) are always queued, whatever the policy.
+ */
+public enum OverflowPolicy {
+
+    /** Discard the event and count it as dropped. The engine never waits. */
+    DROP,
+
+    /** Wait for room in the queue. Every event is delivered, at the cost of slowing the engine down. */
+    BLOCK,
+
+    /** Once the queue is half full, only keep one event in every sample-rate events and count the rest as dropped. */
+    SAMPLE
+}
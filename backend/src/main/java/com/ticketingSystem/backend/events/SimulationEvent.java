@@ -0,0 +1,208 @@
+package com.ticketingSystem.backend.events;
+
+import com.ticketingSystem.backend.logic.Ticket;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A SimulationEvent records something that happened in the ticketing engine.
+ * It only keeps references to what the engine already has at hand, so creating one
+ * is cheap; the payload sent to clients is built later on the publisher thread by
+ * {@link SimulationEventEncoder}, either as the original text or as a compact
+ * encoding keyed by the numeric {@link Kind#getCode() kind code}.
+ */
+public final class SimulationEvent {
+
+    /**
+     * The kind of event. Codes are part of the wire format and must never be renumbered.
+     */
+    public enum Kind {
+        MESSAGE(0),
+        TICKET_ADDED(1),
+        TICKET_REMOVED(2),
+        POOL_FULL(3),
+        POOL_EMPTY(4),
+        ACTOR_ADDED(5),
+        SOLD_OUT(6),
+        SUMMARY(7);
+
+        private final int code;
+
+        Kind(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+    }
+
+    /** Actor role code of a vendor in {@link Kind#ACTOR_ADDED} events. */
+    public static final int VENDOR = 0;
+
+    /** Actor role code of a customer in {@link Kind#ACTOR_ADDED} events. */
+    public static final int CUSTOMER = 1;
+
+    private static final SimulationEvent SOLD_OUT_EVENT = new SimulationEvent(Kind.SOLD_OUT, 0, null, null, 0, null, null);
+
+    private final Kind kind;
+    private final int actorID;
+    private final Ticket ticket;
+    private final Ticket[] tickets;
+    private final int count;
+    private final String text;
+    private final Map<String, Object> summary;
+
+    private SimulationEvent(Kind kind, int actorID, Ticket ticket, Ticket[] tickets, int count,
+                            String text, Map<String, Object> summary) {
+        this.kind = kind;
+        this.actorID = actorID;
+        this.ticket = ticket;
+        this.tickets = tickets;
+        this.count = count;
+        this.text = text;
+        this.summary = summary;
+    }
+
+    public static SimulationEvent ticketAdded(int vendorID, Ticket ticket) {
+        return new SimulationEvent(Kind.TICKET_ADDED, vendorID, ticket, null, 1, null, null);
+    }
+
+    public static SimulationEvent ticketsAdded(int vendorID, Ticket[] tickets) {
+        return new SimulationEvent(Kind.TICKET_ADDED, vendorID, null, tickets, tickets.length, null, null);
+    }
+
+    public static SimulationEvent ticketRemoved(int customerID, Ticket ticket) {
+        return new SimulationEvent(Kind.TICKET_REMOVED, customerID, ticket, null, 1, null, null);
+    }
+
+    public static SimulationEvent ticketsRemoved(int customerID, Ticket[] tickets) {
+        return new SimulationEvent(Kind.TICKET_REMOVED, customerID, null, tickets, tickets.length, null, null);
+    }
+
+    public static SimulationEvent poolFull(int vendorID) {
+        return new SimulationEvent(Kind.POOL_FULL, vendorID, null, null, 0, null, null);
+    }
+
+    public static SimulationEvent poolEmpty(int customerID) {
+        return new SimulationEvent(Kind.POOL_EMPTY, customerID, null, null, 0, null, null);
+    }
+
+    /**
+     * Creates an event for a vendor or customer joining the simulation.
+     *
+     * @param role  {@link #VENDOR} or {@link #CUSTOMER}
+     * @param total the number of actors of that role after the addition
+     * @return the event
+     */
+    public static SimulationEvent actorAdded(int role, int total) {
+        return new SimulationEvent(Kind.ACTOR_ADDED, role, null, null, total, null, null);
+    }
+
+    public static SimulationEvent soldOut() {
+        return SOLD_OUT_EVENT;
+    }
+
+    public static SimulationEvent summary(Map<String, Object> summary) {
+        return new SimulationEvent(Kind.SUMMARY, 0, null, null, 0, null, summary);
+    }
+
+    public static SimulationEvent message(String text) {
+        return new SimulationEvent(Kind.MESSAGE, 0, null, null, 0, text, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Tells whether the event is a control event: a status message, the sold-out notice or the
+     * summary. Clients rely on these to follow the run, so they are never dropped or sampled.
+     */
+    public boolean isControl() {
+        return kind == Kind.MESSAGE || kind == Kind.SOLD_OUT || kind == Kind.SUMMARY;
+    }
+
+    /**
+     * Gets the vendor or customer the event is about, or the actor role for {@link Kind#ACTOR_ADDED}.
+     */
+    public int getActorID() {
+        return actorID;
+    }
+
+    /**
+     * Gets the number of tickets moved, or the actor total for {@link Kind#ACTOR_ADDED}.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the ID of the i-th ticket moved by a {@link Kind#TICKET_ADDED} or {@link Kind#TICKET_REMOVED} event.
+     */
+    public int getTicketID(int i) {
+        return tickets != null ? tickets[i].getTicketID() : ticket.getTicketID();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Map<String, Object> getSummary() {
+        return summary;
+    }
+
+    /**
+     * Builds the human-readable text of the event.
+     *
+     * @return the message shown on the simulation page
+     */
+    public String toMessage() {
+        switch (kind) {
+            case TICKET_ADDED:
+                if (tickets != null) {
+                    return String.format("Vendor ID: %d added %d Tickets to the pool.\nAdded Ticket IDs: %s Event Name: %s",
+                            actorID, tickets.length, ticketIDs(tickets), tickets[0].getTicketName());
+                }
+                return String.format("Vendor ID: %d added 1 Ticket to the pool.\nAdded Ticket ID: %d Event Name: %s",
+                        actorID, ticket.getTicketID(), ticket.getTicketName());
+            case TICKET_REMOVED:
+                if (tickets != null) {
+                    return String.format("Customer ID: %d removed %d Tickets from the pool.\nRemoved Ticket IDs: %s Event Name: %s",
+                            actorID, tickets.length, ticketIDs(tickets), tickets[0].getTicketName());
+                }
+                return String.format("Customer ID: %d removed 1 Ticket from the pool.\nRemoved Ticket ID: %d Event Name: %s",
+                        actorID, ticket.getTicketID(), ticket.getTicketName());
+            case POOL_FULL:
+                return "Ticket pool is full for Vendor ID: " + actorID;
+            case POOL_EMPTY:
+                return "Ticket pool is empty for Customer ID: " + actorID;
+            case ACTOR_ADDED:
+                return actorID == VENDOR
+                        ? "Vendor thread added. Total vendors: " + count
+                        : "Customer thread added. Total customers: " + count;
+            case SOLD_OUT:
+                return "All tickets sold out! Customers purchasing tickets if remaining...";
+            case SUMMARY:
+                return formatSummary(summary);
+            default:
+                return text;
+        }
+    }
+
+    private static String ticketIDs(Ticket[] batch) {
+        return Arrays.stream(batch)
+                .map(ticket -> String.valueOf(ticket.getTicketID()))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String formatSummary(Map<String, Object> summaryMap) {
+        StringBuilder summary = new StringBuilder("Simulation Summary:\n");
+        summaryMap.forEach((key, value) -> {
+            summary.append(key).append(": ").append(value).append("\n");
+        });
+        return summary.toString().trim();
+    }
+}
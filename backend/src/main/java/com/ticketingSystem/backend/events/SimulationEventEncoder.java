@@ -0,0 +1,230 @@
+package com.ticketingSystem.backend.events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SimulationEventEncoder turns a batch of {@link SimulationEvent}s into one payload.
+ * It reuses its buffers between batches, so an instance must only be used by one thread.
+ *
+ * <p>Every event is encoded as its kind code followed by the fields of that kind:</p>
+ * <ul>
+ *     <li>1 ticket added, 2 ticket removed: actor ID, ticket IDs...</li>
+ *     <li>3 pool full, 4 pool empty: actor ID</li>
+ *     <li>5 actor added: role (0 vendor, 1 customer), total actors of that role</li>
+ *     <li>6 sold out: no fields</li>
+ *     <li>7 summary: an object of summary entries</li>
+ *     <li>0 message: the message text</li>
+ * </ul>
+ *
+ * <p>JSON batches are an array of event arrays. Binary batches start with a format version byte,
+ * followed by each event as a code byte and big-endian 32-bit fields; ticket events carry
+ * their ticket count before the IDs, and summaries and messages carry a length-prefixed
+ * UTF-8 string (summaries as a JSON object).</p>
+ */
+public class SimulationEventEncoder {
+
+    /** Version byte at the start of every binary batch. */
+    public static final byte BINARY_FORMAT_VERSION = 1;
+
+    private final EventEncoding encoding;
+    private final StringBuilder text = new StringBuilder(4096);
+    private byte[] bytes = new byte[4096];
+    private int length;
+
+    public SimulationEventEncoder(EventEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    public EventEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Encodes a batch of events.
+     *
+     * @param batch the events to encode, in publishing order
+     * @return a String for TEXT and JSON encodings, or a byte array for BINARY
+     */
+    public Object encode(List<SimulationEvent> batch) {
+        switch (encoding) {
+            case JSON:
+                return encodeJson(batch);
+            case BINARY:
+                return encodeBinary(batch);
+            default:
+                return encodeText(batch);
+        }
+    }
+
+    private String encodeText(List<SimulationEvent> batch) {
+        text.setLength(0);
+        for (SimulationEvent event : batch) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(event.toMessage());
+        }
+        return text.toString();
+    }
+
+    private String encodeJson(List<SimulationEvent> batch) {
+        text.setLength(0);
+        text.append('[');
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            appendJson(batch.get(i));
+        }
+        return text.append(']').toString();
+    }
+
+    private void appendJson(SimulationEvent event) {
+        text.append('[').append(event.getKind().getCode());
+        switch (event.getKind()) {
+            case TICKET_ADDED:
+            case TICKET_REMOVED:
+                text.append(',').append(event.getActorID());
+                for (int i = 0; i < event.getCount(); i++) {
+                    text.append(',').append(event.getTicketID(i));
+                }
+                break;
+            case POOL_FULL:
+            case POOL_EMPTY:
+                text.append(',').append(event.getActorID());
+                break;
+            case ACTOR_ADDED:
+                text.append(',').append(event.getActorID()).append(',').append(event.getCount());
+                break;
+            case SUMMARY:
+                text.append(',');
+                appendJsonObject(text, event.getSummary());
+                break;
+            case MESSAGE:
+                text.append(',');
+                appendJsonString(text, event.getText());
+                break;
+            default:
+                break;
+        }
+        text.append(']');
+    }
+
+    private byte[] encodeBinary(List<SimulationEvent> batch) {
+        length = 0;
+        writeByte(BINARY_FORMAT_VERSION);
+        for (SimulationEvent event : batch) {
+            writeByte(event.getKind().getCode());
+            switch (event.getKind()) {
+                case TICKET_ADDED:
+                case TICKET_REMOVED:
+                    writeInt(event.getActorID());
+                    writeInt(event.getCount());
+                    for (int i = 0; i < event.getCount(); i++) {
+                        writeInt(event.getTicketID(i));
+                    }
+                    break;
+                case POOL_FULL:
+                case POOL_EMPTY:
+                    writeInt(event.getActorID());
+                    break;
+                case ACTOR_ADDED:
+                    writeByte(event.getActorID());
+                    writeInt(event.getCount());
+                    break;
+                case SUMMARY:
+                    StringBuilder summary = new StringBuilder();
+                    appendJsonObject(summary, event.getSummary());
+                    writeString(summary.toString());
+                    break;
+                case MESSAGE:
+                    writeString(event.getText());
+                    break;
+                default:
+                    break;
+            }
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(4);
+        bytes[length++] = (byte) (value >>> 24);
+        bytes[length++] = (byte) (value >>> 16);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+    }
+
+    private void writeString(String value) {
+        byte[] utf8 = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        writeInt(utf8.length);
+        ensureCapacity(utf8.length);
+        System.arraycopy(utf8, 0, bytes, length, utf8.length);
+        length += utf8.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+
+    private static void appendJsonObject(StringBuilder out, Map<String, Object> map) {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            appendJsonString(out, entry.getKey());
+            out.append(':');
+            Object value = entry.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                out.append(value);
+            } else {
+                appendJsonString(out, String.valueOf(value));
+            }
+        }
+        out.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
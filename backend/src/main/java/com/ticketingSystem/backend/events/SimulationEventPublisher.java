@@ -0,0 +1,273 @@
+package com.ticketingSystem.backend.events;
+
+import com.ticketingSystem.backend.web_socket.WebSocketController;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The SimulationEventPublisher decouples the ticketing engine from WebSocket broadcasting.
+ * Engine threads only push small {@link SimulationEvent}s into a queue; a single publisher
+ * thread drains the queue in batches, encodes the events of each topic with the
+ * configured {@link EventEncoding} and sends them as one message (in TEXT encoding one line
+ * per event, as the original client expects). Every simulation session has its own topic,
+ * and all sessions share the queue and the publisher thread.
+ * Ticket throughput is therefore independent of how many dashboards are connected.
+ *
+ * <p>The queue itself is unbounded; queue-capacity bounds only the ticket and pool events waiting in
+ * it, and the overflow policy applies to those alone. Control events (status messages such as
+ * "Simulation ended", the sold-out notice and the summary) are rare and are how clients see a run
+ * start and end, so they are always queued, in order with the other events, even when ticket and
+ * pool events have used up the capacity.</p>
+ *
+ * <p>Published batches are also written to the ticketing.tickets log, at DEBUG level and only one
+ * batch in every log-sample-rate, so that at the default INFO level no per-ticket line is built or
+ * written at all. The log itself is asynchronous (see logback-spring.xml).</p>
+ */
+@Component
+public class SimulationEventPublisher {
+
+    /** Topic of the default simulation session, the one the original client subscribes to. */
+    public static final String DEFAULT_TOPIC = "/topic/simulation";
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulationEventPublisher.class);
+    private static final Logger ticketLog = LoggerFactory.getLogger("ticketing.tickets");
+
+    private static final int MAX_IDLE_TOPICS = 256;
+
+    private static final class QueuedEvent {
+        final String topic;
+        final SimulationEvent event;
+
+        QueuedEvent(String topic, SimulationEvent event) {
+            this.topic = topic;
+            this.event = event;
+        }
+    }
+
+    private final WebSocketController webSocketController;
+    private final BlockingQueue<QueuedEvent> queue = new LinkedBlockingQueue<>();
+    private final Semaphore room;  // Bounds the queued ticket and pool events; control events take no room
+    private final int queueCapacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final SimulationEventEncoder encoder;
+    private final int logSampleRate;
+    private long loggedBatches;  // Only touched by the publisher thread
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger sampleCounter = new AtomicInteger();
+    private final LongAdder publishedEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder publishedBatches = new LongAdder();
+
+    private Thread publisherThread;
+
+    /**
+     * Creates the publisher.
+     *
+     * @param webSocketController the controller used to send batches to clients
+     * @param queueCapacity       the maximum number of events waiting to be published
+     * @param batchSize           the maximum number of events sent in one message
+     * @param overflowPolicy      what to do with an event when the queue is full
+     * @param sampleRate          with the SAMPLE policy, keep one in this many events once the queue is half full
+     * @param encoding            the payload format sent to clients
+     * @param logSampleRate       with DEBUG enabled for ticketing.tickets, log one in this many batches
+     */
+    public SimulationEventPublisher(WebSocketController webSocketController,
+                                    @Value("${ticketing.events.queue-capacity:8192}") int queueCapacity,
+                                    @Value("${ticketing.events.batch-size:256}") int batchSize,
+                                    @Value("${ticketing.events.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                                    @Value("${ticketing.events.sample-rate:10}") int sampleRate,
+                                    @Value("${ticketing.events.encoding:TEXT}") EventEncoding encoding,
+                                    @Value("${ticketing.events.log-sample-rate:1}") int logSampleRate) {
+        this.webSocketController = webSocketController;
+        this.queueCapacity = Math.max(queueCapacity, 1);
+        this.room = new Semaphore(this.queueCapacity);
+        this.batchSize = Math.max(batchSize, 1);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.encoder = new SimulationEventEncoder(encoding);
+        this.logSampleRate = Math.max(logSampleRate, 1);
+    }
+
+    @PostConstruct
+    public void start() {
+        publisherThread = new Thread(this::publishLoop, "simulation-event-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (publisherThread != null) {
+            publisherThread.interrupt();
+        }
+    }
+
+    /**
+     * Queues an event of the default session for publishing.
+     *
+     * @param event the event to publish
+     */
+    public void publish(SimulationEvent event) {
+        publish(DEFAULT_TOPIC, event);
+    }
+
+    /**
+     * Queues an event for publishing, applying the overflow policy if the queue is full.
+     * Control events are always queued.
+     *
+     * @param topic the topic of the session the event belongs to
+     * @param event the event to publish
+     */
+    public void publish(String topic, SimulationEvent event) {
+        QueuedEvent queued = new QueuedEvent(topic, event);
+        if (event.isControl()) {
+            enqueue(queued);
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    room.acquire();
+                    enqueue(queued);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedEvents.increment();
+                }
+                return;
+            case SAMPLE:
+                if (pending.get() > queueCapacity / 2 && sampleCounter.incrementAndGet() % sampleRate != 0) {
+                    droppedEvents.increment();
+                    return;
+                }
+                offer(queued);
+                return;
+            default:
+                offer(queued);
+        }
+    }
+
+    /**
+     * Queues a free-form text message, such as a status line or the simulation summary.
+     *
+     * @param message the message to publish
+     */
+    public void publish(String message) {
+        publish(DEFAULT_TOPIC, message);
+    }
+
+    /**
+     * Queues a free-form text message for the given session topic.
+     *
+     * @param topic   the topic of the session the message belongs to
+     * @param message the message to publish
+     */
+    public void publish(String topic, String message) {
+        publish(topic, SimulationEvent.message(message));
+    }
+
+    private void offer(QueuedEvent event) {
+        if (room.tryAcquire()) {
+            enqueue(event);
+        } else {
+            droppedEvents.increment();
+        }
+    }
+
+    private void enqueue(QueuedEvent event) {
+        pending.incrementAndGet();
+        queue.add(event);
+    }
+
+    private void publishLoop() {
+        List<QueuedEvent> drained = new ArrayList<>(batchSize);
+        Map<String, List<SimulationEvent>> batches = new LinkedHashMap<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                drained.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(drained, batchSize - 1);
+            pending.addAndGet(-drained.size());
+
+            int freed = 0;
+            for (QueuedEvent queued : drained) {
+                if (!queued.event.isControl()) {
+                    freed++;
+                }
+                batches.computeIfAbsent(queued.topic, topic -> new ArrayList<>()).add(queued.event);
+            }
+            room.release(freed);
+            for (Map.Entry<String, List<SimulationEvent>> batch : batches.entrySet()) {
+                if (!batch.getValue().isEmpty()) {
+                    send(batch.getKey(), batch.getValue());
+                    batch.getValue().clear();
+                }
+            }
+            if (batches.size() > MAX_IDLE_TOPICS) {
+                batches.clear();  // Forget the batch lists of sessions that have ended
+            }
+            publishedEvents.add(drained.size());
+            drained.clear();
+        }
+    }
+
+    private void send(String topic, List<SimulationEvent> batch) {
+        try {
+            Object payload = encoder.encode(batch);
+            boolean control = false;
+            for (SimulationEvent event : batch) {
+                control |= event.isControl();
+            }
+            if (payload instanceof byte[]) {
+                webSocketController.sendTicketPayload(topic, (byte[]) payload, control);
+            } else {
+                webSocketController.sendTicketMessage(topic, (String) payload, control);
+            }
+            if (ticketLog.isDebugEnabled() && loggedBatches++ % logSampleRate == 0) {
+                if (payload instanceof byte[]) {
+                    ticketLog.debug("{}: {} events, {} bytes", topic, batch.size(), ((byte[]) payload).length);
+                } else {
+                    ticketLog.debug("{}: {}", topic, payload);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Error publishing simulation events: {}", e.getMessage());
+        }
+        publishedBatches.increment();
+    }
+
+    public long getPublishedEvents() {
+        return publishedEvents.sum();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    public long getPublishedBatches() {
+        return publishedBatches.sum();
+    }
+
+    public int getQueuedEvents() {
+        return Math.max(pending.get(), 0);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ticketingSystem.backend.ledger;
+
+/**
+ * One ticket sale as recorded in the {@link SalesLedger}. Ticket IDs start again in every run,
+ * so the run ID, event ID and ticket ID together identify a sale.
+ */
+public final class Sale {
+
+    private final long runID;
+    private final int ticketID;
+    private final int vendorID;
+    private final int customerID;
+    private final long eventID;
+    private final long releasedAt;
+    private final long soldAt;
+
+    /**
+     * Creates a sale.
+     *
+     * @param runID      the run the ticket was sold in
+     * @param ticketID   the ID of the ticket within its event
+     * @param vendorID   the vendor that released the ticket
+     * @param customerID the customer that bought it
+     * @param eventID    the event the ticket is for, 0 for the sample event
+     * @param releasedAt when the ticket was released, in epoch milliseconds
+     * @param soldAt     when the ticket was bought, in epoch milliseconds
+     */
+    public Sale(long runID, int ticketID, int vendorID, int customerID, long eventID, long releasedAt, long soldAt) {
+        this.runID = runID;
+        this.ticketID = ticketID;
+        this.vendorID = vendorID;
+        this.customerID = customerID;
+        this.eventID = eventID;
+        this.releasedAt = releasedAt;
+        this.soldAt = soldAt;
+    }
+
+    public long getRunID() {
+        return runID;
+    }
+
+    public int getTicketID() {
+        return ticketID;
+    }
+
+    public int getVendorID() {
+        return vendorID;
+    }
+
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    public long getEventID() {
+        return eventID;
+    }
+
+    public long getReleasedAt() {
+        return releasedAt;
+    }
+
+    public long getSoldAt() {
+        return soldAt;
+    }
+}
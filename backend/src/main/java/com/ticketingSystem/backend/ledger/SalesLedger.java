@@ -0,0 +1,427 @@
+package com.ticketingSystem.backend.ledger;
+
+import com.ticketingSystem.backend.logic.SaleRecorder;
+import com.ticketingSystem.backend.logic.Ticket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * The SalesLedger is an append-only binary log of every ticket sold, kept in fixed-size segment
+ * files that are memory-mapped for writing. Recording a sale copies one {@value #RECORD_SIZE}-byte
+ * record into the mapped segment under a short lock, which costs well under a microsecond and
+ * never touches the disk. A background thread forces everything written since its last pass to
+ * disk every fsync interval, so one fsync commits a whole group of sales. A crash loses at most
+ * the sales of the last interval.
+ *
+ * <p>Each record carries a CRC32C of its fields. On opening, the ledger replays every segment
+ * up to the first record that is missing or torn, rebuilds its totals from them, and carries on
+ * appending after the last good record. When a segment is full it is forced and the next one is
+ * started.</p>
+ *
+ * <p>The lock is the single serialization point of all sales, across every session and run:
+ * there is one ordered log, so there is one writer at a time. It is held only to copy the
+ * records into the mapped segment, once per sale or once per group purchase, never across
+ * I/O. The ledger is deliberately not striped per session, which would give up the one order
+ * that replay relies on.</p>
+ *
+ * <p>Record layout, little-endian: sold at (8 bytes), released at (8), event ID (8), run ID (8),
+ * ticket ID (4), vendor ID (4), customer ID (4), checksum (4). Times are epoch milliseconds.
+ * Ticket IDs start again in every run, so the run ID is what tells the sales of different runs
+ * apart.</p>
+ */
+public class SalesLedger implements SaleRecorder, Closeable {
+
+    /** Size of one sale record in bytes. */
+    public static final int RECORD_SIZE = 48;
+
+    private static final int CHECKSUM_OFFSET = 44;
+    private static final String SEGMENT_PREFIX = "sales-";
+    private static final String SEGMENT_SUFFIX = ".ledger";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+
+    // Guarded by lock
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C checksum = new CRC32C();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private int position;          // End of the last record in the current segment
+    private int flushedPosition;   // End of the last record forced to disk in the current segment
+    private boolean closed;
+
+    private volatile long sales;          // Sales recorded, including replayed ones
+    private volatile long durableSales;   // Sales known to be on disk
+    private final ConcurrentMap<Long, LongAdder> salesByEvent = new ConcurrentHashMap<>();
+
+    /**
+     * Opens the ledger in the given directory, replaying the sales already in it, and starts the flusher.
+     *
+     * @param directory           the directory of the segment files; created if missing
+     * @param segmentSize         the size of each segment file in bytes, rounded down to whole records
+     * @param fsyncIntervalMillis how often written sales are forced to disk, in milliseconds
+     * @throws IOException if the directory or a segment cannot be opened
+     */
+    public SalesLedger(Path directory, long segmentSize, long fsyncIntervalMillis) throws IOException {
+        this.directory = directory;
+        long records = Math.max(1, Math.min(segmentSize, Integer.MAX_VALUE) / RECORD_SIZE);
+        this.segmentSize = (int) (records * RECORD_SIZE);
+        Files.createDirectories(directory);
+        open();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-ledger-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(fsyncIntervalMillis, 1);
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void open() throws IOException {
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            try (FileChannel readChannel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                ByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                scan(buffer, buffer.capacity(), this::count);
+            }
+        }
+        if (segments.isEmpty()) {
+            startSegment(1);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            segmentIndex = indexOf(last);
+            channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+            position = scan(segment, segment.capacity(), this::count);
+            clearTail();
+            flushedPosition = position;
+        }
+        durableSales = sales;
+    }
+
+    /**
+     * Zeroes whatever follows the last good record of a segment torn by a crash, so that stale
+     * bytes beyond it can never be read back as sales once new records are written before them.
+     */
+    private void clearTail() {
+        int end = segment.capacity();
+        boolean dirty = false;
+        for (int offset = position; offset < Math.min(position + RECORD_SIZE, end) && !dirty; offset++) {
+            dirty = segment.get(offset) != 0;
+        }
+        if (dirty) {
+            for (int offset = position; offset < end; offset++) {
+                segment.put(offset, (byte) 0);
+            }
+            segment.force(position, end - position);
+        }
+    }
+
+    private void count(Sale sale) {
+        sales++;
+        salesByEvent.computeIfAbsent(sale.getEventID(), id -> new LongAdder()).increment();
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        Collections.sort(segments);  // Zero-padded names sort in segment order
+        return segments;
+    }
+
+    private static int indexOf(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void startSegment(int index) throws IOException {
+        Path file = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentIndex = index;
+        position = 0;
+        flushedPosition = 0;
+    }
+
+    /**
+     * Reads the valid records at the start of a segment.
+     *
+     * @return the end of the last valid record
+     */
+    private static int scan(ByteBuffer buffer, int limit, Consumer<Sale> consumer) {
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        byte[] fields = new byte[CHECKSUM_OFFSET];
+        CRC32C crc = new CRC32C();
+        int offset = 0;
+        while (offset + RECORD_SIZE <= limit) {
+            view.get(offset, fields);
+            crc.reset();
+            crc.update(fields);
+            if ((int) crc.getValue() != view.getInt(offset + CHECKSUM_OFFSET)) {
+                break;  // Never written, or torn by a crash
+            }
+            consumer.accept(new Sale(view.getLong(offset + 24), view.getInt(offset + 32), view.getInt(offset + 36),
+                    view.getInt(offset + 40), view.getLong(offset + 16), view.getLong(offset + 8), view.getLong(offset)));
+            offset += RECORD_SIZE;
+        }
+        return offset;
+    }
+
+    /**
+     * Records the sale of one ticket.
+     *
+     * @param runID      the run the ticket was sold in
+     * @param customerID the customer that bought the ticket
+     * @param eventID    the event the ticket is for, 0 for the sample event
+     * @param ticket     the ticket sold
+     */
+    public void append(long runID, int customerID, long eventID, Ticket ticket) {
+        long soldAt = System.currentTimeMillis();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            write(runID, customerID, eventID, ticket, soldAt, now);
+        } finally {
+            lock.unlock();
+        }
+        salesByEvent.computeIfAbsent(eventID, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records the sale of a group of tickets, with a single lock acquisition for the whole group.
+     *
+     * @param runID      the run the tickets were sold in
+     * @param customerID the customer that bought the tickets
+     * @param eventID    the event the tickets are for, 0 for the sample event
+     * @param tickets    the tickets sold
+     */
+    public void append(long runID, int customerID, long eventID, Ticket[] tickets) {
+        long soldAt = System.currentTimeMillis();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            for (Ticket ticket : tickets) {
+                write(runID, customerID, eventID, ticket, soldAt, now);
+            }
+        } finally {
+            lock.unlock();
+        }
+        salesByEvent.computeIfAbsent(eventID, id -> new LongAdder()).add(tickets.length);
+    }
+
+    @Override
+    public void recordSale(long runID, int customerID, long eventID, Ticket ticket) {
+        append(runID, customerID, eventID, ticket);
+    }
+
+    @Override
+    public void recordSales(long runID, int customerID, long eventID, Ticket[] tickets) {
+        append(runID, customerID, eventID, tickets);
+    }
+
+    private void write(long runID, int customerID, long eventID, Ticket ticket, long soldAt, long now) {
+        if (closed) {
+            throw new IllegalStateException("The sales ledger is closed");
+        }
+        if (position + RECORD_SIZE > segment.capacity()) {
+            roll();
+        }
+        long releasedAt = soldAt - TimeUnit.NANOSECONDS.toMillis(now - ticket.getCreatedAt());
+        record.putLong(0, soldAt)
+                .putLong(8, releasedAt)
+                .putLong(16, eventID)
+                .putLong(24, runID)
+                .putInt(32, ticket.getTicketID())
+                .putInt(36, ticket.getVendorID())
+                .putInt(40, customerID);
+        checksum.reset();
+        checksum.update(record.array(), 0, CHECKSUM_OFFSET);
+        record.putInt(CHECKSUM_OFFSET, (int) checksum.getValue());
+        segment.put(position, record.array());
+        position += RECORD_SIZE;
+        sales++;
+    }
+
+    /**
+     * Forces the full segment to disk and starts the next one. Called with the lock held.
+     */
+    private void roll() {
+        try {
+            segment.force(flushedPosition, position - flushedPosition);
+            durableSales = sales;
+            channel.close();
+            startSegment(segmentIndex + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start a new sales ledger segment", e);
+        }
+    }
+
+    /**
+     * Forces every sale recorded so far to disk. The flusher calls this every fsync interval,
+     * committing all sales recorded since its last pass with a single force.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            MappedByteBuffer dirty;
+            int from;
+            int to;
+            long recorded;
+            lock.lock();
+            try {
+                if (closed || position == flushedPosition) {
+                    return;
+                }
+                dirty = segment;
+                from = flushedPosition;
+                to = position;
+                recorded = sales;
+                flushedPosition = position;
+            } finally {
+                lock.unlock();
+            }
+            dirty.force(from, to - from);
+            durableSales = Math.max(durableSales, recorded);
+        }
+    }
+
+    /**
+     * Replays every sale in the ledger, oldest first, including those not yet forced to disk.
+     *
+     * @param consumer receives each sale
+     * @return the number of sales replayed
+     * @throws IOException if a segment cannot be read
+     */
+    public long replay(Consumer<Sale> consumer) throws IOException {
+        int currentIndex;
+        int currentPosition;
+        lock.lock();
+        try {
+            currentIndex = segmentIndex;
+            currentPosition = position;
+        } finally {
+            lock.unlock();
+        }
+        long[] replayed = {0};
+        Consumer<Sale> counting = sale -> {
+            replayed[0]++;
+            consumer.accept(sale);
+        };
+        for (Path file : listSegments()) {
+            int index = indexOf(file);
+            if (index > currentIndex) {
+                break;  // Started after this replay began
+            }
+            try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                scan(buffer, index == currentIndex ? currentPosition : buffer.capacity(), counting);
+            }
+        }
+        return replayed[0];
+    }
+
+    /**
+     * Gets the most recent sales, newest first, from the current segment.
+     *
+     * @param limit the maximum number of sales
+     * @return up to that many sales
+     */
+    public List<Sale> getRecentSales(int limit) {
+        MappedByteBuffer current;
+        int end;
+        lock.lock();
+        try {
+            current = segment;
+            end = position;
+        } finally {
+            lock.unlock();
+        }
+        int start = Math.max(0, end - Math.max(limit, 0) * RECORD_SIZE);
+        List<Sale> recent = new ArrayList<>();
+        scan(current.slice(start, end - start), end - start, recent::add);
+        Collections.reverse(recent);
+        return recent;
+    }
+
+    public long getSales() {
+        return sales;
+    }
+
+    public long getDurableSales() {
+        return durableSales;
+    }
+
+    /**
+     * Gets the number of sales recorded per event, including replayed ones.
+     *
+     * @return sales by event ID, 0 being the sample event
+     */
+    public Map<Long, Long> getSalesByEvent() {
+        Map<Long, Long> byEvent = new LinkedHashMap<>();
+        salesByEvent.forEach((eventID, count) -> byEvent.put(eventID, count.sum()));
+        return byEvent;
+    }
+
+    /**
+     * Describes the ledger for the REST API.
+     *
+     * @return the directory, segment, sales and durable sales of the ledger, and the sales per event
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("directory", directory.toAbsolutePath().toString());
+        description.put("segment", segmentIndex);
+        description.put("sales", sales);
+        description.put("durableSales", durableSales);
+        description.put("salesByEvent", getSalesByEvent());
+        return description;
+    }
+
+    /**
+     * Stops the flusher, forces the remaining sales to disk and closes the current segment.
+     */
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        flush();
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ticketingSystem.backend.logic;
+
+/**
+ * A vendor or customer. An actor either runs as a loop on a thread of its own, waiting on
+ * the pool between attempts, or one attempt at a time on a shared pool of workers, where
+ * it must never block so that any number of actors can share a few threads.
+ */
+interface Actor extends Runnable {
+
+    /** Returned by {@link #step()} once the actor has nothing left to do. */
+    long DONE = -1;
+
+    /**
+     * Makes one attempt without blocking.
+     *
+     * @return the number of milliseconds until the next attempt, or {@link #DONE}
+     */
+    long step();
+}
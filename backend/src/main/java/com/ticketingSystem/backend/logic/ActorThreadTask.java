@@ -0,0 +1,30 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs an {@link Actor} on a thread of its own, platform or virtual. Cancelling the task
+ * interrupts the actor, as {@link Thread#interrupt()} did for the original threads, and
+ * {@link #exited()} lets callers react to the end of the actor without blocking a thread on it.
+ */
+final class ActorThreadTask extends FutureTask<Void> {
+
+    private final CompletableFuture<Void> exited = new CompletableFuture<>();
+
+    ActorThreadTask(Actor actor) {
+        super(actor, null);
+    }
+
+    @Override
+    protected void done() {
+        exited.complete(null);
+    }
+
+    /**
+     * Gets a future that completes normally once the actor has finished, failed or been cancelled.
+     */
+    CompletableFuture<Void> exited() {
+        return exited;
+    }
+}
@@ -1,17 +1,40 @@
 package com.ticketingSystem.backend.logic;
 
-import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-@Component
-public class Customer implements Runnable {
+import java.util.concurrent.TimeUnit;
+
+public class Customer implements Actor {
+
+    private static final Logger logger = LoggerFactory.getLogger(Customer.class);
 
     private int retrievalRate;
     private int customerID;
-    private final TicketPool ticketPool;
-    private int removedTicketsCount = 0;
+    private final TicketingSystem ticketingSystem;
+    private final TicketPool[] preferences;  // Pools of the events the customer wants, favourite first
+    private int batchSize = 1;
+    private volatile int removedTicketsCount = 0;  // Written only by the customer's own thread, read by snapshots
+    private long waitingSince = 0;  // When the customer started trying to buy its next group
+
+    public Customer(TicketingSystem ticketingSystem) {
+        this(ticketingSystem, ticketingSystem.getTicketPool());
+    }
 
-    public Customer(TicketPool ticketPool) {
-        this.ticketPool = ticketPool;
+    /**
+     * Creates a customer that buys tickets for several events in order of preference: each
+     * purchase comes from the first event with enough tickets for the group, and when none has
+     * enough the customer waits on its favourite.
+     *
+     * @param ticketingSystem the session the customer belongs to
+     * @param preferences     the pools of the wanted events, favourite first
+     */
+    public Customer(TicketingSystem ticketingSystem, TicketPool... preferences) {
+        if (preferences.length == 0) {
+            throw new IllegalArgumentException("A customer needs at least one event");
+        }
+        this.ticketingSystem = ticketingSystem;
+        this.preferences = preferences;
     }
 
     public void configure(int retrievalRate, int customerID) {
@@ -19,23 +42,106 @@ public class Customer implements Runnable {
         this.customerID = customerID;
     }
 
+    /**
+     * Configures the customer to buy tickets in groups. A group is bought all at once or not at all.
+     */
+    public void configure(int retrievalRate, int customerID, int batchSize) {
+        configure(retrievalRate, customerID);
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
     @Override
     public void run() {
-        while (TicketingSystem.isRunning() || ticketPool.hasTickets()) {
-            boolean isSuccess = ticketPool.removeTickets(customerID);
-            if (isSuccess) {
-                removedTicketsCount++;
-            }
+        while (ticketingSystem.isRunning() || hasTickets()) {
             try {
-                Thread.sleep(retrievalRate);
+                startWaiting();
+                // Wait up to one retrieval interval for a ticket; a vendor adding one wakes the customer at once
+                TicketPool ticketPool = choosePool();
+                int group = groupSize(ticketPool);
+                boolean isSuccess = group == 1
+                        ? ticketPool.take(customerID, Math.max(retrievalRate, 1), TimeUnit.MILLISECONDS)
+                        : ticketPool.take(customerID, group, Math.max(retrievalRate, 1), TimeUnit.MILLISECONDS);
+                if (isSuccess) {
+                    bought(ticketPool, group);
+                    Thread.sleep(retrievalRate);
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                System.out.println("Customer interrupted! Customer ID: " + customerID);
+                logger.debug("Customer interrupted! Customer ID: {}", customerID);
                 break;
             }
         }
     }
 
+    /**
+     * Tries once to buy the next group. When the pool is empty, or a sale recorder has no room
+     * for the sales, the customer comes back after one retrieval interval instead of waiting.
+     */
+    @Override
+    public long step() {
+        if (!ticketingSystem.isRunning() && !hasTickets()) {
+            return DONE;
+        }
+        startWaiting();
+        TicketPool ticketPool = choosePool();
+        int group = groupSize(ticketPool);
+        boolean isSuccess = group == 1 ? ticketPool.removeTickets(customerID) : ticketPool.removeTickets(customerID, group);
+        if (!isSuccess) {
+            return Math.max(retrievalRate, 1);
+        }
+        bought(ticketPool, group);
+        return retrievalRate;
+    }
+
+    private void startWaiting() {
+        if (waitingSince == 0) {
+            waitingSince = System.nanoTime();
+        }
+    }
+
+    /**
+     * Picks the first preferred event whose pool has enough tickets for the next group, or the
+     * favourite when none has. Only the favourite is ever waited on.
+     */
+    private TicketPool choosePool() {
+        if (preferences.length > 1) {
+            for (TicketPool pool : preferences) {
+                if (pool.getPoolSize() >= groupSize(pool)) {
+                    return pool;
+                }
+            }
+        }
+        return preferences[0];
+    }
+
+    private boolean hasTickets() {
+        for (TicketPool pool : preferences) {
+            if (pool.hasTickets()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void bought(TicketPool ticketPool, int group) {
+        removedTicketsCount += group;
+        ticketPool.getPurchaseLatency().record(System.nanoTime() - waitingSince);
+        waitingSince = 0;
+        ticketingSystem.ticketsBought();
+    }
+
+    /**
+     * Gets the size of the next group to buy. A group larger than the pool could never be
+     * bought, and once every vendor has finished the last customers buy whatever is left.
+     */
+    private int groupSize(TicketPool ticketPool) {
+        int group = Math.min(batchSize, Math.max(ticketPool.getMaxCapacity(), 1));
+        if (group > 1 && ticketingSystem.isSupplyExhausted()) {
+            group = Math.max(Math.min(group, ticketPool.getPoolSize()), 1);
+        }
+        return group;
+    }
+
     public int getRemovedTicketsCount() {
         return removedTicketsCount;
     }
@@ -43,4 +149,4 @@ public class Customer implements Runnable {
     public int getCustomerID() {
         return customerID;
     }
-}
\ No newline at end of file
+}
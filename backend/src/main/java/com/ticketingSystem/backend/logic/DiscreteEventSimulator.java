@@ -0,0 +1,205 @@
+package com.ticketingSystem.backend.logic;
+
+import com.ticketingSystem.backend.model.ConfigurationEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * The DiscreteEventSimulator runs a configuration headlessly on a virtual clock instead of
+ * real threads and sleeps. Every vendor and customer is a small state object in a priority
+ * queue ordered by the virtual time of its next attempt; processing an attempt moves the clock
+ * straight to that time, so a run that would take hours of sleeping finishes in seconds.
+ *
+ * <p>Actors follow the same rules as {@link Vendor} and {@link Customer}: vendors release
+ * batches of their allocation every release interval, customers buy groups every retrieval
+ * interval, and an actor that finds the pool full or empty waits until another actor changes
+ * it, as with the blocking put/take. The seed picks the start offsets and breaks ties between
+ * actors due at the same time, so the same seed always gives the same run.</p>
+ *
+ * <p>The pool is modelled as a single counter, so the pool type, wait strategy and execution
+ * mode of the configuration do not affect the result. A configuration that can never sell out,
+ * such as vendor batches and customer groups that never fit the pool together, ends as soon as
+ * no actor can make progress instead of hanging like the threaded run.</p>
+ */
+@Service
+public class DiscreteEventSimulator {
+
+    private static final class Actor implements Comparable<Actor> {
+        final int id;
+        final boolean vendor;
+        final int batchSize;
+        int remaining;   // Tickets still to release, for vendors
+        int tickets;     // Tickets released or bought so far
+        long time;       // Virtual time of the next attempt, in milliseconds
+        long order;      // Random tie-breaker between actors due at the same time
+
+        Actor(int id, boolean vendor, int batchSize, int remaining) {
+            this.id = id;
+            this.vendor = vendor;
+            this.batchSize = batchSize;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int compareTo(Actor other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * Simulates a full run of the given configuration.
+     *
+     * @param config the configuration to simulate
+     * @param seed   the random seed of the run
+     * @return the same summary as {@link TicketingSystem#getSimulationSummary}, plus the simulated
+     *         duration and the number of attempts processed
+     */
+    public Map<String, Object> simulate(ConfigurationEntity config, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int capacity = Math.max(config.getMaxTicketCapacity(), 1);
+        int releaseRate = Math.max(config.getTicketReleaseRate(), 0);
+        int retrievalRate = Math.max(config.getCustomerRetrievalRate(), 0);
+
+        Actor[] vendors = new Actor[config.getNumberOfVendors()];
+        Actor[] customers = new Actor[config.getNumberOfCustomers()];
+        PriorityQueue<Actor> due = new PriorityQueue<>(vendors.length + customers.length + 1);
+        ArrayDeque<Actor> waitingVendors = new ArrayDeque<>();
+        ArrayDeque<Actor> waitingCustomers = new ArrayDeque<>();
+
+        int allocation = vendors.length > 0 ? config.getTotalTickets() / vendors.length : 0;
+        for (int i = 0; i < vendors.length; i++) {
+            vendors[i] = new Actor(i + 1, true, Math.min(config.getVendorBatchSize(), capacity), allocation);
+            schedule(due, vendors[i], random.nextLong(releaseRate + 1L), random);
+        }
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = new Actor(i + 1, false, Math.min(config.getCustomerBatchSize(), capacity), 0);
+            schedule(due, customers[i], random.nextLong(retrievalRate + 1L), random);
+        }
+
+        int poolSize = 0;
+        int finishedVendors = 0;
+        long now = 0;
+        long attempts = 0;
+        for (Actor vendor : vendors) {
+            if (vendor.remaining == 0) {
+                finishedVendors++;
+            }
+        }
+
+        while (!due.isEmpty()) {
+            Actor actor = due.poll();
+            now = actor.time;
+            attempts++;
+            boolean supplyExhausted = finishedVendors >= vendors.length;
+
+            if (actor.vendor) {
+                if (actor.remaining == 0) {
+                    continue;
+                }
+                int batch = Math.min(actor.batchSize, actor.remaining);
+                if (capacity - poolSize < batch) {
+                    waitingVendors.add(actor);
+                    continue;
+                }
+                poolSize += batch;
+                actor.remaining -= batch;
+                actor.tickets += batch;
+                if (actor.remaining == 0) {
+                    finishedVendors++;
+                }
+                if (actor.remaining > 0) {
+                    schedule(due, actor, now + releaseRate, random);
+                }
+                if (finishedVendors >= vendors.length) {
+                    // Supply exhausted: every waiting customer re-checks, buying whatever is left
+                    wakeAll(due, waitingCustomers, now, random);
+                } else {
+                    wakeCustomers(due, waitingCustomers, poolSize, now, random);
+                }
+            } else {
+                if (supplyExhausted && poolSize == 0) {
+                    continue;  // Sold out, the customer leaves
+                }
+                int group = actor.batchSize;
+                if (group > 1 && supplyExhausted) {
+                    group = Math.max(Math.min(group, poolSize), 1);
+                }
+                if (poolSize < group) {
+                    waitingCustomers.add(actor);
+                    continue;
+                }
+                poolSize -= group;
+                actor.tickets += group;
+                schedule(due, actor, now + retrievalRate, random);
+                wakeVendors(due, waitingVendors, capacity - poolSize, now, random);
+            }
+        }
+
+        return summary(vendors, customers, finishedVendors, now, attempts);
+    }
+
+    private static void schedule(PriorityQueue<Actor> due, Actor actor, long time, SplittableRandom random) {
+        actor.time = time;
+        actor.order = random.nextLong();
+        due.add(actor);
+    }
+
+    /**
+     * Wakes waiting vendors, oldest first, as long as their batches fit the free room.
+     */
+    private static void wakeVendors(PriorityQueue<Actor> due, ArrayDeque<Actor> waiting, int room,
+                                    long now, SplittableRandom random) {
+        while (!waiting.isEmpty() && Math.min(waiting.peek().batchSize, waiting.peek().remaining) <= room) {
+            Actor vendor = waiting.poll();
+            room -= Math.min(vendor.batchSize, vendor.remaining);
+            schedule(due, vendor, now, random);
+        }
+    }
+
+    /**
+     * Wakes waiting customers, oldest first, as long as their groups can be served.
+     */
+    private static void wakeCustomers(PriorityQueue<Actor> due, ArrayDeque<Actor> waiting, int available,
+                                      long now, SplittableRandom random) {
+        while (!waiting.isEmpty() && waiting.peek().batchSize <= available) {
+            Actor customer = waiting.poll();
+            available -= customer.batchSize;
+            schedule(due, customer, now, random);
+        }
+    }
+
+    private static void wakeAll(PriorityQueue<Actor> due, ArrayDeque<Actor> waiting, long now, SplittableRandom random) {
+        while (!waiting.isEmpty()) {
+            schedule(due, waiting.poll(), now, random);
+        }
+    }
+
+    private static Map<String, Object> summary(Actor[] vendors, Actor[] customers, int finishedVendors,
+                                               long simulatedTime, long attempts) {
+        Map<String, Object> summary = new HashMap<>();
+        int totalTicketsSold = 0;
+
+        for (Actor customer : customers) {
+            totalTicketsSold += customer.tickets;
+            summary.put("Customer " + customer.id, customer.tickets);
+        }
+
+        for (Actor vendor : vendors) {
+            summary.put("Vendor " + vendor.id, vendor.tickets);
+        }
+
+        summary.put("Total tickets sold", totalTicketsSold);
+        summary.put("Total customers served", customers.length);
+        summary.put("Total vendors used", finishedVendors);
+        summary.put("Simulated time (ms)", simulatedTime);
+        summary.put("Attempts processed", attempts);
+
+        return summary;
+    }
+}
@@ -0,0 +1,187 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable picture of one session's engine: run state, tickets in the pools, ticket totals,
+ * actor counts and the tickets of every vendor and customer. The {@link TicketingSystem} captures
+ * a new one at a fixed tick and on every lifecycle transition, and publishes it through a volatile
+ * reference. Monitoring reads (status endpoints, the status stream, metrics) only ever read the
+ * latest snapshot, so however many there are, they take no lock the vendors and customers use.
+ */
+public final class EngineSnapshot {
+
+    private final long sequence;
+    private final long takenAt;        // Epoch milliseconds
+    private final long takenAtNanos;   // For rates between two snapshots
+    private final String sessionId;
+    private final long runId;
+    private final SimulationState state;
+    private final int poolSize;
+    private final int capacity;
+    private final int eventCount;
+    private final long ticketsReleased;
+    private final long ticketsSold;
+    private final int vendorCount;
+    private final int customerCount;
+    private final int liveVendors;
+    private final int liveCustomers;
+    private final int finishedVendors;
+    private final Map<Integer, Integer> vendorTickets;
+    private final Map<Integer, Integer> customerTickets;
+    private final List<Map<String, Object>> events;
+
+    private EngineSnapshot(long sequence, TicketingSystem system, int finishedVendors) {
+        EventInventory inventory = system.getInventory();
+        ThreadManager threadManager = system.getThreadManager();
+        this.sequence = sequence;
+        this.takenAt = System.currentTimeMillis();
+        this.takenAtNanos = System.nanoTime();
+        this.sessionId = system.getSessionID();
+        this.runId = system.getRunID();
+        this.state = system.getState();
+        this.poolSize = inventory.getTotalSize();
+        this.capacity = inventory.getTotalCapacity();
+        this.eventCount = inventory.getEventCount();
+        this.ticketsReleased = inventory.sum(PoolStatistics::getTicketsAdded);
+        this.ticketsSold = inventory.sum(PoolStatistics::getTicketsRemoved);
+        this.liveVendors = threadManager.getLiveVendorCount();
+        this.liveCustomers = threadManager.getLiveCustomerCount();
+        this.finishedVendors = finishedVendors;
+
+        List<Vendor> vendors = threadManager.getVendors();
+        Map<Integer, Integer> vendorTickets = new LinkedHashMap<>(vendors.size() * 2);
+        for (Vendor vendor : vendors) {
+            vendorTickets.put(vendor.getVendorID(), vendor.getSoldTicketCount());
+        }
+        List<Customer> customers = threadManager.getCustomers();
+        Map<Integer, Integer> customerTickets = new LinkedHashMap<>(customers.size() * 2);
+        for (Customer customer : customers) {
+            customerTickets.put(customer.getCustomerID(), customer.getRemovedTicketsCount());
+        }
+        this.vendorCount = vendors.size();
+        this.customerCount = customers.size();
+        this.vendorTickets = Collections.unmodifiableMap(vendorTickets);
+        this.customerTickets = Collections.unmodifiableMap(customerTickets);
+        this.events = Collections.unmodifiableList(inventory.describe());
+    }
+
+    /**
+     * Captures the current state of a session's engine.
+     *
+     * @param sequence        the number of the snapshot, one more than the session's last one
+     * @param system          the engine of the session
+     * @param finishedVendors the vendors of the run that have released their whole allocation
+     * @return the snapshot
+     */
+    static EngineSnapshot capture(long sequence, TicketingSystem system, int finishedVendors) {
+        return new EngineSnapshot(sequence, system, finishedVendors);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    /**
+     * Gets when the snapshot was taken on the {@link System#nanoTime()} clock, for rates between snapshots.
+     */
+    public long getTakenAtNanos() {
+        return takenAtNanos;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Gets the ID of the current or last run, 0 before the first run.
+     */
+    public long getRunId() {
+        return runId;
+    }
+
+    public SimulationState getState() {
+        return state;
+    }
+
+    public boolean isRunning() {
+        return state.isActive();
+    }
+
+    /**
+     * Gets the number of tickets in the pools of the run.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Gets the tickets released by vendors over every run of the session.
+     */
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    /**
+     * Gets the tickets bought by customers over every run of the session.
+     */
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    public int getVendorCount() {
+        return vendorCount;
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    public int getLiveVendors() {
+        return liveVendors;
+    }
+
+    public int getLiveCustomers() {
+        return liveCustomers;
+    }
+
+    public int getFinishedVendors() {
+        return finishedVendors;
+    }
+
+    /**
+     * Gets the tickets each vendor of the run has released, by vendor ID.
+     */
+    public Map<Integer, Integer> getVendorTickets() {
+        return vendorTickets;
+    }
+
+    /**
+     * Gets the tickets each customer of the run has bought, by customer ID.
+     */
+    public Map<Integer, Integer> getCustomerTickets() {
+        return customerTickets;
+    }
+
+    /**
+     * Gets each event of the run, as described by {@link EventInventory#describe()}.
+     */
+    public List<Map<String, Object>> getEvents() {
+        return events;
+    }
+}
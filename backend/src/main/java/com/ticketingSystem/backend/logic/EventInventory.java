@@ -0,0 +1,231 @@
+package com.ticketingSystem.backend.logic;
+
+import com.ticketingSystem.backend.events.SimulationEventPublisher;
+import com.ticketingSystem.backend.model.EventEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * The EventInventory holds one {@link TicketPool} per event of a session's run and routes
+ * every release and purchase straight to its pool: actors keep a reference to the pools they
+ * were given, and lookups by slot or event ID are an array index or a hash lookup. Events never
+ * share a lock, a ring buffer or a counter, so a run over more events spreads its vendors and
+ * customers over more independent pools instead of queueing them on one.
+ *
+ * <p>The layout of a run is an immutable snapshot swapped in when the run starts. A run without
+ * events sells the {@link Ticket#DEFAULT_EVENT_NAME} from the session's own pool, as before.
+ * Pools are kept per event ID across runs, so their {@link PoolStatistics} stay monotonic, and
+ * totals are summed from the per-event {@link java.util.concurrent.atomic.LongAdder}s on read.
+ * All pools of a session record into the session pool's latency histograms.</p>
+ */
+public class EventInventory {
+
+    private static final class Layout {
+        final TicketPool[] pools;          // Indexed by slot, in the order the events were given
+        final long[] eventIDs;             // 0 for the sample event of a run without events
+        final long[] soldAtStart;          // Tickets removed from each pool before the run started
+        final Map<Long, Integer> slots;    // Event ID to slot
+
+        Layout(TicketPool[] pools, long[] eventIDs) {
+            this.pools = pools;
+            this.eventIDs = eventIDs;
+            this.soldAtStart = new long[pools.length];
+            Map<Long, Integer> slots = new HashMap<>(pools.length * 2);
+            for (int i = 0; i < pools.length; i++) {
+                soldAtStart[i] = pools[i].getStatistics().getTicketsRemoved();
+                slots.put(eventIDs[i], i);
+            }
+            this.slots = slots;
+        }
+    }
+
+    private final TicketPool defaultPool;
+    private final ConcurrentMap<Long, TicketPool> eventPools = new ConcurrentHashMap<>();
+    private volatile Layout layout;
+
+    /**
+     * Creates the inventory of a session.
+     *
+     * @param defaultPool the session's own pool, used by runs without events
+     */
+    public EventInventory(TicketPool defaultPool) {
+        this.defaultPool = defaultPool;
+        this.layout = new Layout(new TicketPool[]{defaultPool}, new long[]{0});
+    }
+
+    /**
+     * Lays out the pools of a new run and configures each of them.
+     *
+     * @param runID          the ID of the run, recorded with every sale
+     * @param events         the events of the run in order, or an empty list to sell the sample event
+     * @param capacity       the capacity of pools whose event does not set one
+     * @param poolType       the storage implementation of every pool
+     * @param waitStrategy   how actors wait on every pool
+     * @param shards         the shard count of {@link PoolType#SHARDED} pools
+     * @param eventPublisher the publisher the session's events go to
+     * @param eventTopic     the WebSocket topic of the session
+     */
+    void configure(long runID, List<EventEntity> events, int capacity, PoolType poolType, WaitStrategyType waitStrategy,
+                   int shards, SimulationEventPublisher eventPublisher, String eventTopic) {
+        if (events.isEmpty()) {
+            defaultPool.setEvent(0, Ticket.DEFAULT_EVENT_NAME);
+            defaultPool.setRunID(runID);
+            defaultPool.configure(capacity, poolType, waitStrategy, shards);
+            layout = new Layout(new TicketPool[]{defaultPool}, new long[]{0});
+            return;
+        }
+
+        TicketPool[] pools = new TicketPool[events.size()];
+        long[] eventIDs = new long[events.size()];
+        for (int i = 0; i < pools.length; i++) {
+            EventEntity event = events.get(i);
+            TicketPool pool = eventPools.computeIfAbsent(event.getId(), id -> {
+                TicketPool created = new TicketPool(defaultPool.getTimeInPool(), defaultPool.getPurchaseLatency());
+                created.setEventPublisher(eventPublisher, eventTopic);
+                created.setSaleRecorders(defaultPool.getSaleRecorders());
+                return created;
+            });
+            pool.setEvent(event.getId(), event.getName());
+            pool.setRunID(runID);
+            pool.configure(event.getTicketCapacity() > 0 ? event.getTicketCapacity() : capacity, poolType, waitStrategy, shards);
+            pools[i] = pool;
+            eventIDs[i] = event.getId();
+        }
+        layout = new Layout(pools, eventIDs);
+    }
+
+    /**
+     * Gets the pool of a slot, wrapping around so that actors can be spread over the events by number.
+     *
+     * @param slot the slot, e.g. the actor's number
+     * @return the pool of that slot
+     */
+    public TicketPool getPool(int slot) {
+        TicketPool[] pools = layout.pools;
+        return pools[Math.floorMod(slot, pools.length)];
+    }
+
+    /**
+     * Gets the pool of an event of the current run.
+     *
+     * @param eventID the ID of the event
+     * @return the event's pool, or null if the run does not sell that event
+     */
+    public TicketPool getPoolForEvent(long eventID) {
+        Layout current = layout;
+        Integer slot = current.slots.get(eventID);
+        return slot != null ? current.pools[slot] : null;
+    }
+
+    /**
+     * Gets the pools of the current run in preference order for an actor: its own slot first,
+     * then every other event in turn.
+     *
+     * @param slot the actor's slot
+     * @return every pool of the run, starting from the slot's own
+     */
+    public TicketPool[] getPreferences(int slot) {
+        TicketPool[] pools = layout.pools;
+        TicketPool[] preferences = new TicketPool[pools.length];
+        int first = Math.floorMod(slot, pools.length);
+        for (int i = 0; i < pools.length; i++) {
+            preferences[i] = pools[(first + i) % pools.length];
+        }
+        return preferences;
+    }
+
+    public List<TicketPool> getPools() {
+        return Collections.unmodifiableList(Arrays.asList(layout.pools));
+    }
+
+    public int getEventCount() {
+        return layout.pools.length;
+    }
+
+    /**
+     * Gets the number of tickets currently in the pools of the run.
+     */
+    public int getTotalSize() {
+        int size = 0;
+        for (TicketPool pool : layout.pools) {
+            size += pool.getPoolSize();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of tickets the pools of the run hold at most, together.
+     */
+    public int getTotalCapacity() {
+        int capacity = 0;
+        for (TicketPool pool : layout.pools) {
+            capacity += pool.getMaxCapacity();
+        }
+        return capacity;
+    }
+
+    public boolean hasTickets() {
+        for (TicketPool pool : layout.pools) {
+            if (pool.hasTickets()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sums a statistic over every pool the session has used, so that it stays monotonic
+     * as runs switch between events.
+     *
+     * @param statistic the statistic to sum, e.g. {@code PoolStatistics::getTicketsAdded}
+     * @return the total over all events
+     */
+    public long sum(ToLongFunction<PoolStatistics> statistic) {
+        long total = statistic.applyAsLong(defaultPool.getStatistics());
+        for (TicketPool pool : eventPools.values()) {
+            total += statistic.applyAsLong(pool.getStatistics());
+        }
+        return total;
+    }
+
+    /**
+     * Describes each event of the current run.
+     *
+     * @return per event: its ID (0 for the sample event), name, tickets in the pool, capacity,
+     *         and tickets sold in this run
+     */
+    public List<Map<String, Object>> describe() {
+        Layout current = layout;
+        List<Map<String, Object>> events = new ArrayList<>(current.pools.length);
+        for (int i = 0; i < current.pools.length; i++) {
+            TicketPool pool = current.pools[i];
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("eventId", current.eventIDs[i]);
+            event.put("name", pool.getEventName());
+            event.put("poolSize", pool.getPoolSize());
+            event.put("capacity", pool.getMaxCapacity());
+            event.put("ticketsSold", pool.getStatistics().getTicketsRemoved() - current.soldAtStart[i]);
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * Empties the pools of the run and restarts their ticket numbering.
+     */
+    void reset() {
+        for (TicketPool pool : layout.pools) {
+            pool.resetTicketID();
+            pool.resetTicketPool();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.ticketingSystem.backend.logic;
+
+/**
+ * The ExecutionMode enum selects how the {@link ThreadManager} runs vendor and customer actors.
+ */
+public enum ExecutionMode {
+
+    /** One platform thread per actor (the original behaviour). */
+    PLATFORM,
+
+    /** One virtual thread per actor. Requires a Java 21 runtime, otherwise falls back to PLATFORM. */
+    VIRTUAL,
+
+    /** Actors share the bounded "actorExecutor" pool. */
+    POOLED
+}
@@ -0,0 +1,106 @@
+package com.ticketingSystem.backend.logic;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A high-dynamic-range latency histogram that vendor and customer threads record into
+ * without locking or allocation. Recording goes to one of a fixed set of recorders, about
+ * one per core, picked by a hash of the thread ID, so threads rarely share a recorder and
+ * memory does not grow with the number of threads, virtual or not. Readers drain every
+ * recorder into a cumulative histogram and report its percentiles.
+ *
+ * <p>Values are kept in microseconds with two significant digits, up to ten minutes;
+ * longer durations are counted as ten minutes.</p>
+ */
+public class LatencyHistogram {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final int MAX_STRIPES = 64;
+
+    private final Recorder[] recorders;
+    private final int mask;
+    private final Histogram cumulative = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram interval = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);  // Reused for every drain
+
+    public LatencyHistogram() {
+        int cores = Math.min(Math.max(Runtime.getRuntime().availableProcessors(), 1), MAX_STRIPES);
+        int stripes = Integer.highestOneBit(cores) < cores ? Integer.highestOneBit(cores) << 1 : cores;  // A power of two
+        this.recorders = new Recorder[stripes];
+        for (int i = 0; i < stripes; i++) {
+            recorders[i] = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        }
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * Records one duration on the current thread's recorder.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), HIGHEST_TRACKABLE_MICROS);
+        recorders[stripe()].recordValue(micros);
+    }
+
+    // Spreads consecutive thread IDs over the stripes
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    /**
+     * Merges everything recorded so far and reports its percentiles in milliseconds.
+     *
+     * @return the count, p50, p90, p99, p99.9 and max of all recorded durations
+     */
+    public synchronized Map<String, Object> snapshot() {
+        drain(true);
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", cumulative.getTotalCount());
+        snapshot.put("p50", millis(cumulative.getValueAtPercentile(50)));
+        snapshot.put("p90", millis(cumulative.getValueAtPercentile(90)));
+        snapshot.put("p99", millis(cumulative.getValueAtPercentile(99)));
+        snapshot.put("p99.9", millis(cumulative.getValueAtPercentile(99.9)));
+        snapshot.put("max", millis(cumulative.getMaxValue()));
+        return snapshot;
+    }
+
+    /**
+     * Describes the percentiles of everything recorded so far in one line, for the run summary.
+     *
+     * @return e.g. "p50 0.12, p90 0.5, p99 2.1, p99.9 4.3, max 5.0 (1000 samples)"
+     */
+    public String describe() {
+        Map<String, Object> snapshot = snapshot();
+        return String.format("p50 %s, p90 %s, p99 %s, p99.9 %s, max %s (%s samples)",
+                snapshot.get("p50"), snapshot.get("p90"), snapshot.get("p99"),
+                snapshot.get("p99.9"), snapshot.get("max"), snapshot.get("count"));
+    }
+
+    /**
+     * Discards everything recorded so far, e.g. at the start of a new run.
+     */
+    public synchronized void reset() {
+        drain(false);
+        cumulative.reset();
+    }
+
+    private void drain(boolean merge) {
+        for (Recorder recorder : recorders) {
+            recorder.getIntervalHistogramInto(interval);
+            if (merge) {
+                cumulative.add(interval);
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.LinkedList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Ticket store backed by a linked list and a single global lock, which only operations
+ * that add or remove tickets take. How long they wait for the lock and hold it is recorded
+ * in the pool statistics. The size is also published in a volatile field on every change,
+ * so reading it, and the {@link #isEmpty()}, {@link #hasRoomFor(int)} and
+ * {@link #hasAtLeast(int)} checks that gauges and waiting actors make, never take the lock.
+ */
+class LockedTicketStore implements TicketStore {
+
+    private final LinkedList<Ticket> tickets = new LinkedList<>();
+    private final int maxCapacity;
+    private final Lock lock = new ReentrantLock();
+    private final PoolStatistics statistics;
+    private volatile int size;  // Written under the lock, read without it
+
+    LockedTicketStore(int maxCapacity, PoolStatistics statistics) {
+        this.maxCapacity = maxCapacity;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Acquires the lock.
+     *
+     * @return when the lock was acquired, to be passed to {@link #unlock(long)}
+     */
+    private long lock() {
+        long start = System.nanoTime();
+        lock.lock();
+        long acquired = System.nanoTime();
+        statistics.recordLockWait(acquired - start);
+        return acquired;
+    }
+
+    private void unlock(long acquired) {
+        long held = System.nanoTime() - acquired;
+        lock.unlock();
+        statistics.recordLockHold(held);
+    }
+
+    @Override
+    public Ticket offer(Supplier<Ticket> factory) {
+        long acquired = lock();
+        try {
+            if (tickets.size() >= maxCapacity) {
+                return null;
+            }
+            Ticket ticket = factory.get();
+            tickets.add(ticket);
+            size = tickets.size();
+            return ticket;
+        } finally {
+            unlock(acquired);
+        }
+    }
+
+    @Override
+    public Ticket[] offer(int count, Supplier<Ticket> factory) {
+        long acquired = lock();
+        try {
+            if (count < 1 || tickets.size() + count > maxCapacity) {
+                return null;
+            }
+            Ticket[] batch = new Ticket[count];
+            for (int i = 0; i < count; i++) {
+                batch[i] = factory.get();
+                tickets.add(batch[i]);
+            }
+            size = tickets.size();
+            return batch;
+        } finally {
+            unlock(acquired);
+        }
+    }
+
+    @Override
+    public Ticket poll() {
+        long acquired = lock();
+        try {
+            if (tickets.isEmpty()) {
+                return null;
+            }
+            Ticket ticket = tickets.removeFirst();
+            size = tickets.size();
+            return ticket;
+        } finally {
+            unlock(acquired);
+        }
+    }
+
+    @Override
+    public Ticket[] poll(int count) {
+        long acquired = lock();
+        try {
+            if (count < 1 || tickets.size() < count) {
+                return null;
+            }
+            Ticket[] batch = new Ticket[count];
+            for (int i = 0; i < count; i++) {
+                batch[i] = tickets.removeFirst();
+            }
+            size = tickets.size();
+            return batch;
+        } finally {
+            unlock(acquired);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int maxOfferCount() {
+        return maxCapacity;
+    }
+
+    @Override
+    public boolean hasRoomFor(int count) {
+        return size + count <= maxCapacity;
+    }
+
+    @Override
+    public boolean hasAtLeast(int count) {
+        return size >= count;
+    }
+
+    @Override
+    public void clear() {
+        long acquired = lock();
+        try {
+            tickets.clear();
+            size = 0;
+        } finally {
+            unlock(acquired);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of what happened to the {@link TicketPool}, kept for metrics.
+ * Every counter is a {@link LongAdder}, so vendor and customer threads record their
+ * operations on separate cells and never contend with each other or with the scraper.
+ * The totals survive resets and reconfiguration, as monotonic counters should.
+ */
+public class PoolStatistics {
+
+    private final LongAdder ticketsAdded = new LongAdder();
+    private final LongAdder ticketsRemoved = new LongAdder();
+    private final LongAdder failedAdds = new LongAdder();
+    private final LongAdder failedRemoves = new LongAdder();
+    private final LongAdder lockAcquisitions = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAdder lockHoldNanos = new LongAdder();
+
+    void recordAdded(int count) {
+        ticketsAdded.add(count);
+    }
+
+    void recordRemoved(int count) {
+        ticketsRemoved.add(count);
+    }
+
+    void recordFailedAdd() {
+        failedAdds.increment();
+    }
+
+    void recordFailedRemove() {
+        failedRemoves.increment();
+    }
+
+    /**
+     * Records one acquisition of the pool lock.
+     *
+     * @param waitNanos how long the thread waited to acquire the lock
+     */
+    void recordLockWait(long waitNanos) {
+        lockAcquisitions.increment();
+        lockWaitNanos.add(waitNanos);
+    }
+
+    void recordLockHold(long holdNanos) {
+        lockHoldNanos.add(holdNanos);
+    }
+
+    public long getTicketsAdded() {
+        return ticketsAdded.sum();
+    }
+
+    public long getTicketsRemoved() {
+        return ticketsRemoved.sum();
+    }
+
+    /**
+     * Gets the number of attempts to add tickets that found the pool full.
+     */
+    public long getFailedAdds() {
+        return failedAdds.sum();
+    }
+
+    /**
+     * Gets the number of attempts to remove tickets that found the pool empty.
+     */
+    public long getFailedRemoves() {
+        return failedRemoves.sum();
+    }
+
+    /**
+     * Gets the number of times the lock of a {@link PoolType#LOCKED} pool was taken; lock-free pools never take it.
+     */
+    public long getLockAcquisitions() {
+        return lockAcquisitions.sum();
+    }
+
+    public long getLockWaitNanos() {
+        return lockWaitNanos.sum();
+    }
+
+    public long getLockHoldNanos() {
+        return lockHoldNanos.sum();
+    }
+}
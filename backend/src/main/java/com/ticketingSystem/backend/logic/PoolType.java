@@ -0,0 +1,19 @@
+package com.ticketingSystem.backend.logic;
+
+/**
+ * The PoolType enum selects the storage used behind the {@link TicketPool}.
+ */
+public enum PoolType {
+
+    /** Linked list guarded by a single lock (the original implementation). */
+    LOCKED,
+
+    /** Lock-free, fixed-capacity multi-producer/multi-consumer ring buffer. */
+    RING_BUFFER,
+
+    /**
+     * Independent ring-buffer shards, one per core by default. Vendors add to a home shard
+     * and customers buy from their local shard first, stealing from the others when it is empty.
+     */
+    SHARDED
+}
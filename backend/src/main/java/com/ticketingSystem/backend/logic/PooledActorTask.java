@@ -0,0 +1,58 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs an {@link Actor} one step at a time on a shared scheduled executor, rescheduling it
+ * after each step for as long as it has work. The task is the actor's future: it completes
+ * when the actor is done, and cancelling it stops the actor before its next step.
+ */
+final class PooledActorTask extends CompletableFuture<Void> implements Runnable {
+
+    private final Actor actor;
+    private final ScheduledExecutorService executor;
+    private volatile Future<?> nextStep;
+
+    PooledActorTask(Actor actor, ScheduledExecutorService executor) {
+        this.actor = actor;
+        this.executor = executor;
+    }
+
+    PooledActorTask start() {
+        nextStep = executor.submit(this);
+        return this;
+    }
+
+    @Override
+    public void run() {
+        if (isDone()) {
+            return;
+        }
+        try {
+            long delay = actor.step();
+            if (delay == Actor.DONE) {
+                complete(null);
+            } else if (!isDone()) {
+                nextStep = executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            cancel(false);  // The executor is shutting down
+        } catch (RuntimeException e) {
+            completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        Future<?> step = nextStep;
+        if (step != null) {
+            step.cancel(false);
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,200 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free, fixed-capacity multi-producer/multi-consumer ring buffer.
+ *
+ * Every slot carries a sequence number that tells producers and consumers whose
+ * turn it is: a slot at position p is free for the producer claiming p when its
+ * sequence equals 2p, and holds a ticket for the consumer claiming p when its
+ * sequence equals 2p + 1. Doubling keeps "published" and "free for the next lap"
+ * distinct even for a capacity of one. Producers and consumers claim positions
+ * with a single CAS on the tail or head cursor, so no thread ever blocks another.
+ * Batches claim a run of consecutive positions with that same single CAS.
+ */
+class RingBufferTicketStore implements TicketStore {
+
+    // Head and tail live in one array, 128 bytes apart, so producers and consumers
+    // do not invalidate each other's cache line.
+    private static final int HEAD = 8;
+    private static final int TAIL = 24;
+
+    private final int capacity;
+    private final Ticket[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray cursors = new AtomicLongArray(32);
+
+    RingBufferTicketStore(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        int length = Math.max(capacity, 1);
+        this.slots = new Ticket[length];
+        this.sequences = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            sequences.set(i, 2L * i);
+        }
+    }
+
+    @Override
+    public Ticket offer(Supplier<Ticket> factory) {
+        if (capacity == 0) {
+            return null;
+        }
+        long position = cursors.get(TAIL);
+        while (true) {
+            int index = (int) (position % capacity);
+            long difference = sequences.get(index) - 2 * position;
+            if (difference == 0) {
+                if (cursors.compareAndSet(TAIL, position, position + 1)) {
+                    Ticket ticket = factory.get();
+                    slots[index] = ticket;
+                    sequences.lazySet(index, 2 * position + 1);
+                    return ticket;
+                }
+                position = cursors.get(TAIL);
+            } else if (difference < 0) {
+                return null; // The slot still holds a ticket from the previous lap: the buffer is full
+            } else {
+                position = cursors.get(TAIL);
+            }
+        }
+    }
+
+    @Override
+    public Ticket[] offer(int count, Supplier<Ticket> factory) {
+        if (count < 1 || count > capacity) {
+            return null;
+        }
+        long position = cursors.get(TAIL);
+        while (true) {
+            int state = claimable(position, count, 0);
+            if (state == 0) {
+                if (cursors.compareAndSet(TAIL, position, position + count)) {
+                    Ticket[] batch = new Ticket[count];
+                    for (int i = 0; i < count; i++) {
+                        int index = (int) ((position + i) % capacity);
+                        batch[i] = factory.get();
+                        slots[index] = batch[i];
+                        sequences.lazySet(index, 2 * (position + i) + 1);
+                    }
+                    return batch;
+                }
+            } else if (state < 0) {
+                return null;
+            }
+            position = cursors.get(TAIL);
+        }
+    }
+
+    @Override
+    public Ticket poll() {
+        if (capacity == 0) {
+            return null;
+        }
+        long position = cursors.get(HEAD);
+        while (true) {
+            int index = (int) (position % capacity);
+            long difference = sequences.get(index) - (2 * position + 1);
+            if (difference == 0) {
+                if (cursors.compareAndSet(HEAD, position, position + 1)) {
+                    Ticket ticket = slots[index];
+                    slots[index] = null;
+                    sequences.lazySet(index, 2 * (position + capacity));
+                    return ticket;
+                }
+                position = cursors.get(HEAD);
+            } else if (difference < 0) {
+                return null; // Nothing has been published at this position yet: the buffer is empty
+            } else {
+                position = cursors.get(HEAD);
+            }
+        }
+    }
+
+    @Override
+    public Ticket[] poll(int count) {
+        if (count < 1 || count > capacity) {
+            return null;
+        }
+        long position = cursors.get(HEAD);
+        while (true) {
+            int state = claimable(position, count, 1);
+            if (state == 0) {
+                if (cursors.compareAndSet(HEAD, position, position + count)) {
+                    Ticket[] batch = new Ticket[count];
+                    for (int i = 0; i < count; i++) {
+                        int index = (int) ((position + i) % capacity);
+                        batch[i] = slots[index];
+                        slots[index] = null;
+                        sequences.lazySet(index, 2 * (position + i + capacity));
+                    }
+                    return batch;
+                }
+            } else if (state < 0) {
+                return null;
+            }
+            position = cursors.get(HEAD);
+        }
+    }
+
+    /**
+     * Checks whether every slot from position to position + count - 1 is ready to be claimed,
+     * where ready means a sequence of 2p + expected (0 for producers, 1 for consumers).
+     *
+     * @return 0 if the whole run can be claimed, a negative value if some slot is not ready yet
+     *         (full or empty), or a positive value if another thread already moved past position
+     */
+    private int claimable(long position, int count, int expected) {
+        for (int i = 0; i < count; i++) {
+            long slotPosition = position + i;
+            long difference = sequences.get((int) (slotPosition % capacity)) - (2 * slotPosition + expected);
+            if (difference != 0) {
+                return difference < 0 ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the approximate number of stored tickets from the distance between the
+     * cursors. This is two volatile reads and never contends with producers or consumers.
+     */
+    @Override
+    public int size() {
+        long head = cursors.get(HEAD);
+        long tail = cursors.get(TAIL);
+        long size = tail - head;
+        if (size < 0) {
+            return 0;
+        }
+        return (int) Math.min(size, capacity);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int maxOfferCount() {
+        return capacity;
+    }
+
+    @Override
+    public boolean hasRoomFor(int count) {
+        return capacity - size() >= count;
+    }
+
+    @Override
+    public boolean hasAtLeast(int count) {
+        return size() >= count;
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            // Drain every published ticket
+        }
+    }
+}
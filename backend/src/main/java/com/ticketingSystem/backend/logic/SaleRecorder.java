@@ -0,0 +1,74 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A SaleRecorder is told about every ticket a {@link TicketPool} sells, on the customer's own
+ * thread, right after the ticket left the pool and waiting vendors were woken. Implementations
+ * must return quickly and must not block on I/O, or they slow down every purchase.
+ *
+ * <p>A recorder that buffers sales pushes back through {@link #tryReserve(int)} and
+ * {@link #reserve(int, long, TimeUnit)}: the pool reserves room for a purchase with every
+ * recorder before it takes the tickets, and does not sell them if any recorder has no room.
+ * Recording a reserved sale never waits and never drops it.</p>
+ *
+ * <p>Ticket IDs start again at 1 in every run, so a sale is identified by its run ID, event ID
+ * and ticket ID together.</p>
+ */
+public interface SaleRecorder {
+
+    /**
+     * Reserves room for a purchase without waiting, as a pooled actor's step must.
+     *
+     * @param count the number of tickets in the purchase
+     * @return true if the sales can be recorded, false if there is no room for them now
+     */
+    default boolean tryReserve(int count) {
+        return true;
+    }
+
+    /**
+     * Reserves room for a purchase, waiting up to the given time for it.
+     *
+     * @param count   the number of tickets in the purchase
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if the sales can be recorded, false if no room was found in time
+     * @throws InterruptedException if the customer is interrupted while waiting
+     */
+    default boolean reserve(int count, long timeout, TimeUnit unit) throws InterruptedException {
+        return true;
+    }
+
+    /**
+     * Gives back room reserved for a purchase that did not happen.
+     *
+     * @param count the number of tickets reserved
+     */
+    default void release(int count) {
+    }
+
+    /**
+     * Records the sale of one ticket.
+     *
+     * @param runID      the run the ticket was sold in, unique across sessions and restarts
+     * @param customerID the customer that bought the ticket
+     * @param eventID    the event the ticket is for, 0 for the sample event
+     * @param ticket     the ticket sold
+     */
+    void recordSale(long runID, int customerID, long eventID, Ticket ticket);
+
+    /**
+     * Records the sale of a group of tickets bought together.
+     *
+     * @param runID      the run the tickets were sold in, unique across sessions and restarts
+     * @param customerID the customer that bought the tickets
+     * @param eventID    the event the tickets are for, 0 for the sample event
+     * @param tickets    the tickets sold
+     */
+    default void recordSales(long runID, int customerID, long eventID, Ticket[] tickets) {
+        for (Ticket ticket : tickets) {
+            recordSale(runID, customerID, eventID, ticket);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Ticket store made of independent lock-free shards, so vendors and customers working on
+ * different shards never touch the same memory.
+ *
+ * The aggregate capacity is split across the shards, which keeps the overall limit exact
+ * without a shared counter. An actor's affinity picks its home shard: vendors add there
+ * first and only spill into other shards when it is full, and customers buy there first
+ * and steal from the other shards when it is empty. Tickets are handed out in order within
+ * a shard but not across shards.
+ *
+ * A vendor's batch is added to a single shard, so vendors keep their batches no larger than
+ * the room of the roomiest shard (see {@link #maxOfferCount()}). A group purchase is taken
+ * from one shard when one holds enough tickets, and is otherwise gathered from several, so
+ * any group up to the aggregate capacity can be bought and leftovers scattered across shards
+ * still drain. A group is still all or nothing: if other customers empty the shards before
+ * it is complete, the tickets gathered so far go back to the shards they came from. They go
+ * back behind the tickets added in the meantime, which is the one exception to the order
+ * within a shard.
+ */
+class ShardedTicketStore implements TicketStore {
+
+    private final RingBufferTicketStore[] shards;
+
+    /**
+     * Creates the store.
+     *
+     * @param capacity   the aggregate capacity of all shards
+     * @param shardCount the number of shards; reduced so that every shard can hold at least one ticket
+     */
+    ShardedTicketStore(int capacity, int shardCount) {
+        int count = Math.max(1, Math.min(shardCount, capacity));
+        this.shards = new RingBufferTicketStore[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new RingBufferTicketStore(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+    }
+
+    int shardCount() {
+        return shards.length;
+    }
+
+    private int home(int affinity) {
+        return Math.floorMod(affinity, shards.length);
+    }
+
+    private static int currentThreadAffinity() {
+        return (int) Thread.currentThread().getId();
+    }
+
+    @Override
+    public Ticket offer(Supplier<Ticket> factory) {
+        return offerAt(currentThreadAffinity(), factory);
+    }
+
+    @Override
+    public Ticket offerAt(int affinity, Supplier<Ticket> factory) {
+        int home = home(affinity);
+        for (int i = 0; i < shards.length; i++) {
+            Ticket ticket = shards[(home + i) % shards.length].offer(factory);
+            if (ticket != null) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Ticket[] offer(int count, Supplier<Ticket> factory) {
+        return offerAt(currentThreadAffinity(), count, factory);
+    }
+
+    @Override
+    public Ticket[] offerAt(int affinity, int count, Supplier<Ticket> factory) {
+        int home = home(affinity);
+        for (int i = 0; i < shards.length; i++) {
+            Ticket[] batch = shards[(home + i) % shards.length].offer(count, factory);
+            if (batch != null) {
+                return batch;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Ticket poll() {
+        return pollAt(currentThreadAffinity());
+    }
+
+    @Override
+    public Ticket pollAt(int affinity) {
+        int home = home(affinity);
+        for (int i = 0; i < shards.length; i++) {
+            Ticket ticket = shards[(home + i) % shards.length].poll();
+            if (ticket != null) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Ticket[] poll(int count) {
+        return pollAt(currentThreadAffinity(), count);
+    }
+
+    @Override
+    public Ticket[] pollAt(int affinity, int count) {
+        int home = home(affinity);
+        for (int i = 0; i < shards.length; i++) {
+            Ticket[] batch = shards[(home + i) % shards.length].poll(count);
+            if (batch != null) {
+                return batch;
+            }
+        }
+        if (count < 1 || !hasAtLeast(count)) {
+            return null;  // Nothing is taken unless the shards hold enough tickets between them
+        }
+        return pollAcross(home, count);
+    }
+
+    /**
+     * Gathers a group from several shards, starting with the home shard and taking the oldest
+     * tickets of each shard in one batch. If other customers got to the tickets first, the ones
+     * gathered are returned to the shards they came from. Should every shard have filled up again
+     * in the meantime, there are enough tickets to complete the group instead, so no ticket is ever
+     * lost and the caller never waits for another thread.
+     *
+     * @return the whole group, or null if it was put back
+     */
+    private Ticket[] pollAcross(int home, int count) {
+        Ticket[] batch = new Ticket[count];
+        int[] origins = new int[count];  // The shard each ticket came from
+        int taken = 0;
+        while (true) {
+            taken = gather(home, batch, origins, taken);
+            if (taken == count) {
+                return batch;
+            }
+            taken = putBack(batch, origins, taken);
+            if (taken == 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Takes tickets until the group is complete or every shard has been tried once.
+     *
+     * @return the number of tickets held, at the start of the batch
+     */
+    private int gather(int home, Ticket[] batch, int[] origins, int taken) {
+        for (int i = 0; i < shards.length && taken < batch.length; i++) {
+            int index = (home + i) % shards.length;
+            RingBufferTicketStore shard = shards[index];
+            int wanted = Math.min(shard.size(), batch.length - taken);
+            Ticket[] chunk = null;
+            while (wanted > 0 && (chunk = shard.poll(wanted)) == null) {
+                wanted = Math.min(wanted - 1, shard.size());
+            }
+            if (chunk != null) {
+                for (Ticket ticket : chunk) {
+                    origins[taken] = index;
+                    batch[taken++] = ticket;
+                }
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Returns the tickets held to the shards they came from, in their order, or to another shard
+     * if their own has filled up. A ticket that fits nowhere is kept.
+     *
+     * @return the number of tickets still held, at the start of the batch
+     */
+    private int putBack(Ticket[] batch, int[] origins, int taken) {
+        int kept = 0;
+        int start = 0;
+        while (start < taken) {
+            int origin = origins[start];
+            int end = start;
+            while (end < taken && origins[end] == origin) {
+                end++;
+            }
+            int[] next = {start};
+            if (shards[origin].offer(end - start, () -> batch[next[0]++]) == null) {
+                for (int i = start; i < end; i++) {
+                    Ticket ticket = batch[i];
+                    if (offerAt(origin, () -> ticket) == null) {
+                        origins[kept] = origin;
+                        batch[kept++] = ticket;
+                    }
+                }
+            }
+            start = end;
+        }
+        Arrays.fill(batch, kept, taken, null);
+        return kept;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (RingBufferTicketStore shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (RingBufferTicketStore shard : shards) {
+            if (!shard.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the room of the roomiest shard. With the room split across shards, a batch larger than
+     * that could wait for a single shard to empty while the store as a whole has room to spare.
+     */
+    @Override
+    public int maxOfferCount() {
+        int roomiest = 0;
+        for (RingBufferTicketStore shard : shards) {
+            roomiest = Math.max(roomiest, shard.maxOfferCount() - shard.size());
+        }
+        return roomiest;
+    }
+
+    @Override
+    public boolean hasRoomFor(int count) {
+        for (RingBufferTicketStore shard : shards) {
+            if (shard.hasRoomFor(count)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasAtLeast(int count) {
+        return size() >= count;  // A group can be gathered from several shards
+    }
+
+    @Override
+    public void clear() {
+        for (RingBufferTicketStore shard : shards) {
+            shard.clear();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.ticketingSystem.backend.logic;
+
+import com.ticketingSystem.backend.events.SimulationEventPublisher;
+import com.ticketingSystem.backend.model.ConfigurationEntity;
+import com.ticketingSystem.backend.model.EventEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The SimulationSessionRegistry keeps the simulation sessions that run side by side.
+ * Each session has its own {@link TicketingSystem} with its own pool, actors and counters,
+ * and sends its events to "/topic/simulation/{sessionID}". Sessions created here always
+ * run their actors in {@link ExecutionMode#POOLED} mode, so however many sessions run they
+ * share the one bounded "actorExecutor" pool. The original single simulation is the
+ * {@link #DEFAULT_SESSION}, which keeps its configured execution mode and topic.
+ * The registry also refreshes the {@link EngineSnapshot} of every session that is still moving.
+ */
+@Service
+public class SimulationSessionRegistry {
+
+    /** ID of the session behind the original endpoints. */
+    public static final String DEFAULT_SESSION = "default";
+
+    @Autowired
+    private SimulationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    private List<SaleRecorder> saleRecorders;
+
+    @Autowired(required = false)
+    @Qualifier("actorExecutor")
+    private ScheduledExecutorService actorExecutor;
+
+    private final TicketingSystem defaultSession;
+    private final int maxSessions;
+    private final ConcurrentMap<String, TicketingSystem> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the registry.
+     *
+     * @param defaultSession the engine of the default session
+     * @param maxSessions    the maximum number of sessions besides the default one
+     */
+    @Autowired
+    public SimulationSessionRegistry(TicketingSystem defaultSession,
+                                     @Value("${ticketing.sessions.max:64}") int maxSessions) {
+        this.defaultSession = defaultSession;
+        this.maxSessions = Math.max(maxSessions, 1);
+    }
+
+    /**
+     * Starts a new session with the given configuration. Finished sessions are discarded
+     * to make room once the limit is reached.
+     *
+     * @param config the configuration to run
+     * @param events the events to sell, or an empty list to sell the sample event
+     * @return the engine of the new session
+     * @throws IllegalStateException if the maximum number of sessions are all still running
+     */
+    public synchronized TicketingSystem start(ConfigurationEntity config, List<EventEntity> events) {
+        if (sessions.size() >= maxSessions) {
+            sessions.values().removeIf(session -> {
+                if (session.isRunning()) {
+                    return false;
+                }
+                session.getThreadManager().shutdown();
+                return true;
+            });
+            if (sessions.size() >= maxSessions) {
+                throw new IllegalStateException("All " + maxSessions + " simulation sessions are running");
+            }
+        }
+
+        String sessionID = UUID.randomUUID().toString();
+        String topic = SimulationEventPublisher.DEFAULT_TOPIC + "/" + sessionID;
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.setEventPublisher(eventPublisher, topic);
+        ticketPool.setSaleRecorders(saleRecorders);
+        ThreadManager threadManager = new ThreadManager();
+        threadManager.setEventPublisher(eventPublisher, topic);
+        threadManager.setActorExecutor(actorExecutor);
+
+        TicketingSystem session = new TicketingSystem(sessionID, topic, ticketPool, threadManager, eventPublisher, ExecutionMode.POOLED);
+        sessions.put(sessionID, session);
+        session.startSystem(config, events);
+        return session;
+    }
+
+    /**
+     * Gets a session by ID.
+     *
+     * @param sessionID the session ID, or {@link #DEFAULT_SESSION}
+     * @return the engine of the session, or null if there is no such session
+     */
+    public TicketingSystem get(String sessionID) {
+        if (sessionID == null || DEFAULT_SESSION.equals(sessionID)) {
+            return defaultSession;
+        }
+        return sessions.get(sessionID);
+    }
+
+    /**
+     * Stops a session and forgets it. The default session can only be stopped, not removed.
+     *
+     * @param sessionID the session ID
+     * @return true if the session existed
+     */
+    public boolean remove(String sessionID) {
+        if (DEFAULT_SESSION.equals(sessionID)) {
+            defaultSession.stopSystem();
+            return true;
+        }
+        TicketingSystem session = sessions.remove(sessionID);
+        if (session == null) {
+            return false;
+        }
+        session.stopSystem();
+        session.getThreadManager().shutdown();
+        return true;
+    }
+
+    /**
+     * Gets every session, the default one first.
+     *
+     * @return the engines of all sessions
+     */
+    public List<TicketingSystem> getSessions() {
+        List<TicketingSystem> all = new ArrayList<>(sessions.size() + 1);
+        all.add(defaultSession);
+        all.addAll(sessions.values());
+        return all;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Scheduled method that publishes a new snapshot of every session whose snapshot may be out
+     * of date. Finished sessions keep their last snapshot and cost nothing.
+     */
+    @Scheduled(fixedRateString = "${ticketing.snapshot.interval-ms:100}")
+    public void refreshSnapshots() {
+        if (defaultSession.isSnapshotStale()) {
+            defaultSession.refreshSnapshot();
+        }
+        for (TicketingSystem session : sessions.values()) {
+            if (session.isSnapshotStale()) {
+                session.refreshSnapshot();
+            }
+        }
+    }
+}
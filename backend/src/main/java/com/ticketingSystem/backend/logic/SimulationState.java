@@ -0,0 +1,41 @@
+package com.ticketingSystem.backend.logic;
+
+/**
+ * The SimulationState enum is the lifecycle of a run of a {@link TicketingSystem}:
+ * CONFIGURED, then RUNNING, then DRAINING, ending as COMPLETED or STOPPED.
+ */
+public enum SimulationState {
+
+    /** The pools are set up for a run, but no actor has started yet. Also the state of a session that has never run. */
+    CONFIGURED,
+
+    /** Vendors are still releasing tickets. */
+    RUNNING,
+
+    /** Every vendor has released its whole allocation; customers are buying what is left. */
+    DRAINING,
+
+    /** The last ticket has been bought. */
+    COMPLETED,
+
+    /** The run was stopped before it sold out. */
+    STOPPED;
+
+    /**
+     * Checks whether actors may still be working in this state.
+     *
+     * @return true while RUNNING or DRAINING
+     */
+    public boolean isActive() {
+        return this == RUNNING || this == DRAINING;
+    }
+
+    /**
+     * Checks whether the run has ended.
+     *
+     * @return true once COMPLETED or STOPPED
+     */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == STOPPED;
+    }
+}
@@ -1,61 +1,170 @@
 package com.ticketingSystem.backend.logic;
 
-import com.ticketingSystem.backend.web_socket.WebSocketController;
+import com.ticketingSystem.backend.events.SimulationEvent;
+import com.ticketingSystem.backend.events.SimulationEventPublisher;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class ThreadManager {
 
+    private static final Logger logger = LoggerFactory.getLogger(ThreadManager.class);
+
     @Autowired
-    private WebSocketController webSocketController;
+    private SimulationEventPublisher eventPublisher;
+    private String eventTopic = SimulationEventPublisher.DEFAULT_TOPIC;
+
+    @Autowired(required = false)
+    @Qualifier("actorExecutor")
+    private ScheduledExecutorService actorExecutor;
 
     private final List<Vendor> vendors = new ArrayList<>();
     private final List<Customer> customers = new ArrayList<>();
-    private final List<Thread> vendorThreads = new ArrayList<>();
-    private final List<Thread> customerThreads = new ArrayList<>();
+    private final List<Future<?>> vendorTasks = new ArrayList<>();
+    private final List<Future<?>> customerTasks = new ArrayList<>();
     private final Lock vendorLock = new ReentrantLock();
     private final Lock customerLock = new ReentrantLock();
 
+    private volatile ExecutionMode executionMode = ExecutionMode.PLATFORM;
+    private ExecutorService virtualThreadExecutor;
+
+    /**
+     * Selects how actors added from now on are run.
+     *
+     * @param executionMode the execution mode of the simulation
+     */
+    public void configure(ExecutionMode executionMode) {
+        this.executionMode = executionMode != null ? executionMode : ExecutionMode.PLATFORM;
+    }
+
+    /**
+     * Plugs in the executor used for {@link ExecutionMode#POOLED} actors.
+     *
+     * @param actorExecutor the scheduled executor service to run pooled actors on
+     */
+    public void setActorExecutor(ScheduledExecutorService actorExecutor) {
+        this.actorExecutor = actorExecutor;
+    }
+
+    /**
+     * Sends actor events to the given session topic.
+     *
+     * @param eventPublisher the publisher for simulation events
+     * @param eventTopic     the WebSocket topic of the session the actors belong to
+     */
+    public void setEventPublisher(SimulationEventPublisher eventPublisher, String eventTopic) {
+        this.eventPublisher = eventPublisher;
+        this.eventTopic = eventTopic;
+    }
+
     public void addVendor(Vendor vendor) {
-        Thread vendorThread = new Thread(vendor);
-        vendorThread.start();
+        Future<?> vendorTask = start(vendor);
         vendorLock.lock();
         try {
             vendors.add(vendor);
-            vendorThreads.add(vendorThread);
-            String message = "Vendor thread added. Total vendors: " + getVendorCount();
-            System.out.println(message);
-            if (webSocketController != null) webSocketController.sendTicketMessage(message);
+            vendorTasks.add(vendorTask);
+            if (eventPublisher != null) eventPublisher.publish(eventTopic, SimulationEvent.actorAdded(SimulationEvent.VENDOR, getVendorCount()));
         } finally {
             vendorLock.unlock();
         }
     }
 
     public void addCustomer(Customer customer) {
-        Thread customerThread = new Thread(customer);
-        customerThread.start();
+        Future<?> customerTask = start(customer);
         customerLock.lock();
         try {
             customers.add(customer);
-            customerThreads.add(customerThread);
-            String message = "Customer thread added. Total customers: " + getCustomerCount();
-            System.out.println(message);
-            if (webSocketController != null) webSocketController.sendTicketMessage(message);
+            customerTasks.add(customerTask);
+            if (eventPublisher != null) eventPublisher.publish(eventTopic, SimulationEvent.actorAdded(SimulationEvent.CUSTOMER, getCustomerCount()));
         } finally {
             customerLock.unlock();
         }
     }
 
+    /**
+     * Starts an actor according to the current execution mode. Every mode hands back a
+     * {@link Future}, so cancelling it interrupts the actor the same way
+     * {@link Thread#interrupt()} did for the original platform threads. Pooled actors run
+     * one non-blocking step at a time, so any number of them can share the bounded pool.
+     */
+    private Future<?> start(Actor actor) {
+        ExecutionMode mode = executionMode;
+        if (mode == ExecutionMode.POOLED && actorExecutor != null) {
+            return new PooledActorTask(actor, actorExecutor).start();
+        }
+        ActorThreadTask task = new ActorThreadTask(actor);
+        if (mode == ExecutionMode.VIRTUAL) {
+            ExecutorService executor = getVirtualThreadExecutor();
+            if (executor != null) {
+                executor.execute(task);
+                return task;
+            }
+        }
+        new Thread(task).start();
+        return task;
+    }
+
+    /**
+     * Gets a future that completes once every customer added so far has finished or been
+     * cancelled. No thread waits for them; the future completes on the last customer's own thread.
+     *
+     * @return a future of the customers leaving
+     */
+    public CompletableFuture<Void> whenCustomersDone() {
+        List<Future<?>> tasks = getCustomerTasks();
+        CompletableFuture<?>[] exits = new CompletableFuture<?>[tasks.size()];
+        for (int i = 0; i < exits.length; i++) {
+            exits[i] = exitOf(tasks.get(i));
+        }
+        return CompletableFuture.allOf(exits);
+    }
+
+    private static CompletableFuture<?> exitOf(Future<?> task) {
+        if (task instanceof ActorThreadTask) {
+            return ((ActorThreadTask) task).exited();
+        }
+        return ((PooledActorTask) task).handle((result, failure) -> null);
+    }
+
+    /**
+     * Lazily creates the virtual-thread-per-task executor. It is looked up reflectively so the
+     * backend still builds on Java 17; on older runtimes actors fall back to platform threads.
+     */
+    private synchronized ExecutorService getVirtualThreadExecutor() {
+        if (virtualThreadExecutor == null) {
+            try {
+                virtualThreadExecutor = (ExecutorService) java.util.concurrent.Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads need Java 21, using platform threads instead.");
+                executionMode = ExecutionMode.PLATFORM;
+            }
+        }
+        return virtualThreadExecutor;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
     public int getVendorCount() {
         vendorLock.lock();
         try {
-            return vendorThreads.size();
+            return vendorTasks.size();
         } finally {
             vendorLock.unlock();
         }
@@ -64,46 +173,106 @@ public class ThreadManager {
     public int getCustomerCount() {
         customerLock.lock();
         try {
-            return customerThreads.size();
+            return customerTasks.size();
+        } finally {
+            customerLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of vendors that are still running.
+     *
+     * @return the live vendor count
+     */
+    public int getLiveVendorCount() {
+        vendorLock.lock();
+        try {
+            return countLive(vendorTasks);
+        } finally {
+            vendorLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of customers that are still running.
+     *
+     * @return the live customer count
+     */
+    public int getLiveCustomerCount() {
+        customerLock.lock();
+        try {
+            return countLive(customerTasks);
         } finally {
             customerLock.unlock();
         }
     }
 
+    private static int countLive(List<Future<?>> tasks) {
+        int live = 0;
+        for (Future<?> task : tasks) {
+            if (!task.isDone()) {
+                live++;
+            }
+        }
+        return live;
+    }
+
     public void stopAllThreads() {
-        TicketingSystem.running.set(false);
         vendorLock.lock();
         try {
-            vendorThreads.forEach(Thread::interrupt);
-            vendorThreads.clear();
+            vendorTasks.forEach(task -> task.cancel(true));
+            vendorTasks.clear();
             vendors.clear();
         } finally {
             vendorLock.unlock();
         }
         customerLock.lock();
         try {
-            customerThreads.forEach(Thread::interrupt);
-            customerThreads.clear();
+            customerTasks.forEach(task -> task.cancel(true));
+            customerTasks.clear();
             customers.clear();
         } finally {
             customerLock.unlock();
         }
     }
 
-    public List<Thread> getCustomerThreads() {
+    public List<Future<?>> getCustomerTasks() {
         customerLock.lock();
         try {
-            return new ArrayList<>(customerThreads);
+            return new ArrayList<>(customerTasks);
         } finally {
             customerLock.unlock();
         }
     }
 
+    /**
+     * Gets a copy of the customers added so far, safe to read while more are added.
+     */
     public List<Customer> getCustomers() {
-        return customers;
+        customerLock.lock();
+        try {
+            return new ArrayList<>(customers);
+        } finally {
+            customerLock.unlock();
+        }
     }
 
+    /**
+     * Gets a copy of the vendors added so far, safe to read while more are added.
+     */
     public List<Vendor> getVendors() {
-        return vendors;
+        vendorLock.lock();
+        try {
+            return new ArrayList<>(vendors);
+        } finally {
+            vendorLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdownNow();
+        }
     }
 }
\ No newline at end of file
@@ -5,18 +5,47 @@ package com.ticketingSystem.backend.logic;
  * Each ticket has a unique ID and a name associated with it.
  */
 public class Ticket {
+
+    /** Name on the tickets of runs that are not given any events. */
+    public static final String DEFAULT_EVENT_NAME = "Sample Event";
+
     private final int TICKET_ID;
     private final String TICKET_NAME;
+    private final int VENDOR_ID;    // The vendor that released the ticket, 0 if unknown
+    private final long CREATED_AT;  // System.nanoTime() when the ticket was released into the pool
 
     /**
      * Constructs a Ticket object with a given ticket ID.
-     * The ticket name is set to a default value "Sample Event".
+     * The ticket name is set to {@link #DEFAULT_EVENT_NAME}.
      *
      * @param ticketID the unique ID of the ticket
      */
     public Ticket(int ticketID) {
+        this(ticketID, DEFAULT_EVENT_NAME);
+    }
+
+    /**
+     * Constructs a Ticket object for the given event.
+     *
+     * @param ticketID  the unique ID of the ticket within its event
+     * @param eventName the name of the event the ticket is for
+     */
+    public Ticket(int ticketID, String eventName) {
+        this(ticketID, eventName, 0);
+    }
+
+    /**
+     * Constructs a Ticket object for the given event, released by the given vendor.
+     *
+     * @param ticketID  the unique ID of the ticket within its event
+     * @param eventName the name of the event the ticket is for
+     * @param vendorID  the ID of the vendor releasing the ticket
+     */
+    public Ticket(int ticketID, String eventName, int vendorID) {
         this.TICKET_ID = ticketID;
-        this.TICKET_NAME = "Sample Event";  // Default ticket name
+        this.TICKET_NAME = eventName;
+        this.VENDOR_ID = vendorID;
+        this.CREATED_AT = System.nanoTime();
     }
 
     /**
@@ -36,4 +65,22 @@ public class Ticket {
     public int getTicketID() {
         return TICKET_ID;
     }
+
+    /**
+     * Gets the ID of the vendor that released the ticket.
+     *
+     * @return the vendor ID, or 0 if unknown
+     */
+    public int getVendorID() {
+        return VENDOR_ID;
+    }
+
+    /**
+     * Gets when the ticket was created, as a {@link System#nanoTime()} reading.
+     *
+     * @return the creation time in nanoseconds
+     */
+    public long getCreatedAt() {
+        return CREATED_AT;
+    }
 }
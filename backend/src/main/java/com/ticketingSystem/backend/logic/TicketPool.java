@@ -1,27 +1,148 @@
 package com.ticketingSystem.backend.logic;
 
-import com.ticketingSystem.backend.web_socket.WebSocketController;
+import com.ticketingSystem.backend.events.SimulationEvent;
+import com.ticketingSystem.backend.events.SimulationEventPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * The TicketPool holds the tickets of one event between vendors releasing them and customers
+ * buying them. A session has one pool per event of its run; see {@link EventInventory}.
+ */
 @Component
 public class TicketPool {
 
+    // Smaller shards would mostly send actors to the other shards and break vendor blocks into small pieces
+    private static final int MIN_DEFAULT_SHARD_CAPACITY = 16;
+
     @Autowired
-    private WebSocketController webSocketController;
+    private SimulationEventPublisher eventPublisher;
+    private String eventTopic = SimulationEventPublisher.DEFAULT_TOPIC;
+
+    private volatile SaleRecorder[] saleRecorders = new SaleRecorder[0];  // The ledger and the sales store, when enabled
 
-    private final LinkedList<Ticket> tickets = new LinkedList<>();
-    private int maxCapacity;
-    private final Lock lock = new ReentrantLock();
+    private final PoolStatistics statistics = new PoolStatistics();
+    private final LatencyHistogram timeInPool;
+    private final LatencyHistogram purchaseLatency;
+    private volatile String eventName = Ticket.DEFAULT_EVENT_NAME;
+    private volatile long eventID;  // 0 for the sample event
+    private volatile long runID;
+    private volatile TicketStore tickets = new LockedTicketStore(0, statistics);
+    private volatile int maxCapacity;
+    private volatile WaitStrategy notEmpty = WaitStrategy.create(WaitStrategyType.PARK);
+    private volatile WaitStrategy notFull = WaitStrategy.create(WaitStrategyType.PARK);
     private final AtomicInteger ticketID = new AtomicInteger(1);
 
+    public TicketPool() {
+        this(new LatencyHistogram(), new LatencyHistogram());
+    }
+
+    /**
+     * Creates a pool that records into latency histograms shared with the other pools of its session,
+     * while keeping its own statistics.
+     */
+    TicketPool(LatencyHistogram timeInPool, LatencyHistogram purchaseLatency) {
+        this.timeInPool = timeInPool;
+        this.purchaseLatency = purchaseLatency;
+    }
+
+    /**
+     * Sends the pool's events to the given session topic.
+     *
+     * @param eventPublisher the publisher for simulation events
+     * @param eventTopic     the WebSocket topic of the session the pool belongs to
+     */
+    public void setEventPublisher(SimulationEventPublisher eventPublisher, String eventTopic) {
+        this.eventPublisher = eventPublisher;
+        this.eventTopic = eventTopic;
+    }
+
+    /**
+     * Tells the given recorders about every sale of the pool, e.g. the sales ledger and the
+     * sales store, replacing the recorders set before. Null or an empty list stops recording.
+     */
+    @Autowired(required = false)
+    public void setSaleRecorders(List<SaleRecorder> saleRecorders) {
+        this.saleRecorders = saleRecorders != null ? saleRecorders.toArray(new SaleRecorder[0]) : new SaleRecorder[0];
+    }
+
+    public List<SaleRecorder> getSaleRecorders() {
+        return List.of(saleRecorders);
+    }
+
+    /**
+     * Sets the event of the tickets added from now on.
+     *
+     * @param eventID   the ID of the event, 0 for the sample event
+     * @param eventName the name printed on the tickets
+     */
+    public void setEvent(long eventID, String eventName) {
+        this.eventID = eventID;
+        this.eventName = eventName;
+    }
+
+    public long getEventID() {
+        return eventID;
+    }
+
+    /**
+     * Sets the run that the sales recorded from now on belong to.
+     *
+     * @param runID the ID of the run, unique across sessions and restarts
+     */
+    public void setRunID(long runID) {
+        this.runID = runID;
+    }
+
+    public long getRunID() {
+        return runID;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
     public void configure(int maxCapacity) {
+        configure(maxCapacity, PoolType.LOCKED);
+    }
+
+    public void configure(int maxCapacity, PoolType poolType) {
+        configure(maxCapacity, poolType, WaitStrategyType.PARK);
+    }
+
+    public void configure(int maxCapacity, PoolType poolType, WaitStrategyType waitStrategy) {
+        configure(maxCapacity, poolType, waitStrategy, 0);
+    }
+
+    /**
+     * Configures the pool for a new run.
+     *
+     * @param maxCapacity  the maximum number of tickets held at once
+     * @param poolType     the storage implementation
+     * @param waitStrategy how actors wait for room or tickets
+     * @param shards       the number of shards of a {@link PoolType#SHARDED} pool; 0 or less uses one per core,
+     *                     but no more than leaves each shard {@value #MIN_DEFAULT_SHARD_CAPACITY} tickets
+     */
+    public void configure(int maxCapacity, PoolType poolType, WaitStrategyType waitStrategy, int shards) {
         this.maxCapacity = maxCapacity;
+        this.tickets = createStore(poolType, maxCapacity, shards);
+        this.notEmpty = WaitStrategy.create(waitStrategy);
+        this.notFull = WaitStrategy.create(waitStrategy);
+    }
+
+    private TicketStore createStore(PoolType poolType, int maxCapacity, int shards) {
+        if (poolType == PoolType.RING_BUFFER) {
+            return new RingBufferTicketStore(maxCapacity);
+        }
+        if (poolType == PoolType.SHARDED) {
+            int defaultShards = Math.min(Runtime.getRuntime().availableProcessors(), maxCapacity / MIN_DEFAULT_SHARD_CAPACITY);
+            return new ShardedTicketStore(maxCapacity, shards > 0 ? shards : Math.max(defaultShards, 1));
+        }
+        return new LockedTicketStore(maxCapacity, statistics);
     }
 
     public void resetTicketID() {
@@ -29,81 +150,379 @@ public class TicketPool {
     }
 
     public boolean addTickets(int vendorID) {
-        lock.lock();
-        try {
-            if (tickets.size() >= maxCapacity) {
-                String message = "Ticket pool is full for Vendor ID: " + vendorID;
-                System.out.println(message);
-                if (webSocketController != null) webSocketController.sendTicketMessage(message);
+        Ticket newTicket = offer(vendorID);
+        if (newTicket == null) {
+            announceFull(vendorID);
+            return false;
+        }
+        announceAdded(vendorID, newTicket);
+        return true;
+    }
+
+    /**
+     * Adds a ticket, waiting as long as it takes for the pool to have room.
+     *
+     * @param vendorID the vendor releasing the ticket
+     * @throws InterruptedException if the vendor is interrupted while waiting
+     */
+    public void put(int vendorID) throws InterruptedException {
+        put(vendorID, WaitStrategy.NO_TIMEOUT, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds a ticket, waiting up to the given time for the pool to have room.
+     * The vendor is woken as soon as a customer frees a slot.
+     *
+     * @param vendorID the vendor releasing the ticket
+     * @param timeout  the maximum time to wait
+     * @param unit     the unit of the timeout
+     * @return true if the ticket was added, false if the pool stayed full
+     * @throws InterruptedException if the vendor is interrupted while waiting
+     */
+    public boolean put(int vendorID, long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            Ticket newTicket = offer(vendorID);
+            if (newTicket != null) {
+                announceAdded(vendorID, newTicket);
+                return true;
+            }
+            long remaining = timeoutNanos == WaitStrategy.NO_TIMEOUT ? timeoutNanos : deadline - System.nanoTime();
+            if (remaining <= 0 || !notFull.await(() -> tickets.hasRoomFor(1), remaining)) {
+                announceFull(vendorID);
                 return false;
             }
+        }
+    }
 
-            int currentTicketID = getNextTicketID();
-            Ticket newTicket = new Ticket(currentTicketID);
-            tickets.add(newTicket);
+    /**
+     * Adds a block of tickets in a single critical section, or none of them if the pool lacks room for all.
+     *
+     * @param vendorID the vendor releasing the tickets
+     * @param count    the number of tickets to release
+     * @return true if every ticket was added, false if none were
+     */
+    public boolean addTickets(int vendorID, int count) {
+        Ticket[] newTickets = offer(vendorID, count);
+        if (newTickets == null) {
+            announceFull(vendorID);
+            return false;
+        }
+        announceAdded(vendorID, newTickets);
+        return true;
+    }
 
-            String addMessage = String.format("Vendor ID: %d added 1 Ticket to the pool.\nAdded Ticket ID: %d Event Name: %s",
-                    vendorID, currentTicketID, newTicket.getTicketName());
-            System.out.println(addMessage);
-            if (webSocketController != null) webSocketController.sendTicketMessage(addMessage);
+    /**
+     * Adds a block of tickets, waiting up to the given time for the pool to have room for all of them.
+     *
+     * @param vendorID the vendor releasing the tickets
+     * @param count    the number of tickets to release
+     * @param timeout  the maximum time to wait
+     * @param unit     the unit of the timeout
+     * @return true if every ticket was added, false if none were
+     * @throws InterruptedException if the vendor is interrupted while waiting
+     */
+    public boolean put(int vendorID, int count, long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            Ticket[] newTickets = offer(vendorID, count);
+            if (newTickets != null) {
+                announceAdded(vendorID, newTickets);
+                return true;
+            }
+            long remaining = timeoutNanos == WaitStrategy.NO_TIMEOUT ? timeoutNanos : deadline - System.nanoTime();
+            if (count > maxCapacity || remaining <= 0
+                    || !notFull.await(() -> tickets.hasRoomFor(count), remaining)) {
+                announceFull(vendorID);
+                return false;
+            }
+        }
+    }
 
-            return true;
-        } finally {
-            lock.unlock();
+    private Ticket[] offer(int vendorID, int count) {
+        Ticket[] newTickets = tickets.offerAt(vendorID, count, () -> new Ticket(getNextTicketID(), eventName, vendorID));
+        if (newTickets == null) {
+            statistics.recordFailedAdd();
+            return null;
         }
+        statistics.recordAdded(count);
+        notEmpty.signalAll();
+        return newTickets;
+    }
+
+    private Ticket offer(int vendorID) {
+        Ticket newTicket = tickets.offerAt(vendorID, () -> new Ticket(getNextTicketID(), eventName, vendorID));
+        if (newTicket == null) {
+            statistics.recordFailedAdd();
+            return null;
+        }
+        statistics.recordAdded(1);
+        notEmpty.signalAll();
+        return newTicket;
+    }
+
+    private void announceFull(int vendorID) {
+        if (eventPublisher != null) eventPublisher.publish(eventTopic, SimulationEvent.poolFull(vendorID));
+    }
+
+    private void announceAdded(int vendorID, Ticket newTicket) {
+        if (eventPublisher != null) eventPublisher.publish(eventTopic, SimulationEvent.ticketAdded(vendorID, newTicket));
+    }
+
+    private void announceAdded(int vendorID, Ticket[] newTickets) {
+        if (eventPublisher != null) eventPublisher.publish(eventTopic, SimulationEvent.ticketsAdded(vendorID, newTickets));
     }
 
     private int getNextTicketID() {
         return ticketID.getAndIncrement();
     }
 
+    /**
+     * Removes a ticket if there is one and every sale recorder has room for its sale.
+     *
+     * @param customerID the customer buying the ticket
+     * @return true if a ticket was removed, false if the pool was empty or a recorder was full
+     */
     public boolean removeTickets(int customerID) {
-        lock.lock();
-        try {
-            if (tickets.isEmpty()) {
-                String message = "Ticket pool is empty for Customer ID: " + customerID;
-                System.out.println(message);
-                if (webSocketController != null) webSocketController.sendTicketMessage(message);
+        SaleRecorder[] recorders = saleRecorders;
+        if (!tryReserve(recorders, 1)) {
+            return false;  // Not sold, so the customer comes back later instead of losing the sale
+        }
+        Ticket removedTicket = poll(customerID, recorders);
+        if (removedTicket == null) {
+            release(recorders, recorders.length, 1);
+            announceEmpty(customerID);
+            return false;
+        }
+        announceRemoved(customerID, removedTicket);
+        return true;
+    }
+
+    /**
+     * Removes a ticket, waiting as long as it takes for one to be added.
+     *
+     * @param customerID the customer buying the ticket
+     * @throws InterruptedException if the customer is interrupted while waiting
+     */
+    public void take(int customerID) throws InterruptedException {
+        take(customerID, WaitStrategy.NO_TIMEOUT, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Removes a ticket, waiting up to the given time for one to be added and for the sale
+     * recorders to have room for its sale. The customer is woken as soon as a vendor adds a ticket.
+     *
+     * @param customerID the customer buying the ticket
+     * @param timeout    the maximum time to wait
+     * @param unit       the unit of the timeout
+     * @return true if a ticket was removed, false if the pool stayed empty or a recorder stayed full
+     * @throws InterruptedException if the customer is interrupted while waiting
+     */
+    public boolean take(int customerID, long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            SaleRecorder[] recorders = saleRecorders;
+            if (!reserve(recorders, 1, remaining(timeoutNanos, deadline))) {
+                return false;
+            }
+            Ticket removedTicket = poll(customerID, recorders);
+            if (removedTicket != null) {
+                announceRemoved(customerID, removedTicket);
+                return true;
+            }
+            release(recorders, recorders.length, 1);
+            long remaining = remaining(timeoutNanos, deadline);
+            if (remaining <= 0 || !notEmpty.await(() -> tickets.hasAtLeast(1), remaining)) {
+                announceEmpty(customerID);
                 return false;
             }
+        }
+    }
 
-            Ticket removedTicket = tickets.remove(0);
+    /**
+     * Removes a group of tickets in a single critical section, or none of them if fewer are available
+     * or a sale recorder has no room for the whole group, so a group purchase is never split.
+     *
+     * @param customerID the customer buying the tickets
+     * @param count      the number of tickets in the group
+     * @return true if the whole group was bought, false if nothing was
+     */
+    public boolean removeTickets(int customerID, int count) {
+        SaleRecorder[] recorders = saleRecorders;
+        if (!tryReserve(recorders, count)) {
+            return false;
+        }
+        Ticket[] removedTickets = poll(customerID, count, recorders);
+        if (removedTickets == null) {
+            release(recorders, recorders.length, count);
+            announceEmpty(customerID);
+            return false;
+        }
+        announceRemoved(customerID, removedTickets);
+        return true;
+    }
+
+    /**
+     * Removes a group of tickets, waiting up to the given time for enough of them to be available
+     * and for the sale recorders to have room for the whole group.
+     *
+     * @param customerID the customer buying the tickets
+     * @param count      the number of tickets in the group
+     * @param timeout    the maximum time to wait
+     * @param unit       the unit of the timeout
+     * @return true if the whole group was bought, false if nothing was
+     * @throws InterruptedException if the customer is interrupted while waiting
+     */
+    public boolean take(int customerID, int count, long timeout, TimeUnit unit) throws InterruptedException {
+        long timeoutNanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            SaleRecorder[] recorders = saleRecorders;
+            if (!reserve(recorders, count, remaining(timeoutNanos, deadline))) {
+                return false;
+            }
+            Ticket[] removedTickets = poll(customerID, count, recorders);
+            if (removedTickets != null) {
+                announceRemoved(customerID, removedTickets);
+                return true;
+            }
+            release(recorders, recorders.length, count);
+            long remaining = remaining(timeoutNanos, deadline);
+            if (count > maxCapacity || remaining <= 0
+                    || !notEmpty.await(() -> tickets.hasAtLeast(count), remaining)) {
+                announceEmpty(customerID);
+                return false;
+            }
+        }
+    }
 
-            String removeMessage = String.format("Customer ID: %d removed 1 Ticket from the pool.\nRemoved Ticket ID: %d Event Name: %s",
-                    customerID, removedTicket.getTicketID(), removedTicket.getTicketName());
-            System.out.println(removeMessage);
-            if (webSocketController != null) webSocketController.sendTicketMessage(removeMessage);
+    private static long remaining(long timeoutNanos, long deadline) {
+        return timeoutNanos == WaitStrategy.NO_TIMEOUT ? timeoutNanos : deadline - System.nanoTime();
+    }
 
-            return true;
-        } finally {
-            lock.unlock();
+    private static boolean tryReserve(SaleRecorder[] recorders, int count) {
+        for (int i = 0; i < recorders.length; i++) {
+            if (!recorders[i].tryReserve(count)) {
+                release(recorders, i, count);
+                return false;
+            }
         }
+        return true;
     }
 
-    public boolean hasTickets() {
-        lock.lock();
-        try {
-            return !tickets.isEmpty();
-        } finally {
-            lock.unlock();
+    private static boolean reserve(SaleRecorder[] recorders, int count, long timeoutNanos) throws InterruptedException {
+        for (int i = 0; i < recorders.length; i++) {
+            boolean reserved;
+            try {
+                reserved = recorders[i].reserve(count, Math.max(timeoutNanos, 0), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                release(recorders, i, count);
+                throw e;
+            }
+            if (!reserved) {
+                release(recorders, i, count);
+                return false;
+            }
         }
+        return true;
     }
 
-    public int getPoolSize() {
-        lock.lock();
-        try {
-            return tickets.size();
-        } finally {
-            lock.unlock();
+    // Gives back the room reserved with the first reserved recorders
+    private static void release(SaleRecorder[] recorders, int reserved, int count) {
+        for (int i = 0; i < reserved; i++) {
+            recorders[i].release(count);
         }
     }
 
-    public void resetTicketPool() {
-        lock.lock();
-        try {
-            tickets.clear();
-        } finally {
-            lock.unlock();
+    private Ticket[] poll(int customerID, int count, SaleRecorder[] recorders) {
+        Ticket[] removedTickets = tickets.pollAt(customerID, count);
+        if (removedTickets == null) {
+            statistics.recordFailedRemove();
+            return null;
+        }
+        statistics.recordRemoved(count);
+        long now = System.nanoTime();
+        for (Ticket ticket : removedTickets) {
+            timeInPool.record(now - ticket.getCreatedAt());
+        }
+        notFull.signalAll();  // Before the recorders, so that vendors never wait on them
+        for (SaleRecorder recorder : recorders) {
+            recorder.recordSales(runID, customerID, eventID, removedTickets);
         }
+        return removedTickets;
+    }
+
+    private Ticket poll(int customerID, SaleRecorder[] recorders) {
+        Ticket removedTicket = tickets.pollAt(customerID);
+        if (removedTicket == null) {
+            statistics.recordFailedRemove();
+            return null;
+        }
+        statistics.recordRemoved(1);
+        timeInPool.record(System.nanoTime() - removedTicket.getCreatedAt());
+        notFull.signalAll();
+        for (SaleRecorder recorder : recorders) {
+            recorder.recordSale(runID, customerID, eventID, removedTicket);
+        }
+        return removedTicket;
+    }
+
+    private void announceEmpty(int customerID) {
+        if (eventPublisher != null) eventPublisher.publish(eventTopic, SimulationEvent.poolEmpty(customerID));
+    }
+
+    private void announceRemoved(int customerID, Ticket removedTicket) {
+        if (eventPublisher != null) eventPublisher.publish(eventTopic, SimulationEvent.ticketRemoved(customerID, removedTicket));
+    }
+
+    private void announceRemoved(int customerID, Ticket[] removedTickets) {
+        if (eventPublisher != null) eventPublisher.publish(eventTopic, SimulationEvent.ticketsRemoved(customerID, removedTickets));
+    }
+
+    public boolean hasTickets() {
+        return !tickets.isEmpty();
+    }
+
+    public int getPoolSize() {
+        return tickets.size();
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * Gets the largest block of tickets worth releasing in one step. This is the capacity, except
+     * for a {@link PoolType#SHARDED} pool, where a block has to fit in a single shard and so is
+     * limited to the room the roomiest shard has at the moment.
+     */
+    public int getMaxReleaseBatch() {
+        return tickets.maxOfferCount();
+    }
+
+    public PoolStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the histogram of how long tickets stay in the pool between being added and bought.
+     */
+    public LatencyHistogram getTimeInPool() {
+        return timeInPool;
+    }
+
+    /**
+     * Gets the histogram of how long customers wait, across attempts, for each successful purchase.
+     */
+    public LatencyHistogram getPurchaseLatency() {
+        return purchaseLatency;
+    }
+
+    public void resetTicketPool() {
+        tickets.clear();
+        notFull.signalAll();
     }
 }
\ No newline at end of file
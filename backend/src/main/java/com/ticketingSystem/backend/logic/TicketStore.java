@@ -0,0 +1,96 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.function.Supplier;
+
+/**
+ * Storage behind the {@link TicketPool}. Implementations must be safe for
+ * concurrent use by any number of vendors and customers and must hand tickets
+ * out in the order they were added. A store made of independent shards keeps
+ * that order within each shard only; see {@link ShardedTicketStore}.
+ */
+interface TicketStore {
+
+    /**
+     * Adds a ticket if the store has room for it. The factory is only called once
+     * a slot has been secured, so ticket IDs are never wasted on a full store.
+     *
+     * @param factory creates the ticket to store
+     * @return the stored ticket, or null if the store is full
+     */
+    Ticket offer(Supplier<Ticket> factory);
+
+    /**
+     * Adds a batch of tickets in one step, or none of them if the store lacks room for all.
+     *
+     * @param count   the number of tickets to add
+     * @param factory creates each ticket once the slots have been secured
+     * @return the stored tickets, or null if the store has room for fewer than count
+     */
+    Ticket[] offer(int count, Supplier<Ticket> factory);
+
+    /**
+     * Removes the oldest ticket.
+     *
+     * @return the removed ticket, or null if the store is empty
+     */
+    Ticket poll();
+
+    /**
+     * Removes a batch of the oldest tickets in one step, or none of them if fewer are stored.
+     *
+     * @param count the number of tickets to remove
+     * @return the removed tickets, or null if the store holds fewer than count
+     */
+    Ticket[] poll(int count);
+
+    /**
+     * Gets the number of tickets currently stored. Lock-free implementations may
+     * return an approximation while other threads are adding or removing tickets.
+     *
+     * @return the number of stored tickets
+     */
+    int size();
+
+    boolean isEmpty();
+
+    /**
+     * Gets the largest batch worth offering: a larger one would have to wait for room that the
+     * store can never free up in one place. This is the capacity, unless the store is partitioned.
+     */
+    int maxOfferCount();
+
+    /**
+     * Checks whether a batch of the given size could currently be added in one step.
+     */
+    boolean hasRoomFor(int count);
+
+    /**
+     * Checks whether a batch of the given size could currently be removed in one step.
+     */
+    boolean hasAtLeast(int count);
+
+    /**
+     * Adds a ticket on behalf of an actor. Stores that partition their tickets use the
+     * affinity to pick the actor's home partition; the others ignore it.
+     */
+    default Ticket offerAt(int affinity, Supplier<Ticket> factory) {
+        return offer(factory);
+    }
+
+    default Ticket[] offerAt(int affinity, int count, Supplier<Ticket> factory) {
+        return offer(count, factory);
+    }
+
+    /**
+     * Removes a ticket on behalf of an actor, preferring the actor's home partition if the store has any.
+     */
+    default Ticket pollAt(int affinity) {
+        return poll();
+    }
+
+    default Ticket[] pollAt(int affinity, int count) {
+        return poll(count);
+    }
+
+    void clear();
+}
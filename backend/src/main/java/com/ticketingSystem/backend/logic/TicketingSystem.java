@@ -1,95 +1,170 @@
 package com.ticketingSystem.backend.logic;
 
 import com.ticketingSystem.backend.model.ConfigurationEntity;
-import com.ticketingSystem.backend.web_socket.WebSocketController;
+import com.ticketingSystem.backend.model.EventEntity;
+import com.ticketingSystem.backend.events.SimulationEvent;
+import com.ticketingSystem.backend.events.SimulationEventPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * The TicketingSystem is the engine of one simulation session: its ticket pools, its vendors
+ * and customers, and the run state they share. A run sells one or more events, each from its
+ * own pool in the session's {@link EventInventory}. The Spring bean is the default session behind
+ * the original endpoints; {@link SimulationSessionRegistry} creates further sessions, each
+ * publishing to its own WebSocket topic.
+ *
+ * <p>Each run moves through the {@link SimulationState} lifecycle. The moves are triggered by
+ * the actors themselves: the last vendor to finish its allocation moves the run to DRAINING,
+ * and the customer that buys the last ticket after that completes it. Nothing polls for
+ * sell-out, and {@link #getCompletion()} completes the moment it happens.</p>
+ *
+ * <p>Monitoring reads go to {@link #getSnapshot()}, an immutable {@link EngineSnapshot} captured on
+ * every lifecycle transition and refreshed at a fixed tick by the {@link SimulationSessionRegistry},
+ * so they never compete with the actors for a lock.</p>
+ */
 @Service
 public class TicketingSystem {
 
+    // Seeded with the clock so that run IDs stay unique across restarts, not just across sessions
+    private static final AtomicLong RUN_IDS = new AtomicLong(System.currentTimeMillis());
+
     @Autowired
-    private WebSocketController webSocketController;
+    private SimulationEventPublisher eventPublisher;
 
-    public static AtomicBoolean running = new AtomicBoolean(false);
-    public static AtomicInteger finishedVendors = new AtomicInteger(0);
-    private static ConfigurationEntity currentConfig;
+    private final String sessionID;
+    private final String eventTopic;
+    private final AtomicReference<SimulationState> state = new AtomicReference<>(SimulationState.CONFIGURED);
+    private volatile CompletableFuture<SimulationState> completion = new CompletableFuture<>();
+    private final AtomicInteger finishedVendors = new AtomicInteger(0);
+    private final ExecutionMode executionMode;
+    private volatile ConfigurationEntity currentConfig;
+    private volatile long runID;  // 0 before the first run
+    private final Object snapshotLock = new Object();
+    private volatile EngineSnapshot snapshot;
 
     private final TicketPool ticketPool;
+    private final EventInventory inventory;
     private final ThreadManager threadManager;
 
     @Autowired
     public TicketingSystem(TicketPool ticketPool, ThreadManager threadManager) {
+        this(SimulationSessionRegistry.DEFAULT_SESSION, SimulationEventPublisher.DEFAULT_TOPIC, ticketPool, threadManager, null, null);
+    }
+
+    /**
+     * Creates the engine of a session.
+     *
+     * @param sessionID      the ID of the session
+     * @param eventTopic     the WebSocket topic the session's events are sent to
+     * @param ticketPool     the session's own ticket pool
+     * @param threadManager  the session's own thread manager
+     * @param eventPublisher the publisher for simulation events
+     * @param executionMode  how every run of the session executes its actors, or null to follow the configuration
+     */
+    public TicketingSystem(String sessionID, String eventTopic, TicketPool ticketPool, ThreadManager threadManager,
+                           SimulationEventPublisher eventPublisher, ExecutionMode executionMode) {
+        this.sessionID = sessionID;
+        this.executionMode = executionMode;
+        this.eventTopic = eventTopic;
         this.ticketPool = ticketPool;
+        this.inventory = new EventInventory(ticketPool);
         this.threadManager = threadManager;
+        this.eventPublisher = eventPublisher;
+        this.snapshot = EngineSnapshot.capture(0, this, 0);
+    }
+
+    /**
+     * Works out how many shards a sharded pool gets: the configured count (one per core by default),
+     * reduced so that every shard can still hold a whole vendor or customer batch.
+     */
+    private static int resolvePoolShards(ConfigurationEntity config) {
+        int requested = config.getPoolShards() > 0 ? config.getPoolShards() : Runtime.getRuntime().availableProcessors();
+        int largestBatch = Math.max(config.getVendorBatchSize(), config.getCustomerBatchSize());
+        return Math.min(requested, Math.max(1, config.getMaxTicketCapacity() / largestBatch));
     }
 
     public void startSystem(ConfigurationEntity config) {
+        startSystem(config, List.of());
+    }
+
+    /**
+     * Starts a run that sells the given events. Vendors are spread over the events in turn, and
+     * each customer prefers a different event first, falling back to the others in turn.
+     * A run of the session that is still active is stopped first.
+     *
+     * @param config the configuration of the run
+     * @param events the events to sell, or an empty list to sell the sample event from the session's pool
+     */
+    public synchronized void startSystem(ConfigurationEntity config, List<EventEntity> events) {
+        if (state.get().isActive()) {
+            stopSystem();
+        }
+        CompletableFuture<SimulationState> run = new CompletableFuture<>();
+        completion = run;
         currentConfig = config;
-        running.set(true);
+        runID = RUN_IDS.incrementAndGet();
+        state.set(SimulationState.CONFIGURED);
         resetSystem();
-        ticketPool.configure(config.getMaxTicketCapacity());
+        inventory.configure(runID, events, config.getMaxTicketCapacity(), config.getPoolType(), config.getWaitStrategy(),
+                resolvePoolShards(config), eventPublisher, eventTopic);
+        threadManager.configure(executionMode != null ? executionMode : config.getExecutionMode());
+        state.set(SimulationState.RUNNING);
 
+        int allocation = config.getNumberOfVendors() > 0 ? config.getTotalTickets() / config.getNumberOfVendors() : 0;
         for (int i = 0; i < config.getNumberOfVendors(); i++) {
-            Vendor vendor = new Vendor(ticketPool);
-            vendor.configure(config.getTicketReleaseRate(), config.getTotalTickets() / config.getNumberOfVendors(), i + 1);
+            Vendor vendor = new Vendor(this, inventory.getPool(i));
+            vendor.configure(config.getTicketReleaseRate(), allocation, i + 1, config.getVendorBatchSize());
             threadManager.addVendor(vendor);
+            if (allocation == 0) {
+                vendorFinished();  // Nothing to release, so the vendor is done before it starts
+            }
         }
 
         for (int i = 0; i < config.getNumberOfCustomers(); i++) {
-            Customer customer = new Customer(ticketPool);
-            customer.configure(config.getCustomerRetrievalRate(), i + 1);
+            Customer customer = new Customer(this, inventory.getPreferences(i));
+            customer.configure(config.getCustomerRetrievalRate(), i + 1, config.getCustomerBatchSize());
             threadManager.addCustomer(customer);
         }
 
-        new Thread(() -> {
-            while (running.get()) {
-                if (finishedVendors.get() >= config.getNumberOfVendors() && ticketPool.getPoolSize() == 0) {
-                    running.set(false);
-                    String soldOutMessage = "All tickets sold out! Customers purchasing tickets if remaining...";
-                    System.out.println(soldOutMessage);
-                    if (webSocketController != null) webSocketController.sendTicketMessage(soldOutMessage);
-                    break;
-                }
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-            completeCustomers(threadManager.getCustomerThreads());
-            Map<String, Object> summaryMap = getSimulationSummary(threadManager.getCustomers(), threadManager.getVendors(), finishedVendors);
-            String summary = formatSummary(summaryMap);
-            System.out.println(summary);
-            if (webSocketController != null) {
-                webSocketController.sendTicketMessage(summary);
-                webSocketController.sendTicketMessage("Simulation ended");
+        if (config.getNumberOfVendors() == 0 && state.compareAndSet(SimulationState.RUNNING, SimulationState.DRAINING)) {
+            completeIfDrained();
+        }
+        refreshSnapshot();
+        run.thenAccept(outcome -> {
+            if (outcome == SimulationState.COMPLETED) {
+                threadManager.whenCustomersDone().thenRun(() -> publishSummary(run, events));
             }
-        }).start();
+        });
     }
 
-    private void completeCustomers(List<Thread> customerThreads) {
-        for (Thread thread : customerThreads) {
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                System.out.println("Error joining threads: " + e.getMessage());
+    /**
+     * Publishes the summary of a completed run once its customers have left, unless another run has started since.
+     */
+    private void publishSummary(CompletableFuture<SimulationState> run, List<EventEntity> events) {
+        if (run != completion || eventPublisher == null) {
+            return;
+        }
+        Map<String, Object> summaryMap = getSimulationSummary(threadManager.getCustomers(), threadManager.getVendors(), finishedVendors);
+        if (!events.isEmpty()) {
+            for (Map<String, Object> event : inventory.describe()) {
+                summaryMap.put("Event " + event.get("name"), event.get("ticketsSold"));
             }
         }
-    }
-
-    private String formatSummary(Map<String, Object> summaryMap) {
-        StringBuilder summary = new StringBuilder("Simulation Summary:\n");
-        summaryMap.forEach((key, value) -> {
-            summary.append(key).append(": ").append(value).append("\n");
-        });
-        return summary.toString().trim();
+        summaryMap.put("Run ID", runID);
+        summaryMap.put("Time in pool (ms)", ticketPool.getTimeInPool().describe());
+        summaryMap.put("Purchase latency (ms)", ticketPool.getPurchaseLatency().describe());
+        eventPublisher.publish(eventTopic, SimulationEvent.summary(summaryMap));
+        eventPublisher.publish(eventTopic, "Simulation ended");
     }
 
     public static Map<String, Object> getSimulationSummary(List<Customer> customers, List<Vendor> vendors, AtomicInteger finishedVendors) {
@@ -114,17 +189,174 @@ public class TicketingSystem {
         return summary;
     }
 
-    public static boolean isRunning() {
-        return running.get();
+    /**
+     * Stops the run: vendors stop releasing and every actor is cancelled. An active run ends as STOPPED.
+     */
+    public void stopSystem() {
+        SimulationState previous = state.getAndUpdate(current -> current.isTerminal() ? current : SimulationState.STOPPED);
+        threadManager.stopAllThreads();
+        if (!previous.isTerminal()) {
+            completion.complete(SimulationState.STOPPED);
+        }
+        refreshSnapshot();
+    }
+
+    /**
+     * Checks whether the run is active, i.e. RUNNING or DRAINING.
+     *
+     * @return true while vendors or customers may still be working
+     */
+    public boolean isRunning() {
+        return state.get().isActive();
+    }
+
+    /**
+     * Gets the latest published snapshot of the session, without taking any lock.
+     * It is at most one snapshot interval old, and never older than the last lifecycle transition.
+     *
+     * @return the latest snapshot
+     */
+    public EngineSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Captures and publishes a new snapshot of the session. This is the only place monitoring
+     * reads the pools and actors directly, once per call however many readers there are.
+     *
+     * @return the new snapshot
+     */
+    public EngineSnapshot refreshSnapshot() {
+        synchronized (snapshotLock) {
+            EngineSnapshot next = EngineSnapshot.capture(snapshot.getSequence() + 1, this, finishedVendors.get());
+            snapshot = next;
+            return next;
+        }
+    }
+
+    /**
+     * Checks whether the published snapshot may be out of date: the run is active, actors are
+     * still winding down, or the state has moved on since it was taken.
+     *
+     * @return true if {@link #refreshSnapshot()} would publish anything new
+     */
+    boolean isSnapshotStale() {
+        EngineSnapshot current = snapshot;
+        return current.isRunning() || current.getState() != state.get()
+                || current.getLiveVendors() > 0 || current.getLiveCustomers() > 0;
+    }
+
+    public SimulationState getState() {
+        return state.get();
     }
 
-    public static ConfigurationEntity getCurrentConfig() {
+    /**
+     * Gets the future of the current or last run. It completes with COMPLETED as soon as the last
+     * ticket is bought, or with STOPPED when the run is stopped; a new run gets a new future.
+     *
+     * @return the completion of the run
+     */
+    public CompletableFuture<SimulationState> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Records that a vendor has released its whole allocation. The last one moves the run to DRAINING.
+     */
+    void vendorFinished() {
+        ConfigurationEntity config = currentConfig;
+        if (finishedVendors.incrementAndGet() >= config.getNumberOfVendors()
+                && state.compareAndSet(SimulationState.RUNNING, SimulationState.DRAINING)) {
+            refreshSnapshot();
+            completeIfDrained();
+        }
+    }
+
+    /**
+     * Records that a customer has bought tickets. While DRAINING, the purchase that empties the pools completes the run.
+     */
+    void ticketsBought() {
+        if (state.get() == SimulationState.DRAINING) {
+            completeIfDrained();
+        }
+    }
+
+    private void completeIfDrained() {
+        if (!inventory.hasTickets() && state.compareAndSet(SimulationState.DRAINING, SimulationState.COMPLETED)) {
+            if (eventPublisher != null) eventPublisher.publish(eventTopic, SimulationEvent.soldOut());
+            refreshSnapshot();
+            completion.complete(SimulationState.COMPLETED);
+        }
+    }
+
+    /**
+     * Checks whether every vendor of the current run has released its whole allocation.
+     *
+     * @return true if no more tickets will be added to the pool
+     */
+    public boolean isSupplyExhausted() {
+        ConfigurationEntity config = currentConfig;
+        return config != null && finishedVendors.get() >= config.getNumberOfVendors();
+    }
+
+    public ConfigurationEntity getCurrentConfig() {
         return currentConfig;
     }
 
+    /**
+     * Gets the ID of the current or last run, which the sales ledger and the sales store record with
+     * every sale. Run IDs are unique across sessions and restarts.
+     *
+     * @return the run ID, or 0 before the first run
+     */
+    public long getRunID() {
+        return runID;
+    }
+
+    public String getSessionID() {
+        return sessionID;
+    }
+
+    public String getEventTopic() {
+        return eventTopic;
+    }
+
+    /**
+     * Gets the session's own pool, which sells the sample event of runs without events.
+     */
+    public TicketPool getTicketPool() {
+        return ticketPool;
+    }
+
+    /**
+     * Gets the pools of the events of the current run.
+     */
+    public EventInventory getInventory() {
+        return inventory;
+    }
+
+    public ThreadManager getThreadManager() {
+        return threadManager;
+    }
+
+    /**
+     * Gets the latency percentiles of the current run: how long tickets stay in the pool and
+     * how long customers wait for each purchase.
+     *
+     * @return the percentiles of both histograms, in milliseconds
+     */
+    public Map<String, Object> getLatencies() {
+        Map<String, Object> latencies = new LinkedHashMap<>();
+        latencies.put("timeInPool", ticketPool.getTimeInPool().snapshot());
+        latencies.put("purchaseLatency", ticketPool.getPurchaseLatency().snapshot());
+        return latencies;
+    }
+
     public void resetSystem() {
         finishedVendors.set(0);
-        ticketPool.resetTicketID();
-        ticketPool.resetTicketPool();
+        inventory.reset();
+        ticketPool.getTimeInPool().reset();
+        ticketPool.getPurchaseLatency().reset();
+        refreshSnapshot();
     }
 }
\ No newline at end of file
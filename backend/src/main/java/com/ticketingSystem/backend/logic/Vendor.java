@@ -1,17 +1,31 @@
 package com.ticketingSystem.backend.logic;
 
-import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-@Component
-public class Vendor implements Runnable {
+import java.util.concurrent.TimeUnit;
 
+public class Vendor implements Actor {
+
+    private static final Logger logger = LoggerFactory.getLogger(Vendor.class);
+
+    private final TicketingSystem ticketingSystem;
     private final TicketPool ticketPool;
     private int ticketReleaseRate;
     private int totalTickets;
     private int vendorID;
-    private int soldTicketCount = 0;
+    private int batchSize = 1;
+    private volatile int soldTicketCount = 0;  // Written only by the vendor's own thread, read by snapshots
 
-    public Vendor(TicketPool ticketPool) {
+    public Vendor(TicketingSystem ticketingSystem) {
+        this(ticketingSystem, ticketingSystem.getTicketPool());
+    }
+
+    /**
+     * Creates a vendor that releases tickets for the event of the given pool.
+     */
+    public Vendor(TicketingSystem ticketingSystem, TicketPool ticketPool) {
+        this.ticketingSystem = ticketingSystem;
         this.ticketPool = ticketPool;
     }
 
@@ -21,27 +35,67 @@ public class Vendor implements Runnable {
         this.vendorID = vendorID;
     }
 
+    /**
+     * Configures the vendor to release its tickets in blocks. Each block is added to the pool
+     * in one critical section; the last block shrinks to whatever allocation is left, and a block
+     * never asks for more room than the pool can offer in one place.
+     */
+    public void configure(int ticketReleaseRate, int totalTickets, int vendorID, int batchSize) {
+        configure(ticketReleaseRate, totalTickets, vendorID);
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
     @Override
     public void run() {
-        while (TicketingSystem.isRunning() && totalTickets > 0) {
-            boolean isSuccess = ticketPool.addTickets(vendorID);
-            if (isSuccess) {
-                totalTickets--;
-                soldTicketCount++;
-            }
-            if (totalTickets == 0) {
-                TicketingSystem.finishedVendors.incrementAndGet();
-            }
+        while (ticketingSystem.isRunning() && totalTickets > 0) {
             try {
-                Thread.sleep(ticketReleaseRate);
+                // Wait up to one release interval for room; a customer freeing a slot wakes the vendor at once
+                int batch = nextBatch();
+                boolean isSuccess = batch == 1
+                        ? ticketPool.put(vendorID, Math.max(ticketReleaseRate, 1), TimeUnit.MILLISECONDS)
+                        : ticketPool.put(vendorID, batch, Math.max(ticketReleaseRate, 1), TimeUnit.MILLISECONDS);
+                if (isSuccess) {
+                    released(batch);
+                    Thread.sleep(ticketReleaseRate);
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                System.out.println("Vendor interrupted. Vendor ID: " + vendorID);
+                logger.debug("Vendor interrupted. Vendor ID: {}", vendorID);
                 break;
             }
         }
     }
 
+    /**
+     * Tries once to release the next batch. When the pool is full the vendor comes back
+     * after one release interval instead of waiting for room.
+     */
+    @Override
+    public long step() {
+        if (!ticketingSystem.isRunning() || totalTickets <= 0) {
+            return DONE;
+        }
+        int batch = nextBatch();
+        boolean isSuccess = batch == 1 ? ticketPool.addTickets(vendorID) : ticketPool.addTickets(vendorID, batch);
+        if (!isSuccess) {
+            return Math.max(ticketReleaseRate, 1);
+        }
+        released(batch);
+        return totalTickets > 0 ? ticketReleaseRate : DONE;
+    }
+
+    private int nextBatch() {
+        return Math.max(Math.min(Math.min(batchSize, totalTickets), ticketPool.getMaxReleaseBatch()), 1);
+    }
+
+    private void released(int batch) {
+        totalTickets -= batch;
+        soldTicketCount += batch;
+        if (totalTickets == 0) {
+            ticketingSystem.vendorFinished();
+        }
+    }
+
     public int getSoldTicketCount() {
         return soldTicketCount;
     }
@@ -49,4 +103,4 @@ public class Vendor implements Runnable {
     public int getVendorID() {
         return vendorID;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package com.ticketingSystem.backend.logic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Waiting policy for one pool condition, such as "not empty" or "not full".
+ * Threads that change the pool call {@link #signalAll()} after every change, and
+ * threads waiting for that change call {@link #await(BooleanSupplier, long)}.
+ */
+abstract class WaitStrategy {
+
+    /** Passed as the timeout to wait without a deadline. */
+    static final long NO_TIMEOUT = Long.MAX_VALUE;
+
+    static WaitStrategy create(WaitStrategyType type) {
+        if (type == null) {
+            return new ParkWaitStrategy();
+        }
+        switch (type) {
+            case TIMED_PARK:
+                return new TimedParkWaitStrategy();
+            case YIELD_SPIN:
+                return new YieldSpinWaitStrategy();
+            case BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            default:
+                return new ParkWaitStrategy();
+        }
+    }
+
+    /**
+     * Waits until the condition holds or the timeout elapses.
+     *
+     * @param ready        the condition to wait for
+     * @param timeoutNanos the maximum time to wait, or {@link #NO_TIMEOUT}
+     * @return true if the condition was seen to hold, false if the timeout elapsed first
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    abstract boolean await(BooleanSupplier ready, long timeoutNanos) throws InterruptedException;
+
+    /**
+     * Wakes every thread waiting on this condition.
+     */
+    abstract void signalAll();
+
+    /**
+     * Spins, yields or parks between checks without any signalling.
+     */
+    private abstract static class PollingWaitStrategy extends WaitStrategy {
+
+        @Override
+        boolean await(BooleanSupplier ready, long timeoutNanos) throws InterruptedException {
+            long deadline = timeoutNanos == NO_TIMEOUT ? 0 : System.nanoTime() + timeoutNanos;
+            int attempt = 0;
+            while (!ready.getAsBoolean()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long remaining = timeoutNanos == NO_TIMEOUT ? NO_TIMEOUT : deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                idle(attempt++, remaining);
+            }
+            return true;
+        }
+
+        abstract void idle(int attempt, long remainingNanos);
+
+        @Override
+        void signalAll() {
+            // Waiters notice the change on their next check
+        }
+    }
+
+    private static final class BusySpinWaitStrategy extends PollingWaitStrategy {
+
+        @Override
+        void idle(int attempt, long remainingNanos) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class YieldSpinWaitStrategy extends PollingWaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        void idle(int attempt, long remainingNanos) {
+            if (attempt < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static final class TimedParkWaitStrategy extends PollingWaitStrategy {
+
+        private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+        @Override
+        void idle(int attempt, long remainingNanos) {
+            LockSupport.parkNanos(Math.min(remainingNanos, PARK_NANOS));
+        }
+    }
+
+    /**
+     * Blocks on a condition variable. Signalling only takes the lock when a thread is
+     * actually waiting, so pool operations pay a single volatile read otherwise.
+     */
+    private static final class ParkWaitStrategy extends WaitStrategy {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition condition = lock.newCondition();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        @Override
+        boolean await(BooleanSupplier ready, long timeoutNanos) throws InterruptedException {
+            if (ready.getAsBoolean()) {
+                return true;
+            }
+            // Register before re-checking, so a signaller that changes the pool afterwards sees us waiting
+            waiters.incrementAndGet();
+            try {
+                lock.lockInterruptibly();
+                try {
+                    long remaining = timeoutNanos;
+                    while (!ready.getAsBoolean()) {
+                        if (timeoutNanos == NO_TIMEOUT) {
+                            condition.await();
+                        } else {
+                            if (remaining <= 0) {
+                                return false;
+                            }
+                            remaining = condition.awaitNanos(remaining);
+                        }
+                    }
+                    return true;
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+
+        @Override
+        void signalAll() {
+            if (waiters.get() > 0) {
+                lock.lock();
+                try {
+                    condition.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ticketingSystem.backend.logic;
+
+/**
+ * The WaitStrategyType enum selects how vendors and customers wait on the {@link TicketPool}
+ * for room or for a ticket. Spinning strategies hand tickets over fastest but keep a core busy
+ * per waiting actor, so they only suit runs with fewer actors than cores.
+ */
+public enum WaitStrategyType {
+
+    /** Block on a condition until signalled. Lowest CPU use, wake-up costs a context switch. */
+    PARK,
+
+    /** Re-check after short timed parks, without any signalling between threads. */
+    TIMED_PARK,
+
+    /** Spin briefly, then yield the core between checks. */
+    YIELD_SPIN,
+
+    /** Spin on the CPU until the pool changes. Lowest latency. */
+    BUSY_SPIN
+}
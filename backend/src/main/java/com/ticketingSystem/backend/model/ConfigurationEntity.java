@@ -1,5 +1,8 @@
 package com.ticketingSystem.backend.model;
 
+import com.ticketingSystem.backend.logic.ExecutionMode;
+import com.ticketingSystem.backend.logic.PoolType;
+import com.ticketingSystem.backend.logic.WaitStrategyType;
 import jakarta.persistence.*;
 
 /**
@@ -33,6 +36,27 @@ public class ConfigurationEntity {
     @Column(name = "max_ticket_capacity")
     private int maxTicketCapacity;  // Maximum capacity of tickets in the pool
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "pool_type")
+    private PoolType poolType;  // Ticket pool implementation (LOCKED when not set)
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "execution_mode")
+    private ExecutionMode executionMode;  // How vendor and customer actors are run (PLATFORM when not set)
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "wait_strategy")
+    private WaitStrategyType waitStrategy;  // How actors wait on the pool for room or tickets (PARK when not set)
+
+    @Column(name = "vendor_batch_size")
+    private Integer vendorBatchSize;  // Tickets each vendor releases at once (1 when not set)
+
+    @Column(name = "customer_batch_size")
+    private Integer customerBatchSize;  // Tickets each customer buys at once (1 when not set)
+
+    @Column(name = "pool_shards")
+    private Integer poolShards;  // Shards of a SHARDED pool (one per core when not set)
+
     // Getters and setters for each field
     /**
      * Gets the unique identifier for the configuration record.
@@ -96,4 +120,61 @@ public class ConfigurationEntity {
     public int getMaxTicketCapacity() {
         return maxTicketCapacity;
     }
+
+    /**
+     * Gets the ticket pool implementation used by the simulation.
+     * Configurations saved before this setting existed use the locked pool.
+     *
+     * @return the pool type
+     */
+    public PoolType getPoolType() {
+        return poolType != null ? poolType : PoolType.LOCKED;
+    }
+
+    /**
+     * Gets how vendor and customer actors are run during the simulation.
+     * Configurations saved before this setting existed use platform threads.
+     *
+     * @return the execution mode
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode != null ? executionMode : ExecutionMode.PLATFORM;
+    }
+
+    /**
+     * Gets how vendors and customers wait on the ticket pool for room or for a ticket.
+     * Configurations saved before this setting existed block until signalled.
+     *
+     * @return the wait strategy
+     */
+    public WaitStrategyType getWaitStrategy() {
+        return waitStrategy != null ? waitStrategy : WaitStrategyType.PARK;
+    }
+
+    /**
+     * Gets the number of tickets each vendor releases to the pool at once.
+     *
+     * @return the vendor batch size, at least 1
+     */
+    public int getVendorBatchSize() {
+        return vendorBatchSize != null && vendorBatchSize > 0 ? vendorBatchSize : 1;
+    }
+
+    /**
+     * Gets the number of tickets each customer buys at once. A group is never split.
+     *
+     * @return the customer batch size, at least 1
+     */
+    public int getCustomerBatchSize() {
+        return customerBatchSize != null && customerBatchSize > 0 ? customerBatchSize : 1;
+    }
+
+    /**
+     * Gets the number of shards of a {@link PoolType#SHARDED} ticket pool.
+     *
+     * @return the shard count, or 0 for one shard per core
+     */
+    public int getPoolShards() {
+        return poolShards != null && poolShards > 0 ? poolShards : 0;
+    }
 }
@@ -0,0 +1,49 @@
+package com.ticketingSystem.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * The EventEntity class represents an event in the catalogue that tickets are sold for.
+ * A simulation started with several events gives each of them its own ticket pool.
+ */
+@Entity
+@Table(name = "event_entity")
+public class EventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Use IDENTITY for auto-incrementing
+    private Long id;  // Unique identifier for each event
+
+    @Column(name = "name", nullable = false)
+    private String name;  // Name printed on the event's tickets
+
+    @Column(name = "ticket_capacity")
+    private Integer ticketCapacity;  // Maximum tickets in the event's pool (the configuration's capacity when not set)
+
+    /**
+     * Gets the unique identifier of the event.
+     *
+     * @return the ID of the event
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the name of the event.
+     *
+     * @return the event name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the maximum number of tickets the event's pool holds at once.
+     *
+     * @return the capacity, or 0 to use the maximum ticket capacity of the configuration
+     */
+    public int getTicketCapacity() {
+        return ticketCapacity != null && ticketCapacity > 0 ? ticketCapacity : 0;
+    }
+}
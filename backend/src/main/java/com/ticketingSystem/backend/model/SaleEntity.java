@@ -0,0 +1,106 @@
+package com.ticketingSystem.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * The SaleEntity class represents one ticket sold, as written to the database in batches by
+ * the {@link com.ticketingSystem.backend.service.SalePersistenceService}.
+ */
+@Entity
+@Table(name = "sale_entity")
+public class SaleEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_seq")
+    @SequenceGenerator(name = "sale_seq", sequenceName = "sale_seq", allocationSize = 500) // IDENTITY would rule out batched inserts
+    private Long id;  // Unique identifier for each sale
+
+    @Column(name = "run_id", nullable = false)
+    private long runId;  // Run the ticket was sold in; ticket IDs start again in every run
+
+    @Column(name = "ticket_id", nullable = false)
+    private int ticketId;  // ID of the ticket within its event
+
+    @Column(name = "vendor_id", nullable = false)
+    private int vendorId;  // Vendor that released the ticket
+
+    @Column(name = "customer_id", nullable = false)
+    private int customerId;  // Customer that bought the ticket
+
+    @Column(name = "event_id", nullable = false)
+    private long eventId;  // Event the ticket is for, 0 for the sample event
+
+    @Column(name = "event_name")
+    private String eventName;  // Name printed on the ticket
+
+    @Column(name = "released_at", nullable = false)
+    private Instant releasedAt;  // When the vendor released the ticket
+
+    @Column(name = "sold_at", nullable = false)
+    private Instant soldAt;  // When the customer bought it
+
+    protected SaleEntity() {
+    }
+
+    /**
+     * Creates a sale that has not been written yet.
+     *
+     * @param runId      the run the ticket was sold in
+     * @param ticketId   the ID of the ticket within its event
+     * @param vendorId   the vendor that released the ticket
+     * @param customerId the customer that bought it
+     * @param eventId    the event the ticket is for, 0 for the sample event
+     * @param eventName  the name printed on the ticket
+     * @param releasedAt when the ticket was released
+     * @param soldAt     when the ticket was bought
+     */
+    public SaleEntity(long runId, int ticketId, int vendorId, int customerId, long eventId, String eventName,
+                      Instant releasedAt, Instant soldAt) {
+        this.runId = runId;
+        this.ticketId = ticketId;
+        this.vendorId = vendorId;
+        this.customerId = customerId;
+        this.eventId = eventId;
+        this.eventName = eventName;
+        this.releasedAt = releasedAt;
+        this.soldAt = soldAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public int getTicketId() {
+        return ticketId;
+    }
+
+    public int getVendorId() {
+        return vendorId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public Instant getReleasedAt() {
+        return releasedAt;
+    }
+
+    public Instant getSoldAt() {
+        return soldAt;
+    }
+}
@@ -1,9 +1,14 @@
 package com.ticketingSystem.backend.polling;
 
-import com.ticketingSystem.backend.logic.TicketPool;
+import com.ticketingSystem.backend.logic.SimulationSessionRegistry;
 import com.ticketingSystem.backend.logic.TicketingSystem;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -11,19 +16,42 @@ import java.util.Map;
 /**
  * The PollingController class exposes endpoints that allow clients to query the state of the ticketing system.
  * It provides information such as the current size of the ticket pool and whether the ticketing system is running.
+ * Clients that want to follow a run should subscribe to the /polling/stream Server-Sent Events
+ * stream instead of polling: it pushes every change at no extra cost per subscriber.
  */
 @RestController
 public class PollingController {
 
-    private final TicketPool ticketPool;
+    private final TicketingSystem ticketingSystem;
+    private final PollingService pollingService;
 
     /**
-     * Constructor that initializes the PollingController with a TicketPool instance.
+     * Constructor that initializes the PollingController with the default session.
      *
-     * @param ticketPool the TicketPool instance to interact with
+     * @param ticketingSystem the TicketingSystem of the default session
+     * @param pollingService  the service that samples the sessions for their streams
      */
-    public PollingController(TicketPool ticketPool) {
-        this.ticketPool = ticketPool;
+    public PollingController(TicketingSystem ticketingSystem, PollingService pollingService) {
+        this.ticketingSystem = ticketingSystem;
+        this.pollingService = pollingService;
+    }
+
+    /**
+     * Endpoint to stream the status of a session as Server-Sent Events. A "status" event with the
+     * run state, tickets in the pools, live vendors and customers, tickets released and sold, and
+     * tickets sold per second is sent on subscribing and then whenever it changes, at most once
+     * per ticketing.stream.interval-ms. Every subscriber of a session shares one sample.
+     *
+     * @param session the ID of the simulation session, the default session if not given
+     * @return the event stream, or a not found status if the session does not exist
+     */
+    @GetMapping(value = "/polling/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStatus(@RequestParam(defaultValue = SimulationSessionRegistry.DEFAULT_SESSION) String session) {
+        SseEmitter emitter = pollingService.subscribe(session);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(emitter);
     }
 
     /**
@@ -34,9 +62,9 @@ public class PollingController {
      */
     @GetMapping("/polling/poolSize")
     public Map<String, Integer> getPollingData() {
-        // Get the current pool size from the TicketPool
+        // Get the number of tickets in the pools of every event of the run, from the published snapshot
         String poolStatus = "Pool Size";
-        int poolSize = ticketPool.getPoolSize();
+        int poolSize = ticketingSystem.getSnapshot().getPoolSize();
 
         // Create a response map and add the pool size value
         Map<String, Integer> result = new HashMap<>();
@@ -52,6 +80,6 @@ public class PollingController {
      */
     @GetMapping("/polling/isRunning")
     public boolean isSystemRunning() {
-        return TicketingSystem.isRunning();
+        return ticketingSystem.getSnapshot().isRunning();
     }
 }
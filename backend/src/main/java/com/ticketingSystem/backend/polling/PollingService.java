@@ -1,36 +1,326 @@
 package com.ticketingSystem.backend.polling;
 
-import com.ticketingSystem.backend.logic.TicketPool;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketingSystem.backend.logic.EngineSnapshot;
+import com.ticketingSystem.backend.logic.SimulationSessionRegistry;
 import com.ticketingSystem.backend.logic.TicketingSystem;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.logging.Logger;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * The PollingService class performs periodic polling tasks to fetch and process data.
- * It runs a scheduled task that retrieves relevant system information and could be extended
- * to perform additional operations at regular intervals.
+ * The PollingService class samples the state of the simulation sessions at a fixed rate and pushes
+ * it to Server-Sent Events subscribers, replacing clients that poll the /polling endpoints.
+ * Samples are taken from each session's published {@link EngineSnapshot}, never from the engine itself.
+ * Each session that has subscribers is sampled once per interval, however many dashboards watch
+ * it, and the sample is serialized once and sent as the same bytes to all of them. A sample that
+ * has not changed since the last one is not sent again, so an idle run costs its subscribers
+ * nothing but a heartbeat comment now and then. The default session is always sampled.
+ *
+ * <p>Sampling never waits for a client. Each subscriber holds only the latest event not yet
+ * written to it, which a newer sample replaces, and a small pool of writer threads sends it, one
+ * write at a time per subscriber. A subscriber whose write has taken longer than the send time
+ * limit has fallen behind and is dropped; its stream is completed once the write returns, and
+ * the client can reconnect.</p>
  */
 @Service
 public class PollingService {
 
-    private static final Logger logger = Logger.getLogger(PollingService.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(PollingService.class);
 
-    private final TicketPool ticketPool;
+    private static final String STATUS_EVENT = "status";
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(15);
 
-    public PollingService(TicketPool ticketPool) {
-        this.ticketPool = ticketPool;
+    /** The subscribers of one session and what they were sent last. Guarded by itself. */
+    private static final class Channel {
+        final String sessionID;
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        volatile Map<String, Object> sample;
+        String json;
+        long ticketsSold;
+        long sampledAt;
+        long sentAt;
+
+        Channel(String sessionID) {
+            this.sessionID = sessionID;
+        }
     }
 
+    /** One stream and the latest event waiting to be written to it. */
+    private final class Subscriber implements Runnable {
+        final Channel channel;
+        final SseEmitter emitter;
+        final AtomicReference<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new AtomicReference<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile long writingSince;  // When the write in progress started, 0 if none
+        volatile boolean closed;
+
+        Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            pending.set(event);  // Replaces an older event that was not written yet
+            schedule();
+        }
+
+        /** Stops sending; the stream is completed on a writer thread, after any write in progress. */
+        void close() {
+            closed = true;
+            channel.subscribers.remove(this);
+            schedule();
+        }
+
+        boolean isBehind(long now) {
+            long since = writingSince;
+            return since != 0 && now - since > sendTimeLimitNanos;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    writer.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);  // Shutting down
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed && (event = pending.getAndSet(null)) != null) {
+                    writingSince = System.nanoTime();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // The client went away; the container completes the request with the error
+                        closed = true;
+                        channel.subscribers.remove(this);
+                        return;
+                    } finally {
+                        writingSince = 0;
+                    }
+                }
+                if (closed) {
+                    emitter.complete();
+                    return;
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            if (pending.get() != null) {
+                schedule();  // Offered while this pass was finishing
+            }
+        }
+    }
+
+    private final SimulationSessionRegistry sessions;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+    private final long sendTimeLimitNanos;
+    private final ExecutorService writer;
+    private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final LongAdder droppedSubscribers = new LongAdder();
+
     /**
-     * Scheduled method that runs every 1 second to fetch the current state of the ticket pool
-     * and whether the ticketing system is running.
-     * This method can be extended for additional periodic operations.
+     * Creates the service.
+     *
+     * @param sessions             the registry of the sessions that can be watched
+     * @param objectMapper         the mapper samples are serialized with
+     * @param emitterTimeoutMillis how long a stream stays open before the client has to reconnect, in milliseconds
+     * @param sendTimeLimitMillis  how long writing one event to a client may take before it is dropped, in milliseconds
+     * @param writerThreads        the number of threads writing to the streams
      */
-    @Scheduled(fixedRate = 1000) // Poll every 1 second
+    public PollingService(SimulationSessionRegistry sessions, ObjectMapper objectMapper,
+                          @Value("${ticketing.stream.timeout-ms:1800000}") long emitterTimeoutMillis,
+                          @Value("${ticketing.stream.send-time-limit-ms:10000}") long sendTimeLimitMillis,
+                          @Value("${ticketing.stream.writer-threads:2}") int writerThreads) {
+        this.sessions = sessions;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(sendTimeLimitMillis, 1));
+        AtomicInteger threads = new AtomicInteger();
+        this.writer = Executors.newFixedThreadPool(Math.max(writerThreads, 1), task -> {
+            Thread thread = new Thread(task, "status-stream-writer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        channels.put(SimulationSessionRegistry.DEFAULT_SESSION, new Channel(SimulationSessionRegistry.DEFAULT_SESSION));
+    }
+
+    /**
+     * Opens a stream of status events for a session. The latest sample is sent straight away,
+     * then every change, at most once per sampling interval.
+     *
+     * @param sessionID the ID of the session to watch
+     * @return the stream, or null if the session does not exist
+     */
+    public SseEmitter subscribe(String sessionID) {
+        TicketingSystem session = sessions.get(sessionID);
+        if (session == null) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        while (true) {
+            Channel channel = channels.computeIfAbsent(session.getSessionID(), Channel::new);
+            synchronized (channel) {
+                if (channels.get(channel.sessionID) != channel) {
+                    continue; // Discarded by the sampler in the meantime
+                }
+                Subscriber subscriber = new Subscriber(channel, emitter);
+                emitter.onCompletion(() -> channel.subscribers.remove(subscriber));
+                emitter.onTimeout(() -> channel.subscribers.remove(subscriber));
+                emitter.onError(error -> channel.subscribers.remove(subscriber));
+                channel.subscribers.add(subscriber);
+                if (channel.json == null) {
+                    sample(channel, session);
+                }
+                subscriber.offer(statusEvent(channel.json));
+                return emitter;
+            }
+        }
+    }
+
+    /**
+     * Scheduled method that samples every watched session once per interval and hands each
+     * sample that changed to the session's subscribers, dropping those that fell behind.
+     */
+    @Scheduled(fixedRateString = "${ticketing.stream.interval-ms:500}")
     public void fetchData() {
-        int poolSize = ticketPool.getPoolSize();
-        boolean isSystemRunning = TicketingSystem.isRunning();
+        for (Channel channel : channels.values()) {
+            TicketingSystem session = sessions.get(channel.sessionID);
+            boolean isDefault = SimulationSessionRegistry.DEFAULT_SESSION.equals(channel.sessionID);
+            synchronized (channel) {
+                if (session == null || (!isDefault && channel.subscribers.isEmpty())) {
+                    // The session was removed, or nobody watches it any more
+                    channels.remove(channel.sessionID, channel);
+                    channel.subscribers.forEach(Subscriber::close);
+                    continue;
+                }
+                dropSubscribersBehind(channel);
+                String previous = channel.json;
+                sample(channel, session);
+                long now = System.nanoTime();
+                if (!channel.json.equals(previous)) {
+                    broadcast(channel, statusEvent(channel.json), now);
+                } else if (now - channel.sentAt >= HEARTBEAT_NANOS) {
+                    broadcast(channel, SseEmitter.event().comment("heartbeat").build(), now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the latest sample of a session without touching the engine.
+     *
+     * @param sessionID the ID of the session
+     * @return the latest sample, or null if the session is not being sampled
+     */
+    public Map<String, Object> getLatestSample(String sessionID) {
+        Channel channel = channels.get(sessionID);
+        return channel != null ? channel.sample : null;
+    }
+
+    /**
+     * Gets the number of open streams over all sessions.
+     */
+    public int getSubscriberCount() {
+        int subscribers = 0;
+        for (Channel channel : channels.values()) {
+            subscribers += channel.subscribers.size();
+        }
+        return subscribers;
+    }
+
+    /**
+     * Gets the number of streams dropped because a write to them took longer than the send time limit.
+     */
+    public long getDroppedSubscribers() {
+        return droppedSubscribers.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+    }
+
+    private void dropSubscribersBehind(Channel channel) {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : channel.subscribers) {
+            if (subscriber.isBehind(now)) {
+                subscriber.close();
+                droppedSubscribers.increment();
+                logger.info("Dropped a status stream of session {} that fell behind", channel.sessionID);
+            }
+        }
+    }
+
+    private void sample(Channel channel, TicketingSystem session) {
+        EngineSnapshot snapshot = session.getSnapshot();
+        long ticketsSold = snapshot.getTicketsSold();
+        double throughput = 0;  // Idle sessions are not snapshotted again, so no new snapshot means no sales
+        if (channel.sampledAt != 0 && snapshot.getTakenAtNanos() > channel.sampledAt) {
+            double perSecond = (ticketsSold - channel.ticketsSold) * 1e9 / (snapshot.getTakenAtNanos() - channel.sampledAt);
+            throughput = Math.round(perSecond * 10) / 10.0;
+        }
+        channel.ticketsSold = ticketsSold;
+        channel.sampledAt = snapshot.getTakenAtNanos();
+
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("sessionId", snapshot.getSessionId());
+        sample.put("state", snapshot.getState().name());
+        sample.put("running", snapshot.isRunning());
+        sample.put("poolSize", snapshot.getPoolSize());
+        sample.put("capacity", snapshot.getCapacity());
+        sample.put("liveVendors", snapshot.getLiveVendors());
+        sample.put("liveCustomers", snapshot.getLiveCustomers());
+        sample.put("ticketsReleased", snapshot.getTicketsReleased());
+        sample.put("ticketsSold", ticketsSold);
+        sample.put("ticketsSoldPerSecond", throughput);
+        channel.sample = sample;
+        try {
+            channel.json = objectMapper.writeValueAsString(sample);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize the status of session {}: {}", channel.sessionID, e.getMessage());
+            channel.json = "{}";
+        }
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> statusEvent(String json) {
+        return SseEmitter.event().name(STATUS_EVENT).data(json, MediaType.APPLICATION_JSON).build();
+    }
+
+    private static void broadcast(Channel channel, Set<ResponseBodyEmitter.DataWithMediaType> event, long now) {
+        for (Subscriber subscriber : channel.subscribers) {
+            subscriber.offer(event);
+        }
+        channel.sentAt = now;
     }
 }
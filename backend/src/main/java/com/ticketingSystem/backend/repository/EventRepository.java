@@ -0,0 +1,9 @@
+package com.ticketingSystem.backend.repository;
+
+import com.ticketingSystem.backend.model.EventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EventRepository extends JpaRepository<EventEntity, Long> {
+}
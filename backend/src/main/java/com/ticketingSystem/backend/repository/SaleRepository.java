@@ -0,0 +1,11 @@
+package com.ticketingSystem.backend.repository;
+
+import com.ticketingSystem.backend.model.SaleEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SaleRepository extends JpaRepository<SaleEntity, Long> {
+
+    long countByEventId(long eventId);
+}
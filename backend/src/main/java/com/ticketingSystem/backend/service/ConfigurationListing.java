@@ -0,0 +1,71 @@
+package com.ticketingSystem.backend.service;
+
+import com.ticketingSystem.backend.model.ConfigurationEntity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of every configuration, ordered by ID, as cached by the
+ * {@link ConfigurationService}. It carries an entity tag of its content, so that clients
+ * polling the list can be answered with a not modified status, and the version of the
+ * configurations it was read at, from which the service can report later changes.
+ */
+public final class ConfigurationListing {
+
+    private final List<ConfigurationEntity> configurations;
+    private final long[] ids;
+    private final String etag;
+    private final long version;
+
+    /**
+     * Creates a listing.
+     *
+     * @param configurations every configuration, ordered by ID
+     * @param etag           the entity tag of the configurations' content
+     * @param version        the version of the configurations the listing was read at
+     */
+    ConfigurationListing(List<ConfigurationEntity> configurations, String etag, long version) {
+        this.configurations = Collections.unmodifiableList(configurations);
+        this.ids = configurations.stream().mapToLong(ConfigurationEntity::getId).toArray();
+        this.etag = etag;
+        this.version = version;
+    }
+
+    public List<ConfigurationEntity> getConfigurations() {
+        return configurations;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets one page of the listing by keyset: the configurations with an ID above the given one.
+     * Unlike offset pages, a page stays correct when configurations before it are added or deleted.
+     *
+     * @param afterId the ID of the last configuration of the previous page, 0 for the first page
+     * @param limit   the maximum number of configurations on the page
+     * @return the configurations of the page, in ID order
+     */
+    public List<ConfigurationEntity> getPage(long afterId, int limit) {
+        int index = Arrays.binarySearch(ids, afterId);
+        int from = index >= 0 ? index + 1 : -index - 1;
+        return configurations.subList(from, Math.min(from + Math.max(limit, 0), ids.length));
+    }
+
+    /**
+     * Checks whether there are configurations after the given ID.
+     *
+     * @param afterId the ID of the last configuration of a page
+     * @return true if a later page has configurations
+     */
+    public boolean hasMoreAfter(long afterId) {
+        return ids.length > 0 && ids[ids.length - 1] > afterId;
+    }
+}
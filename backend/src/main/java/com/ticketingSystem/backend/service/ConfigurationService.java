@@ -1,30 +1,95 @@
 package com.ticketingSystem.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.ticketingSystem.backend.model.ConfigurationEntity;
 import com.ticketingSystem.backend.repository.ConfigurationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32C;
 
 /**
  * Service class responsible for handling operations related to {@link ConfigurationEntity}.
  * It provides methods to create, update, retrieve, and delete configurations.
+ *
+ * <p>Reads are served from an in-process read-through cache, so that dashboards polling the
+ * configuration list and simulations starting from a configuration do not query the database
+ * every time. Configurations are cached by ID, including IDs that do not exist, and the full list
+ * is cached as one entry. Entries expire after a while and the least used are evicted beyond the
+ * maximum size; saving or deleting a configuration through this service updates the cache at once.
+ * Configurations are shared between callers and must not be modified.</p>
+ *
+ * <p>Every save and delete through this service moves the configurations to a new version.
+ * The last changes are kept in a bounded log, so that a client that has seen one version can
+ * ask for just what changed since. Versions start from the startup time in milliseconds, so a
+ * version from before a restart is older than the log and gets the full list instead.</p>
  */
 @Service
 public class ConfigurationService {
 
+    private static final String ALL = "all";
+    private static final int MAX_CHANGES = 1024;
+
+    private static final class Change {
+        final long version;
+        final Long id;
+
+        Change(long version, Long id) {
+            this.version = version;
+            this.id = id;
+        }
+    }
+
     private final ConfigurationRepository configurationRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Optional<ConfigurationEntity>> configurations;
+    private final Cache<String, ConfigurationListing> configurationLists;
+
+    private final Deque<Change> changes = new ArrayDeque<>();  // Oldest first, guarded by itself
+    private long version = System.currentTimeMillis();
+    private long oldestKnownVersion = version;  // Changes after this version are all in the log
 
     /**
      * Constructor that initializes the ConfigurationService with the given {@link ConfigurationRepository}.
      *
      * @param configurationRepository the repository to interact with {@link ConfigurationEntity} entities
+     * @param objectMapper            the mapper the configurations are sent to clients with, for their entity tags
+     * @param maximumSize             the maximum number of configurations kept in the cache
+     * @param expireAfterWriteMillis  how long a cached read is served before the database is asked again, in milliseconds
      */
     @Autowired
-    public ConfigurationService(ConfigurationRepository configurationRepository) {
+    public ConfigurationService(ConfigurationRepository configurationRepository, ObjectMapper objectMapper,
+                                @Value("${ticketing.configs.cache.maximum-size:1000}") long maximumSize,
+                                @Value("${ticketing.configs.cache.expire-after-write-ms:60000}") long expireAfterWriteMillis) {
         this.configurationRepository = configurationRepository;
+        this.objectMapper = objectMapper;
+        Duration expiry = Duration.ofMillis(Math.max(expireAfterWriteMillis, 1));
+        this.configurations = Caffeine.newBuilder()
+                .maximumSize(Math.max(maximumSize, 1))
+                .expireAfterWrite(expiry)
+                .recordStats()
+                .build();
+        this.configurationLists = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(expiry)
+                .recordStats()
+                .build();
     }
 
     /**
@@ -37,7 +102,10 @@ public class ConfigurationService {
      */
     public ConfigurationEntity saveConfiguration(ConfigurationEntity configuration) {
         validateConfiguration(configuration); // Optional validation logic
-        return configurationRepository.save(configuration);
+        ConfigurationEntity saved = configurationRepository.save(configuration);
+        configurations.put(saved.getId(), Optional.of(saved));
+        recordChange(saved.getId());
+        return saved;
     }
 
     /**
@@ -46,7 +114,100 @@ public class ConfigurationService {
      * @return a list of all {@link ConfigurationEntity} objects
      */
     public List<ConfigurationEntity> getAllConfigurations() {
-        return configurationRepository.findAll();
+        return getListing().getConfigurations();
+    }
+
+    /**
+     * Retrieves every {@link ConfigurationEntity} ordered by ID, with the entity tag and version
+     * of the list, for paging through it and answering conditional requests.
+     *
+     * @return the cached listing of all configurations
+     */
+    public ConfigurationListing getListing() {
+        return configurationLists.get(ALL, key -> loadListing());
+    }
+
+    private ConfigurationListing loadListing() {
+        // Read the version first: a change racing the query is then reported again as a later change
+        long listedVersion = getVersion();
+        List<ConfigurationEntity> all = configurationRepository.findAll(Sort.by("id"));
+        try {
+            CRC32C checksum = new CRC32C();
+            checksum.update(objectMapper.writeValueAsBytes(all));
+            return new ConfigurationListing(all, Long.toHexString(checksum.getValue()) + "-" + all.size(), listedVersion);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the current version of the configurations.
+     */
+    public long getVersion() {
+        synchronized (changes) {
+            return version;
+        }
+    }
+
+    /**
+     * Gets the configurations saved or deleted since a version.
+     *
+     * @param since a version the client has seen, e.g. from a listing or an earlier call
+     * @return the current version; either "full": false with the configurations saved since, in their
+     *         current state, and the IDs deleted since, or "full": true with every configuration when
+     *         the version is too old or unknown
+     */
+    public Map<String, Object> getChangesSince(long since) {
+        Set<Long> changedIds = new LinkedHashSet<>();
+        long current;
+        boolean full;
+        synchronized (changes) {
+            current = version;
+            full = since < oldestKnownVersion || since > current;
+            if (!full) {
+                for (Change change : changes) {
+                    if (change.version > since) {
+                        changedIds.add(change.id);
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (full) {
+            ConfigurationListing listing = getListing();
+            result.put("version", listing.getVersion());
+            result.put("full", true);
+            result.put("configurations", listing.getConfigurations());
+            result.put("deleted", List.of());
+            return result;
+        }
+        List<ConfigurationEntity> saved = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (Long id : changedIds) {
+            Optional<ConfigurationEntity> configuration = getConfigurationById(id);
+            if (configuration.isPresent()) {
+                saved.add(configuration.get());
+            } else {
+                deleted.add(id);
+            }
+        }
+        result.put("version", current);
+        result.put("full", false);
+        result.put("configurations", saved);
+        result.put("deleted", deleted);
+        return result;
+    }
+
+    private void recordChange(Long id) {
+        synchronized (changes) {
+            version++;
+            changes.addLast(new Change(version, id));
+            if (changes.size() > MAX_CHANGES) {
+                oldestKnownVersion = changes.removeFirst().version;
+            }
+        }
+        configurationLists.invalidate(ALL); // Waits for a listing being loaded, so no stale listing stays cached
     }
 
     /**
@@ -56,7 +217,17 @@ public class ConfigurationService {
      * @return an {@link Optional} containing the found configuration or an empty {@link Optional} if not found
      */
     public Optional<ConfigurationEntity> getConfigurationById(Long id) {
-        return configurationRepository.findById(id);
+        return configurations.get(id, configurationRepository::findById);
+    }
+
+    /**
+     * Checks whether a {@link ConfigurationEntity} with the given ID exists.
+     *
+     * @param id the ID of the configuration entity
+     * @return true if it exists, false otherwise
+     */
+    public boolean existsById(Long id) {
+        return getConfigurationById(id).isPresent();
     }
 
     /**
@@ -65,7 +236,26 @@ public class ConfigurationService {
      * @param id the ID of the configuration entity to delete
      */
     public void deleteConfigurationById(Long id) {
-        configurationRepository.deleteById(id);
+        try {
+            configurationRepository.deleteById(id);
+        } finally {
+            configurations.invalidate(id);
+            recordChange(id);
+        }
+    }
+
+    /**
+     * Gets the cache of configurations by ID, for its hit and miss statistics.
+     */
+    public Cache<Long, Optional<ConfigurationEntity>> getConfigurationCache() {
+        return configurations;
+    }
+
+    /**
+     * Gets the cache of the configuration list, for its hit and miss statistics.
+     */
+    public Cache<String, ConfigurationListing> getConfigurationListCache() {
+        return configurationLists;
     }
 
     /**
@@ -0,0 +1,276 @@
+package com.ticketingSystem.backend.service;
+
+import com.ticketingSystem.backend.logic.LatencyHistogram;
+import com.ticketingSystem.backend.logic.SaleRecorder;
+import com.ticketingSystem.backend.logic.Ticket;
+import com.ticketingSystem.backend.model.SaleEntity;
+import com.ticketingSystem.backend.repository.SaleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class that writes every ticket sold to the database as a {@link SaleEntity}, behind
+ * the simulation rather than in its way. Customers only put the sale into a bounded buffer; a
+ * single writer thread takes the sales out in batches and saves each batch in one transaction,
+ * which Hibernate sends as JDBC batch inserts (see hibernate.jdbc.batch_size in
+ * application.properties). A batch is written once it holds batch-size sales or once the oldest
+ * sale in it has waited flush-interval-ms, whichever comes first.
+ *
+ * <p>Every sale gets into the buffer: the ticket pool reserves room for a purchase before it takes
+ * the tickets (see {@link SaleRecorder#tryReserve(int)}). When the database falls behind and the
+ * buffer fills up, the purchase is pushed back instead. A customer on its own thread waits for
+ * room, and a pooled actor's step leaves the tickets in the pool and comes back later, so the
+ * simulation slows down to what the database can take. Once the service is shut down it takes
+ * no more purchases, and it writes the ones it has taken before its writer stops. A sale is only
+ * lost if its batch cannot be written, and is then counted as dropped.
+ * Set ticketing.persistence.enabled=false to run without the sales table.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "ticketing.persistence.enabled", havingValue = "true", matchIfMissing = true)
+public class SalePersistenceService implements SaleRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalePersistenceService.class);
+
+    private final SaleRepository saleRepository;
+    private final BlockingQueue<SaleEntity> buffer;
+    private final Semaphore room;  // Free places in the buffer, less the ones reserved for purchases under way
+    private final int bufferCapacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder stalls = new LongAdder();       // Purchases that found the buffer full
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor that initializes the service and starts its writer thread.
+     *
+     * @param saleRepository     the repository the sales are saved through
+     * @param bufferCapacity     the maximum number of sales waiting to be written
+     * @param batchSize          the maximum number of sales written in one transaction
+     * @param flushIntervalMillis how long a sale waits at most for its batch to fill up, in milliseconds
+     */
+    @Autowired
+    public SalePersistenceService(SaleRepository saleRepository,
+                                  @Value("${ticketing.persistence.buffer-capacity:65536}") int bufferCapacity,
+                                  @Value("${ticketing.persistence.batch-size:500}") int batchSize,
+                                  @Value("${ticketing.persistence.flush-interval-ms:200}") long flushIntervalMillis) {
+        this.saleRepository = saleRepository;
+        this.bufferCapacity = Math.max(bufferCapacity, 1);
+        this.buffer = new ArrayBlockingQueue<>(this.bufferCapacity);
+        this.room = new Semaphore(this.bufferCapacity);
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(flushIntervalMillis, 1));
+
+        this.writer = new Thread(this::writeLoop, "sale-persistence-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Reserves places in the buffer for a purchase, unless the buffer is full or the service is shut down.
+     * A group larger than the whole buffer never gets room, so buffer-capacity must be at least the
+     * largest group a customer buys.
+     */
+    @Override
+    public boolean tryReserve(int count) {
+        if (!running) {
+            return false;
+        }
+        if (room.tryAcquire(count)) {
+            return true;
+        }
+        stalls.increment();
+        return false;
+    }
+
+    /**
+     * Reserves places in the buffer for a purchase, waiting up to the given time for the writer to
+     * make room. Gives up at once when the service is shut down.
+     */
+    @Override
+    public boolean reserve(int count, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!running) {
+            return false;
+        }
+        if (room.tryAcquire(count)) {
+            return true;
+        }
+        stalls.increment();
+        long timeoutNanos = unit.toNanos(timeout);
+        long start = System.nanoTime();
+        while (running) {
+            long remaining = timeoutNanos - (System.nanoTime() - start);
+            if (remaining <= 0) {
+                return false;
+            }
+            // Wake up now and then to notice a shutdown
+            if (room.tryAcquire(count, Math.min(remaining, flushIntervalNanos), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void release(int count) {
+        room.release(count);
+    }
+
+    @Override
+    public void recordSale(long runID, int customerID, long eventID, Ticket ticket) {
+        enqueue(toEntity(runID, customerID, eventID, ticket, System.currentTimeMillis(), System.nanoTime()));
+    }
+
+    @Override
+    public void recordSales(long runID, int customerID, long eventID, Ticket[] tickets) {
+        long soldAt = System.currentTimeMillis();
+        long now = System.nanoTime();
+        for (Ticket ticket : tickets) {
+            enqueue(toEntity(runID, customerID, eventID, ticket, soldAt, now));
+        }
+    }
+
+    private static SaleEntity toEntity(long runID, int customerID, long eventID, Ticket ticket, long soldAt, long now) {
+        long releasedAt = soldAt - TimeUnit.NANOSECONDS.toMillis(now - ticket.getCreatedAt());
+        return new SaleEntity(runID, ticket.getTicketID(), ticket.getVendorID(), customerID, eventID,
+                ticket.getTicketName(), Instant.ofEpochMilli(releasedAt), Instant.ofEpochMilli(soldAt));
+    }
+
+    // The place was reserved, so the buffer has room; a sale recorded without a reservation may not
+    private void enqueue(SaleEntity sale) {
+        if (!buffer.offer(sale)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Takes batches out of the buffer and writes them until the service is shut down and every
+     * purchase it has taken is written.
+     */
+    private void writeLoop() {
+        List<SaleEntity> batch = new ArrayList<>(batchSize);
+        while (running || room.availablePermits() < bufferCapacity) {
+            try {
+                SaleEntity first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    SaleEntity next = remaining > 0 && running ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false; // Write what was taken, then drain the rest
+            }
+            if (!batch.isEmpty()) {
+                room.release(batch.size());
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<SaleEntity> batch) {
+        long start = System.nanoTime();
+        try {
+            saleRepository.saveAll(batch);
+            persisted.add(batch.size());
+        } catch (RuntimeException e) {
+            dropped.add(batch.size());
+            logger.warn("Could not write {} sales: {}", batch.size(), e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            flushes.increment();
+            flushNanos.add(elapsed);
+            flushLatency.record(elapsed);
+        }
+    }
+
+    /**
+     * Stops taking purchases, writes every sale still in the buffer or reserved and stops the writer thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writer.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getPersistedSales() {
+        return persisted.sum();
+    }
+
+    public long getDroppedSales() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the number of purchases that found the buffer full and were pushed back.
+     */
+    public long getStalls() {
+        return stalls.sum();
+    }
+
+    public int getQueuedSales() {
+        return buffer.size();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    public long getFlushNanos() {
+        return flushNanos.sum();
+    }
+
+    /**
+     * Describes the write-behind stage.
+     *
+     * @return the sales persisted, dropped and queued, the buffer stalls, and the flush latency percentiles
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("persisted", getPersistedSales());
+        description.put("dropped", getDroppedSales());
+        description.put("queued", getQueuedSales());
+        description.put("stalls", getStalls());
+        description.put("flushes", getFlushes());
+        description.put("flushLatency", flushLatency.snapshot());
+        return description;
+    }
+}
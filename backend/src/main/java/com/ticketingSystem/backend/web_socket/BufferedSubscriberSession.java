@@ -0,0 +1,291 @@
+package com.ticketingSystem.backend.web_socket;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A WebSocket session with its own bounded outbound buffer. Sending a message only puts it into
+ * the buffer and returns, so the threads of the outbound channel never wait for a client; the
+ * buffer is written to the client by one writer task at a time, on a thread of its own. When a
+ * client reads too slowly and its buffer goes over its message or byte limit, the
+ * {@link SlowSubscriberPolicy} decides which messages it loses, and a client that has not taken
+ * a single message for send-time-limit is disconnected. Either way only that client falls
+ * behind: every other client, and the broadcast as a whole, keep their pace.
+ *
+ * <p>Only MESSAGE frames of ticket and pool events can be lost. A message carrying control
+ * events (status messages, the sold-out notice, the summary) is sent with the
+ * {@value #CONTROL_HEADER} header and is never discarded, so a client always sees a run end.
+ * Only messages sent with the {@value #SNAPSHOT_HEADER} header carry a whole state and can be
+ * conflated; event batches are deltas and are only ever dropped.</p>
+ */
+public class BufferedSubscriberSession extends WebSocketSessionDecorator {
+
+    /** STOMP header, set to "true", of messages that carry control events and must not be lost. */
+    public static final String CONTROL_HEADER = "control";
+
+    /** STOMP header, set to "true", of messages that carry a whole state, so only the latest one matters. */
+    public static final String SNAPSHOT_HEADER = "snapshot";
+
+    private static final int MAX_HEADER_BYTES = 1024; // Of a binary frame, to find its subscription
+
+    /** A buffered frame, the subscription it belongs to and what may be done with it on overflow. */
+    private static final class Frame {
+        final WebSocketMessage<?> message;
+        final String subscription;
+        final boolean sheddable;     // A MESSAGE frame without control events
+        final boolean conflatable;   // A sheddable state snapshot
+        final int size;
+
+        Frame(WebSocketMessage<?> message) {
+            String headers = headersOf(message);
+            this.message = message;
+            this.subscription = headers != null ? header(headers, "subscription") : null;
+            this.sheddable = subscription != null && !"true".equals(header(headers, CONTROL_HEADER));
+            this.conflatable = sheddable && "true".equals(header(headers, SNAPSHOT_HEADER));
+            this.size = message.getPayloadLength();
+        }
+    }
+
+    private final SubscriberBufferDecoratorFactory buffers;
+    private final Executor writer;
+    private final SlowSubscriberPolicy policy;
+    private final int messageLimit;
+    private final int byteLimit;
+    private final long sendTimeLimitNanos;
+
+    private final Object lock = new Object();
+    private final Deque<Frame> buffer = new ArrayDeque<>();   // Guarded by lock
+    private int bufferedBytes;                                 // Guarded by lock
+    private boolean writing;                                   // Guarded by lock: a writer task is scheduled or running
+    private long sendStartedAt;                                // Guarded by lock: 0 unless the client is being written to
+    private boolean closed;                                    // Guarded by lock
+
+    /**
+     * Creates the session.
+     *
+     * @param session            the session of the client
+     * @param buffers            the factory keeping the totals over all clients
+     * @param writer             the executor the buffer is written to the client on
+     * @param policy             what to discard when the buffer is over its limits
+     * @param messageLimit       the maximum number of buffered messages
+     * @param byteLimit          the maximum number of buffered payload bytes
+     * @param sendTimeLimitMillis how long writing one message may take before the client is disconnected
+     */
+    BufferedSubscriberSession(WebSocketSession session, SubscriberBufferDecoratorFactory buffers, Executor writer,
+                              SlowSubscriberPolicy policy, int messageLimit, int byteLimit, long sendTimeLimitMillis) {
+        super(session);
+        this.buffers = buffers;
+        this.writer = writer;
+        this.policy = policy;
+        this.messageLimit = Math.max(messageLimit, 1);
+        this.byteLimit = Math.max(byteLimit, 1);
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(sendTimeLimitMillis, 1));
+    }
+
+    /**
+     * Buffers a message for the client and makes sure a writer task is on its way.
+     *
+     * @throws SessionLimitExceededException if the client has been stuck on one message for longer than the
+     *                                       send time limit; the caller closes the session with its status
+     */
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        Frame frame = new Frame(message);
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            if (isStuck(System.nanoTime())) {
+                discard();
+                buffers.sessionTerminated();
+                throw new SessionLimitExceededException("Message not taken by the client for "
+                        + TimeUnit.NANOSECONDS.toMillis(sendTimeLimitNanos) + " ms", CloseStatus.SESSION_NOT_RELIABLE);
+            }
+            buffer.addLast(frame);
+            bufferedBytes += frame.size;
+            if (buffer.size() > messageLimit || bufferedBytes > byteLimit) {
+                shed();
+            }
+            if (writing) {
+                return;
+            }
+            writing = true;
+        }
+        writer.execute(this::writeBuffer);
+    }
+
+    /**
+     * Brings the buffer back within its limits according to the policy. Called with the lock held.
+     */
+    private void shed() {
+        if (policy == SlowSubscriberPolicy.CONFLATE) {
+            Set<String> latest = new HashSet<>();
+            for (Iterator<Frame> frames = buffer.descendingIterator(); frames.hasNext(); ) {
+                Frame frame = frames.next();
+                if (frame.conflatable && !latest.add(frame.subscription)) {
+                    frames.remove();  // A later message of the same subscription is buffered
+                    bufferedBytes -= frame.size;
+                    buffers.messageConflated();
+                }
+            }
+        }
+        Frame newest = buffer.peekLast();
+        for (Iterator<Frame> frames = buffer.iterator(); frames.hasNext()
+                && (buffer.size() > messageLimit || bufferedBytes > byteLimit); ) {
+            Frame frame = frames.next();
+            if (frame.sheddable && frame != newest) {
+                frames.remove();
+                bufferedBytes -= frame.size;
+                buffers.messageDropped();
+            }
+        }
+    }
+
+    /**
+     * Writes the buffer to the client until it is empty. Only one writer task runs at a time.
+     */
+    private void writeBuffer() {
+        while (true) {
+            Frame frame;
+            synchronized (lock) {
+                frame = buffer.pollFirst();
+                if (frame == null || closed) {
+                    writing = false;
+                    return;
+                }
+                bufferedBytes -= frame.size;
+                sendStartedAt = System.nanoTime();
+            }
+            try {
+                getDelegate().sendMessage(frame.message);
+                buffers.messageSent();
+            } catch (IOException | RuntimeException e) {
+                // The client went away; the transport reports the closed connection
+                synchronized (lock) {
+                    discard();
+                    writing = false;
+                }
+                return;
+            } finally {
+                synchronized (lock) {
+                    sendStartedAt = 0;
+                }
+            }
+        }
+    }
+
+    /** Called with the lock held. */
+    private boolean isStuck(long now) {
+        return sendStartedAt != 0 && now - sendStartedAt > sendTimeLimitNanos;
+    }
+
+    /**
+     * Disconnects the client if it has been stuck on one message for longer than the send time
+     * limit. The factory checks every client this way at a fixed rate, so a stuck client is
+     * disconnected even when nothing more is sent to it, and the close ends the stuck write.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return true if the client was disconnected
+     */
+    boolean closeIfStuck(long now) {
+        synchronized (lock) {
+            if (closed || !isStuck(now)) {
+                return false;
+            }
+            discard();
+        }
+        buffers.sessionTerminated();
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException | RuntimeException e) {
+            // The connection is going away already
+        }
+        return true;
+    }
+
+    /**
+     * Discards the buffer when the client disconnects.
+     */
+    void release() {
+        synchronized (lock) {
+            discard();
+        }
+    }
+
+    /** Called with the lock held. */
+    private void discard() {
+        closed = true;
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    /**
+     * Gets the number of messages waiting to be written to the client.
+     */
+    public int getBufferedMessages() {
+        synchronized (lock) {
+            return buffer.size();
+        }
+    }
+
+    /**
+     * Finds the subscription a STOMP MESSAGE frame is sent to.
+     *
+     * @param message a frame as sent to the client
+     * @return the value of the subscription header, or null if the frame is not a MESSAGE frame
+     */
+    static String subscriptionOf(WebSocketMessage<?> message) {
+        String headers = headersOf(message);
+        return headers != null ? header(headers, "subscription") : null;
+    }
+
+    /**
+     * Gets the command and header lines of a STOMP MESSAGE frame.
+     *
+     * @return the frame up to the blank line before the body, or null if it is not a MESSAGE frame
+     */
+    private static String headersOf(WebSocketMessage<?> message) {
+        String frame;
+        if (message instanceof TextMessage) {
+            frame = ((TextMessage) message).getPayload();
+        } else if (message instanceof BinaryMessage) {
+            ByteBuffer payload = ((BinaryMessage) message).getPayload().duplicate();
+            byte[] head = new byte[Math.min(payload.remaining(), MAX_HEADER_BYTES)];
+            payload.get(head);
+            frame = new String(head, StandardCharsets.UTF_8);
+        } else {
+            return null;
+        }
+        if (!frame.startsWith("MESSAGE\n")) {
+            return null;
+        }
+        int headersEnd = frame.indexOf("\n\n");
+        return headersEnd >= 0 ? frame.substring(0, headersEnd + 1) : frame;
+    }
+
+    private static String header(String headers, String name) {
+        int start = headers.indexOf("\n" + name + ":");
+        if (start < 0) {
+            return null;
+        }
+        start += name.length() + 2;
+        int end = headers.indexOf('\n', start);
+        return headers.substring(start, end < 0 ? headers.length() : end);
+    }
+}
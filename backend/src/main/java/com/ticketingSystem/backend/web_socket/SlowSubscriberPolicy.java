@@ -0,0 +1,20 @@
+package com.ticketingSystem.backend.web_socket;
+
+/**
+ * The SlowSubscriberPolicy enum decides what happens to the messages of one WebSocket client
+ * when its outbound buffer fills up because it reads slower than the simulation publishes.
+ * Only MESSAGE frames of ticket and pool events are ever discarded; connection, receipt and error
+ * frames, and messages carrying control events, are always sent.
+ */
+public enum SlowSubscriberPolicy {
+
+    /** Discard the oldest buffered messages until the buffer is within its limits again. */
+    DROP_OLDEST,
+
+    /**
+     * Keep only the latest buffered state snapshot of each subscription, so the client skips
+     * straight to the current state of its topics. Event batches are deltas and are never
+     * conflated; the oldest of them are dropped as well if conflating is not enough.
+     */
+    CONFLATE
+}
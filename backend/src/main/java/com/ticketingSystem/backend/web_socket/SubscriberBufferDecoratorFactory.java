@@ -0,0 +1,175 @@
+package com.ticketingSystem.backend.web_socket;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gives every STOMP client a {@link BufferedSubscriberSession}, so that each client has its own
+ * bounded outbound buffer and its own writer, and a slow client degrades on its own instead of
+ * holding up the outbound channel. Writers run on a fixed pool of writer-threads daemon threads,
+ * so the thread count stays bounded however many clients connect; each client has at most one
+ * writer task queued or running. A watchdog checks every client at a fixed rate and disconnects
+ * one that has been stuck on a write for longer than send-time-limit, which ends the write, so
+ * a stuck client holds its writer thread for little longer than that even when its topic goes
+ * quiet. Keeps the totals over all clients for the metrics.
+ */
+@Component
+public class SubscriberBufferDecoratorFactory implements WebSocketHandlerDecoratorFactory {
+
+    private final SlowSubscriberPolicy policy;
+    private final int messageLimit;
+    private final int byteLimit;
+    private final long sendTimeLimitMillis;
+    private final ExecutorService writer;
+    private final ScheduledExecutorService watchdog;
+    private final ConcurrentMap<String, BufferedSubscriberSession> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder terminated = new LongAdder();
+
+    /**
+     * Creates the factory.
+     *
+     * @param policy              what to discard when a client's buffer is over its limits
+     * @param messageLimit        the maximum number of messages buffered for one client
+     * @param byteLimit           the maximum number of payload bytes buffered for one client
+     * @param sendTimeLimitMillis how long writing one message to a client may take before it is disconnected
+     * @param writerThreads       the number of threads writing to the clients
+     */
+    public SubscriberBufferDecoratorFactory(
+            @Value("${ticketing.websocket.subscriber.policy:DROP_OLDEST}") SlowSubscriberPolicy policy,
+            @Value("${ticketing.websocket.subscriber.buffer-messages:256}") int messageLimit,
+            @Value("${ticketing.websocket.subscriber.buffer-bytes:524288}") int byteLimit,
+            @Value("${ticketing.websocket.subscriber.send-time-limit-ms:10000}") long sendTimeLimitMillis,
+            @Value("${ticketing.websocket.subscriber.writer-threads:8}") int writerThreads) {
+        this.policy = policy;
+        this.messageLimit = messageLimit;
+        this.byteLimit = byteLimit;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        AtomicInteger threads = new AtomicInteger();
+        this.writer = Executors.newFixedThreadPool(Math.max(writerThreads, 1), task -> {
+            Thread thread = new Thread(task, "websocket-writer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "websocket-send-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkInterval = Math.max(sendTimeLimitMillis / 4, 10);
+        watchdog.scheduleWithFixedDelay(this::closeStuckSessions, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private void closeStuckSessions() {
+        long now = System.nanoTime();
+        for (BufferedSubscriberSession session : sessions.values()) {
+            session.closeIfStuck(now);
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                BufferedSubscriberSession buffered = new BufferedSubscriberSession(session,
+                        SubscriberBufferDecoratorFactory.this, writer, policy, messageLimit, byteLimit, sendTimeLimitMillis);
+                sessions.put(session.getId(), buffered);
+                super.afterConnectionEstablished(buffered);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                BufferedSubscriberSession buffered = sessions.remove(session.getId());
+                if (buffered != null) {
+                    buffered.release();
+                }
+                super.afterConnectionClosed(buffered != null ? buffered : session, closeStatus);
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        writer.shutdownNow();
+    }
+
+    void messageSent() {
+        sent.increment();
+    }
+
+    void messageDropped() {
+        dropped.increment();
+    }
+
+    void messageConflated() {
+        conflated.increment();
+    }
+
+    void sessionTerminated() {
+        terminated.increment();
+    }
+
+    public SlowSubscriberPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the number of messages waiting to be written, over all clients.
+     */
+    public int getBufferedMessages() {
+        int buffered = 0;
+        for (BufferedSubscriberSession session : sessions.values()) {
+            buffered += session.getBufferedMessages();
+        }
+        return buffered;
+    }
+
+    public long getSentMessages() {
+        return sent.sum();
+    }
+
+    /**
+     * Gets the number of messages discarded because a client's buffer was full.
+     */
+    public long getDroppedMessages() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the number of messages replaced by a later message of the same subscription.
+     */
+    public long getConflatedMessages() {
+        return conflated.sum();
+    }
+
+    /**
+     * Gets the number of clients disconnected for not taking a message within the send time limit.
+     */
+    public long getTerminatedSessions() {
+        return terminated.sum();
+    }
+}
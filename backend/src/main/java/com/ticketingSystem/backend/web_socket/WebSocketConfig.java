@@ -1,19 +1,44 @@
 package com.ticketingSystem.backend.web_socket;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * WebSocket configuration for enabling communication between the client and server using WebSockets.
  * This configuration sets up message brokering and endpoint registration for WebSocket connections.
+ * Every client gets its own bounded outbound buffer (see {@link SubscriberBufferDecoratorFactory}),
+ * so a slow browser tab only delays itself, and the inbound and outbound channels run on thread
+ * pools of a configured size.
  */
 @Configuration
 @EnableWebSocketMessageBroker // Enables WebSocket message handling, backed by a message broker.
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private SubscriberBufferDecoratorFactory subscriberBuffers;
+
+    @Value("${ticketing.websocket.inbound.pool-size:4}")
+    private int inboundPoolSize;
+
+    @Value("${ticketing.websocket.outbound.pool-size:4}")
+    private int outboundPoolSize;
+
+    @Value("${ticketing.websocket.subscriber.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${ticketing.websocket.subscriber.buffer-bytes:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${ticketing.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     /**
      * Configures the message broker for WebSocket communication.
      * The message broker allows the server to push messages to clients via specific topic destinations.
@@ -28,6 +53,45 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Sets the prefix for application-bound messages. Messages sent to destinations starting with "/app"
         // will be routed to the application controller.
         config.setApplicationDestinationPrefixes("/app");
+
+        // Messages to one client leave in the order the broker published them, even with several outbound threads
+        config.setPreservePublishOrder(true);
+    }
+
+    /**
+     * Configures the WebSocket transport: the limits on incoming messages, and the buffer every
+     * client gets for outgoing ones. Spring's own per-session limits stay in place as a backstop,
+     * but since sending to a buffered session never waits, they are not normally reached.
+     *
+     * @param registration the WebSocketTransportRegistration used to configure the transport
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(subscriberBuffers);
+    }
+
+    /**
+     * Sizes the thread pool that handles messages from clients.
+     *
+     * @param registration the ChannelRegistration of the client inbound channel
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor().corePoolSize(inboundPoolSize).maxPoolSize(inboundPoolSize);
+    }
+
+    /**
+     * Sizes the thread pool that hands messages to clients. Handing a message over only puts it
+     * into the client's buffer, so a few threads serve any number of clients.
+     *
+     * @param registration the ChannelRegistration of the client outbound channel
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor().corePoolSize(outboundPoolSize).maxPoolSize(outboundPoolSize);
     }
 
     /**
@@ -41,5 +105,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Registers the "/websocket" endpoint, which clients will use to establish WebSocket connections.
         // It allows connections from "http://localhost:3000" (e.g., the front-end client during development).
         registry.addEndpoint("/websocket").setAllowedOrigins("http://localhost:3000").withSockJS();
+
+        // Registers a plain WebSocket endpoint without the SockJS fallback. SockJS only carries text,
+        // so clients that want binary simulation events (ticketing.events.encoding=BINARY) connect here.
+        registry.addEndpoint("/websocket-native").setAllowedOrigins("http://localhost:3000");
     }
 }
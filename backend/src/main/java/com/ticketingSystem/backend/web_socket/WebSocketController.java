@@ -12,10 +12,44 @@ public class WebSocketController {
     private SimpMessagingTemplate messagingTemplate;
 
     public void sendTicketMessage(String message) {
-        messagingTemplate.convertAndSend("/topic/simulation", message);
+        sendTicketMessage("/topic/simulation", message);
+    }
+
+    public void sendTicketMessage(String topic, String message) {
+        sendTicketMessage(topic, message, false);
+    }
+
+    /**
+     * Sends a message to a topic.
+     *
+     * @param topic   the topic
+     * @param message the message
+     * @param control whether it carries control events, which slow clients must not lose
+     */
+    public void sendTicketMessage(String topic, String message, boolean control) {
+        messagingTemplate.convertAndSend(topic, message, headers(control));
+    }
+
+    public void sendTicketPayload(String topic, byte[] payload) {
+        sendTicketPayload(topic, payload, false);
+    }
+
+    /**
+     * Sends a binary payload to a topic.
+     *
+     * @param topic   the topic
+     * @param payload the payload
+     * @param control whether it carries control events, which slow clients must not lose
+     */
+    public void sendTicketPayload(String topic, byte[] payload, boolean control) {
+        messagingTemplate.convertAndSend(topic, payload, headers(control));
     }
 
     public void sendTicketSummary(Map<String, Object> summaryMap) {
-        messagingTemplate.convertAndSend("/topic/simulation", summaryMap);
+        messagingTemplate.convertAndSend("/topic/simulation", summaryMap, headers(true));
+    }
+
+    private static Map<String, Object> headers(boolean control) {
+        return control ? Map.of(BufferedSubscriberSession.CONTROL_HEADER, "true") : null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.ticketingSystem.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("local")
+class ConfigurationControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    private long add(int vendors) throws Exception {
+        MvcResult result = mvc.perform(post("/api/configs/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"numberOfVendors\":" + vendors + ",\"totalTickets\":100,\"numberOfCustomers\":1,\"maxTicketCapacity\":10}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return json(result).get("id").asLong();
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void unchangedListingsAreAnsweredWithNotModified() throws Exception {
+        add(1);
+        String etag = mvc.perform(get("/api/configs/getAll")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        MvcResult notModified = mvc.perform(get("/api/configs/getAll").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(0, notModified.getResponse().getContentLength());
+
+        add(2);
+        String changed = mvc.perform(get("/api/configs/getAll").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void pagesFollowTheKeysetAndChangesReportSavesAndDeletes() throws Exception {
+        long first = add(1);
+        long second = add(2);
+        long third = add(3);
+
+        JsonNode page = json(mvc.perform(get("/api/configs/page").param("afterId", String.valueOf(first)).param("limit", "1"))
+                .andExpect(status().isOk()).andReturn());
+        assertEquals(second, page.get("configurations").get(0).get("id").asLong());
+        assertEquals(second, page.get("nextAfterId").asLong());
+        long version = page.get("version").asLong();
+
+        mvc.perform(delete("/api/configs/delete/" + second)).andExpect(status().isNoContent());
+        long fourth = add(4);
+
+        JsonNode changes = json(mvc.perform(get("/api/configs/changes").param("since", String.valueOf(version)))
+                .andExpect(status().isOk()).andReturn());
+        assertFalse(changes.get("full").asBoolean());
+        assertEquals(1, changes.get("configurations").size());
+        assertEquals(fourth, changes.get("configurations").get(0).get("id").asLong());
+        assertEquals(second, changes.get("deleted").get(0).asLong());
+
+        JsonNode next = json(mvc.perform(get("/api/configs/page").param("afterId", String.valueOf(first)).param("limit", "1"))
+                .andExpect(status().isOk()).andReturn());
+        assertEquals(third, next.get("configurations").get(0).get("id").asLong());
+
+        JsonNode tooOld = json(mvc.perform(get("/api/configs/changes").param("since", "0"))
+                .andExpect(status().isOk()).andReturn());
+        assertTrue(tooOld.get("full").asBoolean());
+    }
+}
@@ -0,0 +1,60 @@
+package com.ticketingSystem.backend.events;
+
+import com.ticketingSystem.backend.logic.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SimulationEventEncoderTest {
+
+    private final List<SimulationEvent> batch = List.of(
+            SimulationEvent.ticketAdded(3, new Ticket(17)),
+            SimulationEvent.ticketsRemoved(4, new Ticket[]{new Ticket(17), new Ticket(18)}),
+            SimulationEvent.poolEmpty(5),
+            SimulationEvent.actorAdded(SimulationEvent.CUSTOMER, 2),
+            SimulationEvent.soldOut(),
+            SimulationEvent.message("Simulation \"ended\""));
+
+    @Test
+    void textEncodingKeepsTheOriginalMessages() {
+        String text = (String) new SimulationEventEncoder(EventEncoding.TEXT).encode(batch.subList(0, 1));
+
+        assertEquals("Vendor ID: 3 added 1 Ticket to the pool.\nAdded Ticket ID: 17 Event Name: Sample Event", text);
+    }
+
+    @Test
+    void jsonEncodingWritesOneCompactArrayPerEvent() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("Total tickets sold", 2);
+
+        String json = (String) new SimulationEventEncoder(EventEncoding.JSON)
+                .encode(List.of(batch.get(0), batch.get(1), batch.get(2), batch.get(3), batch.get(4), batch.get(5),
+                        SimulationEvent.summary(summary)));
+
+        assertEquals("[[1,3,17],[2,4,17,18],[4,5],[5,1,2],[6],[0,\"Simulation \\\"ended\\\"\"],[7,{\"Total tickets sold\":2}]]", json);
+    }
+
+    @Test
+    void binaryEncodingWritesCodesAndBigEndianFields() {
+        ByteBuffer buffer = ByteBuffer.wrap((byte[]) new SimulationEventEncoder(EventEncoding.BINARY).encode(batch.subList(0, 3)));
+
+        assertEquals(SimulationEventEncoder.BINARY_FORMAT_VERSION, buffer.get());
+        assertEquals(1, buffer.get());
+        assertEquals(3, buffer.getInt());
+        assertEquals(1, buffer.getInt());
+        assertEquals(17, buffer.getInt());
+        assertEquals(2, buffer.get());
+        assertEquals(4, buffer.getInt());
+        assertEquals(2, buffer.getInt());
+        assertEquals(17, buffer.getInt());
+        assertEquals(18, buffer.getInt());
+        assertEquals(4, buffer.get());
+        assertEquals(5, buffer.getInt());
+        assertEquals(0, buffer.remaining());
+    }
+}
@@ -0,0 +1,62 @@
+package com.ticketingSystem.backend.events;
+
+import com.ticketingSystem.backend.logic.Ticket;
+import com.ticketingSystem.backend.web_socket.WebSocketController;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SimulationEventPublisherTest {
+
+    @Test
+    void controlEventsAreQueuedEvenWhenTicketEventsAreDropped() throws InterruptedException {
+        WebSocketController webSocketController = mock(WebSocketController.class);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        List<Boolean> control = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            control.add(invocation.getArgument(2));
+            return sent.add(invocation.getArgument(1));
+        }).when(webSocketController).sendTicketMessage(anyString(), anyString(), anyBoolean());
+        SimulationEventPublisher publisher = new SimulationEventPublisher(webSocketController, 2, 256,
+                OverflowPolicy.DROP, 10, EventEncoding.TEXT, 1);
+
+        // The publisher thread is not running yet, so the queue fills up
+        for (int i = 1; i <= 5; i++) {
+            publisher.publish(SimulationEvent.ticketAdded(1, new Ticket(i)));
+        }
+        publisher.publish(SimulationEvent.soldOut());
+        publisher.publish(SimulationEvent.summary(Map.of("Total Tickets Sold", 2)));
+        publisher.publish("Simulation ended");
+        assertEquals(3, publisher.getDroppedEvents());
+        assertEquals(5, publisher.getQueuedEvents());
+
+        publisher.start();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (publisher.getPublishedEvents() < 5 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            publisher.stop();
+        }
+        String text = String.join("\n", sent);
+        assertTrue(text.endsWith("Simulation Summary:\nTotal Tickets Sold: 2\nSimulation ended"), text);
+        assertTrue(text.startsWith("Vendor ID: 1 added 1 Ticket to the pool.\nAdded Ticket ID: 1"), text);
+        // The batch with the control events is marked so that slow clients never lose it
+        assertTrue(control.get(control.size() - 1));
+
+        // Room taken by the published ticket events is given back
+        publisher.publish(SimulationEvent.ticketAdded(1, new Ticket(6)));
+        assertEquals(3, publisher.getDroppedEvents());
+    }
+}
@@ -0,0 +1,98 @@
+package com.ticketingSystem.backend.ledger;
+
+import com.ticketingSystem.backend.logic.Ticket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SalesLedgerTest {
+
+    @TempDir
+    Path directory;
+
+    private SalesLedger open(int recordsPerSegment) throws IOException {
+        return new SalesLedger(directory, (long) recordsPerSegment * SalesLedger.RECORD_SIZE, 60_000);
+    }
+
+    @Test
+    void salesSurviveReopeningAcrossSegments() throws IOException {
+        try (SalesLedger ledger = open(64)) {
+            for (int i = 1; i <= 150; i++) {
+                ledger.append(7, i % 7, i % 2 == 0 ? 42 : 0, new Ticket(i, "Opera", i % 3));
+            }
+            ledger.append(8, 9, 5, new Ticket[]{new Ticket(1, "Derby", 1), new Ticket(2, "Derby", 1)});
+            ledger.flush();
+            assertEquals(152, ledger.getDurableSales());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+
+        try (SalesLedger reopened = open(64)) {
+            assertEquals(152, reopened.getSales());
+            assertEquals(75L, reopened.getSalesByEvent().get(42L));
+            assertEquals(2L, reopened.getSalesByEvent().get(5L));
+
+            List<Sale> sales = new ArrayList<>();
+            assertEquals(152, reopened.replay(sales::add));
+            assertEquals(7, sales.get(0).getRunID());
+            assertEquals(1, sales.get(0).getTicketID());
+            assertEquals(1, sales.get(0).getCustomerID());
+            assertEquals(1, sales.get(0).getVendorID());
+            Sale last = sales.get(151);
+            // Ticket IDs start again in a new run; the run ID tells the sales apart
+            assertEquals(8, last.getRunID());
+            assertEquals(2, last.getTicketID());
+            assertEquals(9, last.getCustomerID());
+            assertEquals(5, last.getEventID());
+            assertTrue(last.getReleasedAt() <= last.getSoldAt());
+
+            reopened.append(9, 1, 0, new Ticket(1));
+            Sale newest = reopened.getRecentSales(5).get(0);
+            assertEquals(9, newest.getRunID());
+            assertEquals(1, newest.getTicketID());
+        }
+    }
+
+    @Test
+    void replayStopsAtATornRecord() throws IOException {
+        try (SalesLedger ledger = open(100)) {
+            for (int i = 1; i <= 10; i++) {
+                ledger.append(1, 1, 0, new Ticket(i));
+            }
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 7L * SalesLedger.RECORD_SIZE + 3);
+        }
+
+        try (SalesLedger reopened = open(100)) {
+            assertEquals(7, reopened.getSales());
+            reopened.append(1, 2, 0, new Ticket(11));
+
+            List<Sale> sales = new ArrayList<>();
+            reopened.replay(sales::add);
+            assertEquals(8, sales.size());
+            assertEquals(11, sales.get(7).getTicketID());
+        }
+        try (SalesLedger again = open(100)) {
+            // The stale records after the torn one were cleared, so they never come back
+            assertEquals(8, again.getSales());
+        }
+    }
+}
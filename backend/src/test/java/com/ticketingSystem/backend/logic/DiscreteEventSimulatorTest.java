@@ -0,0 +1,46 @@
+package com.ticketingSystem.backend.logic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketingSystem.backend.model.ConfigurationEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DiscreteEventSimulatorTest {
+
+    private final DiscreteEventSimulator simulator = new DiscreteEventSimulator();
+
+    private static ConfigurationEntity config(int vendors, int totalTickets, int customers, int capacity,
+                                              int vendorBatchSize, int customerBatchSize) {
+        return new ObjectMapper().convertValue(Map.of(
+                "numberOfVendors", vendors,
+                "totalTickets", totalTickets,
+                "ticketReleaseRate", 500,
+                "numberOfCustomers", customers,
+                "customerRetrievalRate", 1000,
+                "maxTicketCapacity", capacity,
+                "vendorBatchSize", vendorBatchSize,
+                "customerBatchSize", customerBatchSize), ConfigurationEntity.class);
+    }
+
+    @Test
+    void sellsEveryTicketOfAProductionScaleRun() {
+        Map<String, Object> summary = simulator.simulate(config(10, 1_000_000, 50, 1000, 1, 1), 42);
+
+        assertEquals(1_000_000, summary.get("Total tickets sold"));
+        assertEquals(10, summary.get("Total vendors used"));
+        assertEquals(50, summary.get("Total customers served"));
+        assertEquals(100_000, summary.get("Vendor 1"));
+    }
+
+    @Test
+    void sameSeedGivesTheSameRun() {
+        ConfigurationEntity config = config(3, 3000, 7, 20, 4, 3);
+
+        Map<String, Object> first = simulator.simulate(config, 7);
+        assertEquals(first, simulator.simulate(config, 7));
+        assertEquals(3000, first.get("Total tickets sold"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.ticketingSystem.backend.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void mergesEveryThreadsRecordingsOnRead() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int millis = 1; millis <= 100; millis++) {
+                    histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        histogram.record(TimeUnit.SECONDS.toNanos(2));
+
+        Map<String, Object> snapshot = histogram.snapshot();
+        assertEquals(401L, snapshot.get("count"));
+        assertEquals(51.0, (double) snapshot.get("p50"), 1.0);
+        assertEquals(100.0, (double) snapshot.get("p99"), 2.0);
+        assertEquals(2000.0, (double) snapshot.get("max"), 20.0);
+
+        // Recordings of finished threads stay merged after their recorders are dropped
+        assertEquals(401L, histogram.snapshot().get("count"));
+
+        histogram.reset();
+        assertEquals(0L, histogram.snapshot().get("count"));
+    }
+
+    @Test
+    void poolRecordsHowLongTicketsWaited() {
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(10, PoolType.RING_BUFFER);
+
+        ticketPool.addTickets(1, 3);
+        ticketPool.removeTickets(1, 2);
+        ticketPool.removeTickets(1);
+
+        assertEquals(3L, ticketPool.getTimeInPool().snapshot().get("count"));
+        assertTrue(ticketPool.getTimeInPool().describe().startsWith("p50 "));
+    }
+}
@@ -0,0 +1,326 @@
+package com.ticketingSystem.backend.logic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketPoolTest {
+
+    @ParameterizedTest
+    @EnumSource(PoolType.class)
+    void rejectsTicketsOnceFullAndRemovesInOrder(PoolType poolType) {
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(3, poolType);
+
+        assertTrue(ticketPool.addTickets(1));
+        assertTrue(ticketPool.addTickets(1));
+        assertTrue(ticketPool.addTickets(2));
+        assertFalse(ticketPool.addTickets(2));
+        assertEquals(3, ticketPool.getPoolSize());
+
+        assertTrue(ticketPool.removeTickets(1));
+        assertTrue(ticketPool.addTickets(2));
+        assertTrue(ticketPool.removeTickets(1));
+        assertTrue(ticketPool.removeTickets(1));
+        assertTrue(ticketPool.removeTickets(1));
+        assertFalse(ticketPool.removeTickets(1));
+        assertFalse(ticketPool.hasTickets());
+        assertEquals(0, ticketPool.getPoolSize());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolType.class)
+    void concurrentVendorsAndCustomersNeverLoseTickets(PoolType poolType) throws InterruptedException {
+        int vendors = 4;
+        int customers = 8;
+        int ticketsPerVendor = 1_000;
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(64, poolType);
+
+        AtomicInteger removed = new AtomicInteger();
+        CountDownLatch vendorsDone = new CountDownLatch(vendors);
+        List<Thread> threads = new ArrayList<>();
+        for (int v = 0; v < vendors; v++) {
+            int vendorID = v + 1;
+            threads.add(new Thread(() -> {
+                int added = 0;
+                while (added < ticketsPerVendor) {
+                    if (ticketPool.addTickets(vendorID)) {
+                        added++;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                vendorsDone.countDown();
+            }));
+        }
+        for (int c = 0; c < customers; c++) {
+            int customerID = c + 1;
+            threads.add(new Thread(() -> {
+                while (vendorsDone.getCount() > 0 || ticketPool.hasTickets()) {
+                    if (ticketPool.removeTickets(customerID)) {
+                        removed.incrementAndGet();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(vendors * ticketsPerVendor, removed.get());
+        assertEquals(0, ticketPool.getPoolSize());
+    }
+
+    @Test
+    void ringBufferOfOneNeverOverwritesAnUnsoldTicket() throws InterruptedException {
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(1, PoolType.RING_BUFFER);
+
+        assertTrue(ticketPool.addTickets(1));
+        assertFalse(ticketPool.addTickets(2));
+        assertEquals(1, ticketPool.getPoolSize());
+        assertTrue(ticketPool.removeTickets(1));
+        assertFalse(ticketPool.removeTickets(1));
+
+        int tickets = 10_000;
+        AtomicInteger removed = new AtomicInteger();
+        CountDownLatch vendorsDone = new CountDownLatch(2);
+        List<Thread> threads = new ArrayList<>();
+        for (int v = 0; v < 2; v++) {
+            threads.add(new Thread(() -> {
+                int added = 0;
+                while (added < tickets) {
+                    if (ticketPool.addTickets(1)) {
+                        added++;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                vendorsDone.countDown();
+            }));
+        }
+        for (int c = 0; c < 2; c++) {
+            threads.add(new Thread(() -> {
+                while (vendorsDone.getCount() > 0 || ticketPool.hasTickets()) {
+                    if (ticketPool.removeTickets(1)) {
+                        removed.incrementAndGet();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2 * tickets, removed.get());
+        assertEquals(0, ticketPool.getPoolSize());
+    }
+
+    @ParameterizedTest
+    @EnumSource(WaitStrategyType.class)
+    void waitingCustomerIsHandedTheNextTicket(WaitStrategyType waitStrategy) throws InterruptedException {
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(1, PoolType.RING_BUFFER, waitStrategy);
+
+        assertFalse(ticketPool.take(1, 10, TimeUnit.MILLISECONDS));
+
+        AtomicInteger bought = new AtomicInteger();
+        Thread customer = new Thread(() -> {
+            try {
+                if (ticketPool.take(1, 10, TimeUnit.SECONDS)) {
+                    bought.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        customer.start();
+        ticketPool.put(1);
+        customer.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(1, bought.get());
+        assertTrue(ticketPool.put(1, 10, TimeUnit.MILLISECONDS));
+        assertFalse(ticketPool.put(1, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PoolType.class)
+    void batchesAreAddedAndRemovedAllOrNothing(PoolType poolType) {
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(5, poolType);
+
+        assertTrue(ticketPool.addTickets(1, 3));
+        assertFalse(ticketPool.addTickets(1, 3));
+        assertEquals(3, ticketPool.getPoolSize());
+        assertTrue(ticketPool.addTickets(1, 2));
+
+        assertFalse(ticketPool.removeTickets(1, 6));
+        assertTrue(ticketPool.removeTickets(1, 4));
+        assertFalse(ticketPool.removeTickets(1, 2));
+        assertEquals(1, ticketPool.getPoolSize());
+        assertTrue(ticketPool.removeTickets(1, 1));
+        assertFalse(ticketPool.hasTickets());
+    }
+
+    @Test
+    void shardedPoolSpillsOverAndCustomersStealFromOtherShards() {
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(6, PoolType.SHARDED, WaitStrategyType.PARK, 2);
+
+        assertTrue(ticketPool.addTickets(2, 3));
+        assertTrue(ticketPool.addTickets(2, 2));
+        assertFalse(ticketPool.addTickets(2, 2));
+        assertTrue(ticketPool.addTickets(2));
+        assertFalse(ticketPool.addTickets(1));
+        assertEquals(6, ticketPool.getPoolSize());
+
+        assertTrue(ticketPool.removeTickets(1, 3));
+        assertTrue(ticketPool.removeTickets(1, 3));
+        assertFalse(ticketPool.removeTickets(1));
+        assertFalse(ticketPool.hasTickets());
+    }
+
+    @Test
+    void shardedPoolDrainsGroupsScatteredAcrossShards() throws InterruptedException {
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(8, PoolType.SHARDED, WaitStrategyType.PARK, 4);
+
+        // Two tickets in each of two shards: a group of three is gathered from both
+        assertTrue(ticketPool.addTickets(0, 2));
+        assertTrue(ticketPool.addTickets(1, 2));
+        assertTrue(ticketPool.removeTickets(0, 3));
+        assertFalse(ticketPool.removeTickets(0, 2));
+        assertEquals(1, ticketPool.getPoolSize());
+        assertTrue(ticketPool.removeTickets(2, 1));
+        assertFalse(ticketPool.hasTickets());
+
+        // Vendor blocks of five and groups of three, both larger than a shard of two
+        int vendors = 4;
+        int ticketsPerVendor = 1_001;
+        AtomicInteger removed = new AtomicInteger();
+        CountDownLatch vendorsDone = new CountDownLatch(vendors);
+        List<Thread> threads = new ArrayList<>();
+        for (int v = 0; v < vendors; v++) {
+            int vendorID = v + 1;
+            threads.add(new Thread(() -> {
+                int left = ticketsPerVendor;
+                while (left > 0) {
+                    int block = Math.max(Math.min(Math.min(5, left), ticketPool.getMaxReleaseBatch()), 1);
+                    if (ticketPool.addTickets(vendorID, block)) {
+                        left -= block;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                vendorsDone.countDown();
+            }));
+        }
+        for (int c = 0; c < 6; c++) {
+            int customerID = c + 1;
+            threads.add(new Thread(() -> {
+                while (vendorsDone.getCount() > 0 || ticketPool.hasTickets()) {
+                    // Once supply runs out the last groups shrink to whatever is left, scattered or not
+                    int group = vendorsDone.getCount() > 0 ? 3 : Math.max(Math.min(3, ticketPool.getPoolSize()), 1);
+                    if (ticketPool.removeTickets(customerID, group)) {
+                        removed.addAndGet(group);
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive(), "The pool never drained");
+        }
+
+        assertEquals(vendors * ticketsPerVendor, removed.get());
+        assertEquals(0, ticketPool.getPoolSize());
+    }
+
+    @Test
+    void statisticsCountTicketsRejectionsAndLockUse() {
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(2, PoolType.LOCKED);
+
+        ticketPool.addTickets(1, 2);
+        ticketPool.addTickets(1);
+        ticketPool.removeTickets(1);
+        ticketPool.removeTickets(1);
+        ticketPool.removeTickets(1);
+
+        PoolStatistics statistics = ticketPool.getStatistics();
+        assertEquals(2, statistics.getTicketsAdded());
+        assertEquals(2, statistics.getTicketsRemoved());
+        assertEquals(1, statistics.getFailedAdds());
+        assertEquals(1, statistics.getFailedRemoves());
+        assertTrue(statistics.getLockAcquisitions() >= 5);
+    }
+
+    @Test
+    void aFullSaleRecorderLeavesTheTicketsInThePool() throws InterruptedException {
+        AtomicInteger room = new AtomicInteger(1);
+        List<Ticket> recorded = new ArrayList<>();
+        SaleRecorder bounded = new SaleRecorder() {
+            @Override
+            public boolean tryReserve(int count) {
+                if (room.get() < count) {
+                    return false;
+                }
+                room.addAndGet(-count);
+                return true;
+            }
+
+            @Override
+            public boolean reserve(int count, long timeout, TimeUnit unit) {
+                return tryReserve(count);
+            }
+
+            @Override
+            public void release(int count) {
+                room.addAndGet(count);
+            }
+
+            @Override
+            public void recordSale(long runID, int customerID, long eventID, Ticket ticket) {
+                recorded.add(ticket);
+            }
+        };
+        TicketPool ticketPool = new TicketPool();
+        ticketPool.configure(4, PoolType.LOCKED);
+        ticketPool.setSaleRecorders(List.of(bounded));
+
+        assertFalse(ticketPool.removeTickets(1));  // Empty pool: the reservation is given back
+        assertEquals(1, room.get());
+        ticketPool.addTickets(1, 3);
+        assertFalse(ticketPool.removeTickets(1, 2));
+        assertTrue(ticketPool.removeTickets(1));
+        assertFalse(ticketPool.removeTickets(1));
+        assertFalse(ticketPool.take(1, 10, TimeUnit.MILLISECONDS));
+        assertEquals(2, ticketPool.getPoolSize());
+        assertEquals(1, recorded.size());
+
+        room.set(2);  // The recorder caught up
+        assertTrue(ticketPool.removeTickets(1, 2));
+        assertEquals(0, ticketPool.getPoolSize());
+        assertEquals(3, recorded.size());
+    }
+}
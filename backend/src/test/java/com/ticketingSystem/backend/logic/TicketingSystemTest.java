@@ -0,0 +1,195 @@
+package com.ticketingSystem.backend.logic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketingSystem.backend.model.ConfigurationEntity;
+import com.ticketingSystem.backend.model.EventEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketingSystemTest {
+
+    private final ScheduledExecutorService actorExecutor = Executors.newScheduledThreadPool(2);
+
+    @AfterEach
+    void shutdownExecutor() {
+        actorExecutor.shutdownNow();
+    }
+
+    private TicketingSystem session(String sessionID) {
+        return session(sessionID, ExecutionMode.POOLED);
+    }
+
+    private TicketingSystem session(String sessionID, ExecutionMode executionMode) {
+        ThreadManager threadManager = new ThreadManager();
+        threadManager.setActorExecutor(actorExecutor);
+        return new TicketingSystem(sessionID, "/topic/simulation/" + sessionID, new TicketPool(), threadManager,
+                null, executionMode);
+    }
+
+    private static ConfigurationEntity config(int vendors, int totalTickets, int customers, int capacity) {
+        return config(vendors, totalTickets, customers, capacity, 0);
+    }
+
+    private static ConfigurationEntity config(int vendors, int totalTickets, int customers, int capacity, int rate) {
+        return new ObjectMapper().convertValue(Map.of(
+                "numberOfVendors", vendors,
+                "totalTickets", totalTickets,
+                "ticketReleaseRate", rate,
+                "numberOfCustomers", customers,
+                "customerRetrievalRate", rate,
+                "maxTicketCapacity", capacity), ConfigurationEntity.class);
+    }
+
+    private static int ticketsSold(TicketingSystem session) throws Exception {
+        for (Future<?> task : session.getThreadManager().getCustomerTasks()) {
+            task.get(30, TimeUnit.SECONDS);
+        }
+        int sold = 0;
+        for (Customer customer : session.getThreadManager().getCustomers()) {
+            sold += customer.getRemovedTicketsCount();
+        }
+        return sold;
+    }
+
+    @Test
+    void concurrentSessionsShareTheActorPoolWithoutSharingState() throws Exception {
+        TicketingSystem first = session("first");
+        TicketingSystem second = session("second");
+
+        // More actors than pool threads: pooled actors must give their thread back between steps
+        first.startSystem(config(4, 2000, 6, 50));
+        second.startSystem(config(3, 900, 5, 20));
+
+        assertEquals(2000, ticketsSold(first));
+        assertEquals(900, ticketsSold(second));
+        assertFalse(first.isRunning());
+        assertFalse(second.isRunning());
+        assertEquals(0, first.getTicketPool().getPoolSize());
+        assertEquals(0, second.getTicketPool().getPoolSize());
+    }
+
+    @Test
+    void everyPooledActorRunsOnASingleThreadPool() throws Exception {
+        ScheduledExecutorService singleThread = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ThreadManager threadManager = new ThreadManager();
+            threadManager.setActorExecutor(singleThread);
+            TicketingSystem session = new TicketingSystem("single", "/topic/simulation/single", new TicketPool(),
+                    threadManager, null, ExecutionMode.POOLED);
+
+            // Forty actors take turns on one thread; an actor that kept its thread for the whole run would starve the rest
+            session.startSystem(config(15, 3000, 25, 10));
+            assertEquals(SimulationState.COMPLETED, session.getCompletion().get(30, TimeUnit.SECONDS));
+            assertEquals(3000, ticketsSold(session));
+            for (Customer customer : threadManager.getCustomers()) {
+                assertTrue(customer.getRemovedTicketsCount() > 0, "Customer " + customer.getCustomerID() + " never ran");
+            }
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    private static EventEntity event(long id, String name, int capacity) {
+        return new ObjectMapper().convertValue(Map.of("id", id, "name", name, "ticketCapacity", capacity), EventEntity.class);
+    }
+
+    @Test
+    void eachEventSellsFromItsOwnPool() throws Exception {
+        TicketingSystem session = session("events");
+        List<EventEntity> events = List.of(event(7, "Opera", 10), event(3, "Derby", 30), event(12, "Expo", 0));
+
+        session.startSystem(config(6, 3000, 5, 20), events);
+        EventInventory inventory = session.getInventory();
+        assertEquals(3, inventory.getEventCount());
+        assertSame(inventory.getPool(1), inventory.getPoolForEvent(3));
+        assertEquals(10, inventory.getPoolForEvent(7).getMaxCapacity());
+        assertEquals(20, inventory.getPoolForEvent(12).getMaxCapacity());
+        assertNull(inventory.getPoolForEvent(99));
+
+        assertEquals(3000, ticketsSold(session));
+        for (Map<String, Object> event : inventory.describe()) {
+            // Two vendors per event, each releasing 500 tickets
+            assertEquals(1000L, event.get("ticketsSold"), event.get("name") + " sold the wrong number of tickets");
+        }
+        assertEquals(3000, inventory.sum(PoolStatistics::getTicketsRemoved));
+        assertEquals("Derby", inventory.getPoolForEvent(3).getEventName());
+    }
+
+    @Test
+    void completionFiresTheMomentTheLastTicketIsBought() throws Exception {
+        TicketingSystem session = session("lifecycle", ExecutionMode.PLATFORM);
+        assertEquals(SimulationState.CONFIGURED, session.getState());
+
+        session.startSystem(config(3, 3000, 4, 25));
+        assertEquals(SimulationState.COMPLETED, session.getCompletion().get(30, TimeUnit.SECONDS));
+
+        // Nothing is left to buy at that instant, even though customers may still be on their way out
+        assertEquals(SimulationState.COMPLETED, session.getState());
+        assertFalse(session.isRunning());
+        assertEquals(0, session.getInventory().getTotalSize());
+        assertEquals(3000, session.getInventory().sum(PoolStatistics::getTicketsRemoved));
+        assertEquals(3000, ticketsSold(session));
+    }
+
+    @Test
+    void stoppingARunCompletesItAsStopped() throws Exception {
+        TicketingSystem session = session("stopped");
+        session.startSystem(config(2, 1000, 2, 10, 50));
+        CompletableFuture<SimulationState> completion = session.getCompletion();
+        assertEquals(SimulationState.RUNNING, session.getState());
+
+        session.stopSystem();
+        assertEquals(SimulationState.STOPPED, completion.get(1, TimeUnit.SECONDS));
+        assertEquals(SimulationState.STOPPED, session.getState());
+
+        // A new run gets a new future
+        session.startSystem(config(1, 10, 1, 10));
+        assertNotSame(completion, session.getCompletion());
+        assertEquals(SimulationState.COMPLETED, session.getCompletion().get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void snapshotsArePublishedOnCompletionAndReadWithoutTouchingThePool() throws Exception {
+        TicketingSystem session = session("snapshot", ExecutionMode.PLATFORM);
+        session.startSystem(config(2, 1000, 3, 10));
+        EngineSnapshot started = session.getSnapshot();
+        assertEquals(2, started.getVendorCount());
+        assertEquals(3, started.getCustomerCount());
+
+        assertEquals(SimulationState.COMPLETED, session.getCompletion().get(30, TimeUnit.SECONDS));
+        EngineSnapshot completed = session.getSnapshot();
+        assertEquals(SimulationState.COMPLETED, completed.getState());
+        assertEquals(1000, completed.getTicketsSold());
+        assertEquals(0, completed.getPoolSize());
+        assertTrue(completed.getSequence() > started.getSequence());
+
+        ticketsSold(session);
+        EngineSnapshot settled = session.refreshSnapshot();
+        assertEquals(1000, settled.getCustomerTickets().values().stream().mapToInt(Integer::intValue).sum());
+        assertEquals(1000, settled.getVendorTickets().values().stream().mapToInt(Integer::intValue).sum());
+        assertEquals(2, settled.getFinishedVendors());
+
+        long lockAcquisitions = session.getTicketPool().getStatistics().getLockAcquisitions();
+        for (int i = 0; i < 1000; i++) {
+            session.getSnapshot();
+            session.getInventory().getTotalSize();
+            session.getInventory().hasTickets();
+        }
+        assertEquals(lockAcquisitions, session.getTicketPool().getStatistics().getLockAcquisitions());
+    }
+}
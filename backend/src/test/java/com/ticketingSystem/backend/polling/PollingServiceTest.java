@@ -0,0 +1,55 @@
+package com.ticketingSystem.backend.polling;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("local")
+class PollingServiceTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private PollingService pollingService;
+
+    @Test
+    void subscribersShareOneSampleAndOnlyGetChanges() throws Exception {
+        MockMvc mvc = MockMvcBuilders.webAppContextSetup(context).build();
+        int subscribersBefore = pollingService.getSubscriberCount();
+
+        MvcResult first = mvc.perform(get("/polling/stream")).andExpect(request().asyncStarted()).andReturn();
+        MvcResult second = mvc.perform(get("/polling/stream")).andExpect(request().asyncStarted()).andReturn();
+        // The first sample is written by the stream writers, not on the request thread
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((first.getResponse().getContentAsString().isEmpty() || second.getResponse().getContentAsString().isEmpty())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        String firstBody = first.getResponse().getContentAsString();
+        String secondBody = second.getResponse().getContentAsString();
+
+        assertTrue(firstBody.startsWith("event:status\ndata:{\"sessionId\":\"default\",\"state\":"), firstBody);
+        assertEquals(firstBody, secondBody);
+        assertEquals(subscribersBefore + 2, pollingService.getSubscriberCount());
+
+        // Nothing changes in an idle session, so nothing more is sent
+        pollingService.fetchData();
+        Thread.sleep(100);
+        assertEquals(firstBody, first.getResponse().getContentAsString());
+
+        mvc.perform(get("/polling/stream").param("session", "missing")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,55 @@
+package com.ticketingSystem.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketingSystem.backend.model.ConfigurationEntity;
+import com.ticketingSystem.backend.repository.ConfigurationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("local")
+class ConfigurationServiceTest {
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    @Autowired
+    private ConfigurationRepository configurationRepository;
+
+    @Test
+    void readsAreServedFromTheCacheUntilAConfigurationIsSavedOrDeleted() {
+        ConfigurationEntity config = new ObjectMapper().convertValue(Map.of(
+                "numberOfVendors", 2,
+                "totalTickets", 10,
+                "numberOfCustomers", 2,
+                "maxTicketCapacity", 5), ConfigurationEntity.class);
+        ConfigurationEntity saved = configurationService.saveConfiguration(config);
+
+        int listSize = configurationService.getAllConfigurations().size();
+        long listMisses = configurationService.getConfigurationListCache().stats().missCount();
+        long misses = configurationService.getConfigurationCache().stats().missCount();
+        for (int i = 0; i < 100; i++) {
+            assertSame(saved, configurationService.getConfigurationById(saved.getId()).orElseThrow());
+            assertEquals(listSize, configurationService.getAllConfigurations().size());
+        }
+        assertEquals(misses, configurationService.getConfigurationCache().stats().missCount());
+        assertEquals(listMisses, configurationService.getConfigurationListCache().stats().missCount());
+
+        // Changes made behind the service's back are not seen until the entry expires
+        configurationRepository.deleteById(saved.getId());
+        assertTrue(configurationService.existsById(saved.getId()));
+
+        configurationService.deleteConfigurationById(saved.getId());
+        assertFalse(configurationService.existsById(saved.getId()));
+        assertEquals(listSize - 1, configurationService.getAllConfigurations().size());
+    }
+}
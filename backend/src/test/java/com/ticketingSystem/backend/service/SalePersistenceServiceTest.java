@@ -0,0 +1,101 @@
+package com.ticketingSystem.backend.service;
+
+import com.ticketingSystem.backend.logic.Ticket;
+import com.ticketingSystem.backend.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+@ActiveProfiles("local")
+class SalePersistenceServiceTest {
+
+    @Autowired
+    private SalePersistenceService salePersistence;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Test
+    void salesAreWrittenBehindInBatches() throws InterruptedException {
+        long storedBefore = saleRepository.countByEventId(42);
+        long flushesBefore = salePersistence.getFlushes();
+
+        assertTrue(salePersistence.tryReserve(600));
+        for (int i = 1; i <= 600; i++) {
+            salePersistence.recordSale(3, i % 7, 42, new Ticket(i, "Batch Event", i % 3));
+        }
+        Ticket[] group = new Ticket[600];
+        for (int i = 0; i < group.length; i++) {
+            group[i] = new Ticket(601 + i, "Batch Event", 1);
+        }
+        assertTrue(salePersistence.reserve(group.length, 10, TimeUnit.SECONDS));
+        salePersistence.recordSales(3, 8, 42, group);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        // The flush is counted just after its batch is committed, so wait for both
+        while ((saleRepository.countByEventId(42) < storedBefore + 1200 || salePersistence.getFlushes() - flushesBefore < 3)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(storedBefore + 1200, saleRepository.countByEventId(42));
+        assertEquals(0, salePersistence.getDroppedSales());
+        long flushes = salePersistence.getFlushes() - flushesBefore;
+        assertTrue(flushes >= 3 && flushes < 1200, "1200 sales in batches of at most 500, got " + flushes + " flushes");
+    }
+
+    @Test
+    void aFullBufferPushesBackInsteadOfDroppingSales() throws Exception {
+        SaleRepository stuck = mock(SaleRepository.class);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return invocation.getArgument(0);
+        }).when(stuck).saveAll(any());
+        // Batches of one, so the writer takes one sale and then hangs on the database
+        SalePersistenceService service = new SalePersistenceService(stuck, 4, 1, 10);
+        try {
+            assertTrue(service.tryReserve(4));
+            for (int i = 1; i <= 4; i++) {
+                service.recordSale(3, 1, 7, new Ticket(i, "Stuck Event", 1));
+            }
+            for (int i = 0; i < 500 && service.getQueuedSales() > 3; i++) {
+                Thread.sleep(10);
+            }
+            assertFalse(service.tryReserve(2));  // A pooled step is turned away and keeps its tickets
+
+            CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return service.reserve(2, 10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(100);
+            assertFalse(waiting.isDone());  // A customer thread waits for room
+            release.countDown();
+            assertTrue(waiting.get(5, TimeUnit.SECONDS));
+            service.recordSales(3, 2, 7, new Ticket[]{new Ticket(5, "Stuck Event", 1), new Ticket(6, "Stuck Event", 1)});
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+        assertFalse(service.tryReserve(1));  // Nothing is taken once shut down
+        assertEquals(6, service.getPersistedSales());
+        assertEquals(0, service.getDroppedSales());
+        assertTrue(service.getStalls() >= 2);
+    }
+}
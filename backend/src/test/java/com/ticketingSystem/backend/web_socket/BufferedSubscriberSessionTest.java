@@ -0,0 +1,193 @@
+package com.ticketingSystem.backend.web_socket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BufferedSubscriberSessionTest {
+
+    private final CountDownLatch slowClientReads = new CountDownLatch(1);
+    private SubscriberBufferDecoratorFactory buffers;
+
+    @AfterEach
+    void shutdown() {
+        slowClientReads.countDown();
+        if (buffers != null) {
+            buffers.shutdown();
+        }
+    }
+
+    private BufferedSubscriberSession buffered(WebSocketSession client, SlowSubscriberPolicy policy, long sendTimeLimitMillis) {
+        buffers = new SubscriberBufferDecoratorFactory(policy, 4, 1 << 20, sendTimeLimitMillis, 2);
+        return new BufferedSubscriberSession(client, buffers, task -> new Thread(task).start(),
+                policy, 4, 1 << 20, sendTimeLimitMillis);
+    }
+
+    /** A client that takes the first message, then blocks until the test lets it read on. */
+    private WebSocketSession client(List<String> received, CountDownLatch readsOn) throws Exception {
+        WebSocketSession client = mock(WebSocketSession.class);
+        when(client.getId()).thenReturn("client");
+        doAnswer(invocation -> {
+            received.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            readsOn.await();
+            return null;
+        }).when(client).sendMessage(any());
+        return client;
+    }
+
+    private static TextMessage message(String subscription, String body) {
+        return new TextMessage("MESSAGE\ndestination:/topic/simulation\nsubscription:" + subscription + "\n\n" + body + "\u0000");
+    }
+
+    private static TextMessage message(String subscription, String body, String flagHeader) {
+        return new TextMessage("MESSAGE\ndestination:/topic/simulation\nsubscription:" + subscription + "\n"
+                + flagHeader + ":true\n\n" + body + "\u0000");
+    }
+
+    private static void awaitFirstSend(List<String> received) throws InterruptedException {
+        for (int i = 0; i < 500 && received.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitSent(List<String> received, int count) throws InterruptedException {
+        for (int i = 0; i < 500 && received.size() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, received.size(), received.toString());
+    }
+
+    @Test
+    void aSlowClientLosesItsOldestMessagesWithoutHoldingUpTheSender() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        BufferedSubscriberSession session = buffered(client(received, slowClientReads), SlowSubscriberPolicy.DROP_OLDEST, 60_000);
+        List<String> receivedFast = new CopyOnWriteArrayList<>();
+        BufferedSubscriberSession fast = new BufferedSubscriberSession(client(receivedFast, new CountDownLatch(0)), buffers,
+                task -> new Thread(task).start(), SlowSubscriberPolicy.DROP_OLDEST, 64, 1 << 20, 60_000);
+
+        session.sendMessage(message("sub-0", "batch 0"));
+        awaitFirstSend(received);
+        long start = System.nanoTime();
+        for (int i = 1; i <= 10; i++) {
+            session.sendMessage(message("sub-0", "batch " + i));  // Returns at once although the client is stuck
+            fast.sendMessage(message("sub-0", "batch " + i));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(4, session.getBufferedMessages());
+        assertEquals(6, buffers.getDroppedMessages());
+        awaitSent(receivedFast, 10);  // Other clients keep getting every message
+
+        slowClientReads.countDown();
+        awaitSent(received, 5);
+        assertTrue(received.get(1).contains("batch 7"), received.get(1));
+        assertTrue(received.get(4).contains("batch 10"), received.get(4));
+    }
+
+    @Test
+    void controlMessagesAreNeverDropped() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        BufferedSubscriberSession session = buffered(client(received, slowClientReads), SlowSubscriberPolicy.DROP_OLDEST, 60_000);
+
+        session.sendMessage(message("sub-0", "batch 0"));
+        awaitFirstSend(received);
+        session.sendMessage(message("sub-0", "sold out", BufferedSubscriberSession.CONTROL_HEADER));
+        for (int i = 1; i <= 10; i++) {
+            session.sendMessage(message("sub-0", "batch " + i));
+        }
+        assertEquals(4, session.getBufferedMessages());
+        assertEquals(7, buffers.getDroppedMessages());
+
+        slowClientReads.countDown();
+        awaitSent(received, 5);
+        assertTrue(received.get(1).contains("sold out"), received.get(1));
+        assertTrue(received.get(2).contains("batch 8"), received.get(2));
+    }
+
+    @Test
+    void conflationKeepsTheLatestSnapshotOfEachSubscription() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        BufferedSubscriberSession session = buffered(client(received, slowClientReads), SlowSubscriberPolicy.CONFLATE, 60_000);
+
+        session.sendMessage(message("status", "first"));
+        awaitFirstSend(received);
+        session.sendMessage(new TextMessage("RECEIPT\nreceipt-id:1\n\n\u0000"));
+        for (int i = 1; i <= 6; i++) {
+            session.sendMessage(message("status", "status " + i, BufferedSubscriberSession.SNAPSHOT_HEADER));
+            session.sendMessage(message("events", "events " + i));  // Deltas, only ever dropped
+        }
+        session.sendMessage(message("events", "summary", BufferedSubscriberSession.CONTROL_HEADER));
+        assertEquals(4, session.getBufferedMessages());
+        assertEquals(5, buffers.getConflatedMessages());
+        assertEquals(5, buffers.getDroppedMessages());
+
+        slowClientReads.countDown();
+        awaitSent(received, 5);
+        assertTrue(received.get(1).startsWith("RECEIPT"), received.get(1));
+        assertTrue(received.get(2).contains("status 6"), received.get(2));
+        assertTrue(received.get(3).contains("events 6"), received.get(3));
+        assertTrue(received.get(4).contains("summary"), received.get(4));
+    }
+
+    @Test
+    void aClientStuckLongerThanTheSendTimeLimitIsDisconnected() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        BufferedSubscriberSession session = buffered(client(received, slowClientReads), SlowSubscriberPolicy.DROP_OLDEST, 50);
+
+        session.sendMessage(message("sub-0", "batch 0"));
+        awaitFirstSend(received);
+        Thread.sleep(100);
+        assertThrows(SessionLimitExceededException.class, () -> session.sendMessage(message("sub-0", "batch 1")));
+        assertEquals(1, buffers.getTerminatedSessions());
+        assertEquals(0, session.getBufferedMessages());
+    }
+
+    @Test
+    void aClientStuckOnItsLastMessageIsDisconnectedByTheWatchdog() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        WebSocketSession client = client(received, slowClientReads);
+        buffers = new SubscriberBufferDecoratorFactory(SlowSubscriberPolicy.DROP_OLDEST, 4, 1 << 20, 50, 2);
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        List<WebSocketSession> established = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> established.add(invocation.getArgument(0))).when(handler).afterConnectionEstablished(any());
+        buffers.decorate(handler).afterConnectionEstablished(client);
+
+        established.get(0).sendMessage(message("sub-0", "batch 0"));  // Nothing follows it
+        verify(client, timeout(5_000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1, buffers.getTerminatedSessions());
+    }
+
+    @Test
+    void findsTheSubscriptionOfTextAndBinaryMessageFrames() {
+        assertEquals("sub-3", BufferedSubscriberSession.subscriptionOf(message("sub-3", "body")));
+        byte[] binary = "MESSAGE\nsubscription:sub-7\ncontent-type:application/octet-stream\n\n\u0001\u0002"
+                .getBytes(StandardCharsets.UTF_8);
+        assertEquals("sub-7", BufferedSubscriberSession.subscriptionOf(new BinaryMessage(binary)));
+        assertNull(BufferedSubscriberSession.subscriptionOf(new TextMessage("CONNECTED\nversion:1.2\n\n\u0000")));
+        assertNull(BufferedSubscriberSession.subscriptionOf(new TextMessage("MESSAGE\n\nsubscription:in-body\u0000")));
+        WebSocketMessage<?> heartbeat = new TextMessage("\n");
+        assertNull(BufferedSubscriberSession.subscriptionOf(heartbeat));
+    }
+}
@@ -0,0 +1,73 @@
+package com.ticketingSystem.benchmarks;
+
+import com.ticketingSystem.backend.ledger.SalesLedger;
+import com.ticketingSystem.backend.logic.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the cost a sale pays for being recorded in the {@link SalesLedger}, with the
+ * flusher forcing segments to disk in the background. Run with {@code -t <threads>} to see
+ * customers contending on the append lock.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SalesLedgerBenchmark {
+
+    @Param({"10"})
+    public long fsyncIntervalMillis;
+
+    @Param({"67108864"})
+    public long segmentSize;
+
+    private Path directory;
+    private SalesLedger ledger;
+    private final Ticket ticket = new Ticket(1, "Benchmark", 1);
+    private final Ticket[] group = {new Ticket(2, "Benchmark", 1), new Ticket(3, "Benchmark", 1), new Ticket(4, "Benchmark", 1), new Ticket(5, "Benchmark", 1)};
+
+    @Setup(Level.Trial)
+    public void openLedger() throws IOException {
+        directory = Files.createTempDirectory("sales-ledger-benchmark");
+        ledger = new SalesLedger(directory, segmentSize, fsyncIntervalMillis);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLedger() throws IOException {
+        ledger.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void appendOne() {
+        ledger.append(1, 1, 0, ticket);
+    }
+
+    @Benchmark
+    public void appendGroupOfFour() {
+        ledger.append(1, 1, 0, group);
+    }
+}
@@ -0,0 +1,160 @@
+package com.ticketingSystem.benchmarks;
+
+import com.ticketingSystem.backend.logic.PoolType;
+import com.ticketingSystem.backend.logic.TicketPool;
+import com.ticketingSystem.backend.logic.WaitStrategyType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures {@link TicketPool} throughput and per-operation latency with vendors and customers
+ * hammering the pool from separate threads. Each benchmark group runs one vendor and one
+ * customer thread by default; pass {@code -tg <vendors>,<customers>} to change the mix.
+ *
+ * <p>The "pool" group uses the non-blocking addTickets/removeTickets calls, so full and empty
+ * pools show up as rejected attempts in the aux counters. The "blocking" group uses put/take
+ * with a short timeout and exercises the configured wait strategy.</p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketPoolBenchmark {
+
+    private static final AtomicInteger nextActorID = new AtomicInteger();
+
+    @State(Scope.Group)
+    public static class Pool {
+
+        @Param({"LOCKED", "RING_BUFFER", "SHARDED"})
+        public PoolType poolType;
+
+        @Param({"PARK"})
+        public WaitStrategyType waitStrategy;
+
+        @Param({"1024"})
+        public int capacity;
+
+        @Param({"1"})
+        public int batchSize;
+
+        /** Shards of a SHARDED pool, 0 for one per core. */
+        @Param({"0"})
+        public int shards;
+
+        TicketPool ticketPool;
+
+        @Setup(Level.Trial)
+        public void configure() {
+            ticketPool = new TicketPool();
+            ticketPool.configure(capacity, poolType, waitStrategy, shards);
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ticketPool.resetTicketPool();
+            ticketPool.resetTicketID();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class VendorCounters {
+
+        final int vendorID = nextActorID.incrementAndGet();
+        public long added;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            added = 0;
+            rejected = 0;
+        }
+
+        boolean record(boolean isSuccess) {
+            if (isSuccess) {
+                added++;
+            } else {
+                rejected++;
+            }
+            return isSuccess;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class CustomerCounters {
+
+        final int customerID = nextActorID.incrementAndGet();
+        public long removed;
+        public long empty;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            removed = 0;
+            empty = 0;
+        }
+
+        boolean record(boolean isSuccess) {
+            if (isSuccess) {
+                removed++;
+            } else {
+                empty++;
+            }
+            return isSuccess;
+        }
+    }
+
+    @Benchmark
+    @Group("pool")
+    @GroupThreads(1)
+    public boolean addTickets(Pool pool, VendorCounters vendor) {
+        return vendor.record(pool.batchSize == 1
+                ? pool.ticketPool.addTickets(vendor.vendorID)
+                : pool.ticketPool.addTickets(vendor.vendorID, pool.batchSize));
+    }
+
+    @Benchmark
+    @Group("pool")
+    @GroupThreads(1)
+    public boolean removeTickets(Pool pool, CustomerCounters customer) {
+        return customer.record(pool.batchSize == 1
+                ? pool.ticketPool.removeTickets(customer.customerID)
+                : pool.ticketPool.removeTickets(customer.customerID, pool.batchSize));
+    }
+
+    @Benchmark
+    @Group("blocking")
+    @GroupThreads(1)
+    public boolean put(Pool pool, VendorCounters vendor) throws InterruptedException {
+        return vendor.record(pool.batchSize == 1
+                ? pool.ticketPool.put(vendor.vendorID, 1, TimeUnit.MILLISECONDS)
+                : pool.ticketPool.put(vendor.vendorID, pool.batchSize, 1, TimeUnit.MILLISECONDS));
+    }
+
+    @Benchmark
+    @Group("blocking")
+    @GroupThreads(1)
+    public boolean take(Pool pool, CustomerCounters customer) throws InterruptedException {
+        return customer.record(pool.batchSize == 1
+                ? pool.ticketPool.take(customer.customerID, 1, TimeUnit.MILLISECONDS)
+                : pool.ticketPool.take(customer.customerID, pool.batchSize, 1, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,124 @@
+package com.ticketingSystem.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketingSystem.backend.logic.ExecutionMode;
+import com.ticketingSystem.backend.logic.PoolStatistics;
+import com.ticketingSystem.backend.logic.PoolType;
+import com.ticketingSystem.backend.logic.SimulationState;
+import com.ticketingSystem.backend.logic.ThreadManager;
+import com.ticketingSystem.backend.logic.TicketPool;
+import com.ticketingSystem.backend.logic.TicketingSystem;
+import com.ticketingSystem.backend.logic.WaitStrategyType;
+import com.ticketingSystem.backend.model.ConfigurationEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a whole simulation run, from {@link TicketingSystem#startSystem} until the last ticket
+ * is bought, with release and retrieval rates of zero so only the engine itself is measured.
+ * The engine is wired by hand without a Spring context, so no events are published.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketingSystemBenchmark {
+
+    @Param({"LOCKED", "RING_BUFFER", "SHARDED"})
+    public PoolType poolType;
+
+    @Param({"PLATFORM"})
+    public ExecutionMode executionMode;
+
+    @Param({"PARK"})
+    public WaitStrategyType waitStrategy;
+
+    @Param({"4"})
+    public int vendors;
+
+    @Param({"8"})
+    public int customers;
+
+    @Param({"200000"})
+    public int totalTickets;
+
+    @Param({"1000"})
+    public int capacity;
+
+    @Param({"1"})
+    public int vendorBatchSize;
+
+    @Param({"1"})
+    public int customerBatchSize;
+
+    private ConfigurationEntity config;
+    private ThreadManager threadManager;
+    private TicketingSystem ticketingSystem;
+    private ScheduledExecutorService actorExecutor;
+
+    @Setup(Level.Trial)
+    public void createConfiguration() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("numberOfVendors", vendors);
+        settings.put("totalTickets", totalTickets);
+        settings.put("ticketReleaseRate", 0);
+        settings.put("numberOfCustomers", customers);
+        settings.put("customerRetrievalRate", 0);
+        settings.put("maxTicketCapacity", capacity);
+        settings.put("poolType", poolType);
+        settings.put("executionMode", executionMode);
+        settings.put("waitStrategy", waitStrategy);
+        settings.put("vendorBatchSize", vendorBatchSize);
+        settings.put("customerBatchSize", customerBatchSize);
+        config = new ObjectMapper().convertValue(settings, ConfigurationEntity.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void createEngine() {
+        threadManager = new ThreadManager();
+        if (executionMode == ExecutionMode.POOLED) {
+            actorExecutor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+            threadManager.setActorExecutor(actorExecutor);
+        }
+        ticketingSystem = new TicketingSystem(new TicketPool(), threadManager);
+    }
+
+    @TearDown(Level.Invocation)
+    public void shutdownEngine() {
+        ticketingSystem.stopSystem();
+        threadManager.shutdown();
+        if (actorExecutor != null) {
+            actorExecutor.shutdownNow();
+            actorExecutor = null;
+        }
+    }
+
+    @Benchmark
+    public long simulation() throws InterruptedException, ExecutionException {
+        ticketingSystem.startSystem(config);
+        if (ticketingSystem.getCompletion().get() != SimulationState.COMPLETED) {
+            throw new IllegalStateException("Run ended as " + ticketingSystem.getState());
+        }
+        return ticketingSystem.getInventory().sum(PoolStatistics::getTicketsRemoved);
+    }
+}
@@ -0,0 +1,220 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A log handler that writes to a file without making the threads that log wait for the disk.
+ * Publishing a record only puts it into a bounded queue; a single writer thread takes the
+ * records out in batches, formats them and writes each batch with one write. When the file
+ * reaches its size limit it is rotated: ticketing.log becomes ticketing.log.1, ticketing.log.1
+ * becomes ticketing.log.2 and so on, keeping at most the given number of old files.
+ *
+ * If the writer falls so far behind that the queue is full, records are dropped rather than
+ * slowing the simulation down, and the number dropped is written to the log once there is room.
+ */
+public class AsyncFileHandler extends Handler {
+
+    private static final int BATCH_SIZE = 512;
+
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final BlockingQueue<LogRecord> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();   // Records ever put into the queue
+    private final Object writtenLock = new Object();
+    private final Thread writer;
+
+    private OutputStream out; // Only used by the writer thread
+    private long size;        // Only used by the writer thread
+    private long taken;       // Only used by the writer thread: records ever taken out of the queue
+    private long written;     // Guarded by writtenLock: records ever taken out of the queue and written
+    private volatile boolean closed = false;
+
+    /**
+     * Opens the log file, appending to it, and starts the writer thread.
+     *
+     * @param file          the log file
+     * @param maxBytes      the size at which the file is rotated
+     * @param maxFiles      how many rotated files are kept besides the current one
+     * @param queueCapacity how many records may wait to be written
+     */
+    public AsyncFileHandler(Path file, long maxBytes, int maxFiles, int queueCapacity) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.maxBytes = Math.max(maxBytes, 1024);
+        this.maxFiles = Math.max(maxFiles, 0);
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+        if (this.file.getParent() != null) {
+            Files.createDirectories(this.file.getParent());
+        }
+        open();
+        setFormatter(new CachedTimestampFormatter());
+        setLevel(Level.ALL);
+
+        writer = new Thread(this::writeLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        if (queue.offer(record)) {
+            queued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // Waits, for up to a second, until every record published so far is in the file, not just out of the queue
+    @Override
+    public void flush() {
+        long target = queued.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        synchronized (writtenLock) {
+            while (written < target && writer.isAlive()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(writtenLock, Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(50)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Writes the records still queued, then closes the file
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDroppedRecords() {
+        return dropped.get();
+    }
+
+    private void writeLoop() {
+        List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // Closing: write whatever is left and stop
+                queue.drainTo(batch);
+                taken += batch.size();
+                write(batch, text);
+                closeFile();
+                markWritten();
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            taken += batch.size();
+            write(batch, text);
+            markWritten();
+        }
+    }
+
+    // Tells flush() that every record taken so far is in the file
+    private void markWritten() {
+        synchronized (writtenLock) {
+            written = taken;
+            writtenLock.notifyAll();
+        }
+    }
+
+    private void write(List<LogRecord> batch, StringBuilder text) {
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            text.append(getFormatter().format(new LogRecord(Level.WARNING, lost + " log records dropped, the log file could not keep up")));
+        }
+        for (LogRecord record : batch) {
+            try {
+                text.append(getFormatter().format(record));
+            } catch (RuntimeException e) {
+                reportError("Could not format a log record", e, ErrorManager.FORMAT_FAILURE);
+            }
+        }
+        batch.clear();
+        if (text.length() == 0) {
+            return;
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        text.setLength(0);
+        try {
+            if (size > 0 && size + bytes.length > maxBytes) {
+                rotate();
+            }
+            out.write(bytes);
+            out.flush();
+            size += bytes.length;
+        } catch (IOException e) {
+            reportError("Could not write to " + file, e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        if (maxFiles == 0) {
+            Files.deleteIfExists(file);
+        } else {
+            Files.deleteIfExists(rotated(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                if (Files.exists(rotated(i))) {
+                    Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void open() throws IOException {
+        // Not a channel stream: interrupting the writer to close the handler must not close the file under it
+        out = new FileOutputStream(file.toFile(), true);
+        size = Files.size(file);
+    }
+
+    private void closeFile() {
+        try {
+            if (out != null) {
+                out.close();
+            }
+        } catch (IOException e) {
+            reportError("Could not close " + file, e, ErrorManager.CLOSE_FAILURE);
+        }
+    }
+}
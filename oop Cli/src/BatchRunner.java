@@ -0,0 +1,284 @@
+import com.google.gson.*;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Non-interactive mode of the simulator, for using it as a load and regression driver.
+ * Every configuration in the configuration store (or the file given with --config, either JSON
+ * Lines or a JSON array) is run at the same time, each with its own
+ * TicketPool, vendors and customers, with at most --parallelism runs in progress at once.
+ * Nothing is asked; one JSON object per configuration is printed, in file order, followed by
+ * a summary object, and the exit code is 0 only if every run sold all of its tickets.
+ *
+ * Usage: java Main --batch [--config FILE] [--parallelism N] [--timeout SECONDS] [--output FILE] [--log-level LEVEL]
+ *                         [--log-file FILE]
+ */
+public class BatchRunner {
+
+    private static final Logger logger = Logger.getLogger(BatchRunner.class.getName());
+
+    private static final String USAGE = "Usage: java Main --batch [--config FILE] [--parallelism N] "
+            + "[--timeout SECONDS] [--output FILE] [--log-level LEVEL] [--log-file FILE]";
+    private static final List<String> OPTIONS = List.of("--config", "--parallelism", "--timeout", "--output", "--log-level",
+            "--log-file");
+
+    private String configFile = null; // The configuration store by default
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private long timeoutMillis = TimeUnit.MINUTES.toMillis(5);
+    private String outputFile = null;
+    private Level logLevel = Level.WARNING; // Per-ticket INFO lines would swamp the results
+    private String logFile = System.getProperty("ticketing.log.file", "logs/ticketing.log");
+
+    // Runs the batch described by the command line and returns the exit code
+    public static int run(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+        return runner.runAll();
+    }
+
+    private void parse(String[] args) {
+        boolean batch = false;
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (flag.equals("--batch")) {
+                batch = true;
+                continue;
+            }
+            if (!OPTIONS.contains(flag)) {
+                throw new IllegalArgumentException("Unknown option " + flag);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + flag);
+            }
+            String value = args[++i];
+            try {
+                switch (flag) {
+                    case "--config":
+                        configFile = value;
+                        break;
+                    case "--parallelism":
+                        parallelism = Math.max(Integer.parseInt(value), 1);
+                        break;
+                    case "--timeout":
+                        timeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(Long.parseLong(value), 1));
+                        break;
+                    case "--output":
+                        outputFile = value;
+                        break;
+                    case "--log-level":
+                        logLevel = Level.parse(value.toUpperCase());
+                        break;
+                    case "--log-file":
+                        logFile = value;
+                        break;
+                }
+            } catch (IllegalArgumentException e) { // Also thrown by Level.parse
+                throw new IllegalArgumentException("Invalid value for " + flag + ": " + value);
+            }
+        }
+        if (!batch) {
+            throw new IllegalArgumentException("Options are only accepted with --batch");
+        }
+    }
+
+    private int runAll() {
+        SystemLogger.initializeLogger(logFile);
+        Logger.getLogger("").setLevel(logLevel);
+        for (java.util.logging.Handler handler : Logger.getLogger("").getHandlers()) {
+            handler.setLevel(logLevel);
+        }
+
+        List<Configuration> configurations;
+        try {
+            configurations = readConfigurations(configFile);
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Could not read " + (configFile != null ? configFile : "the configuration store") + ": " + e.getMessage());
+            return 2;
+        }
+
+        PrintStream out = System.out;
+        try {
+            if (outputFile != null) {
+                out = new PrintStream(outputFile, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not open " + outputFile + ": " + e.getMessage());
+            return 2;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(configurations.size(), 1)), task -> {
+            Thread thread = new Thread(task, "batch-run-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gson gson = new Gson();
+        long start = System.nanoTime();
+        List<Future<JsonObject>> runs = new ArrayList<>();
+        for (int i = 0; i < configurations.size(); i++) {
+            int index = i;
+            Configuration configuration = configurations.get(i);
+            runs.add(executor.submit(() -> simulate(index, configuration, timeoutMillis)));
+        }
+
+        int completed = 0;
+        long ticketsSold = 0;
+        for (Future<JsonObject> run : runs) {
+            JsonObject result;
+            try {
+                result = run.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                result = new JsonObject();
+                result.addProperty("completed", false);
+                result.addProperty("error", String.valueOf(e.getCause()));
+            }
+            if (result.get("completed").getAsBoolean()) {
+                completed++;
+            }
+            if (result.has("ticketsSold")) {
+                ticketsSold += result.get("ticketsSold").getAsLong();
+            }
+            out.println(gson.toJson(result));
+        }
+        executor.shutdownNow();
+
+        long wallNanos = System.nanoTime() - start;
+        JsonObject summary = new JsonObject();
+        summary.addProperty("summary", true);
+        summary.addProperty("runs", configurations.size());
+        summary.addProperty("completed", completed);
+        summary.addProperty("failed", configurations.size() - completed);
+        summary.addProperty("parallelism", parallelism);
+        summary.addProperty("ticketsSold", ticketsSold);
+        summary.addProperty("wallTimeMs", TimeUnit.NANOSECONDS.toMillis(wallNanos));
+        summary.addProperty("ticketsPerSecond", perSecond(ticketsSold, wallNanos));
+        out.println(gson.toJson(summary));
+        out.flush();
+        if (out != System.out) {
+            out.close();
+        }
+        return completed == configurations.size() ? 0 : 1;
+    }
+
+    static List<Configuration> readConfigurations(String file) throws IOException {
+        if (file == null) {
+            return ConfigurationStore.open().loadAll();
+        }
+        if (file.endsWith(".jsonl")) {
+            return new ConfigurationStore(Paths.get(file)).loadAll();
+        }
+        Gson gson = new Gson();
+        List<Configuration> configurations = new ArrayList<>();
+        try (Reader reader = new FileReader(file, StandardCharsets.UTF_8)) {
+            JsonElement jsonElement = JsonParser.parseReader(reader);
+            if (!jsonElement.isJsonArray()) {
+                throw new JsonParseException("Expected an array of configurations");
+            }
+            for (JsonElement element : jsonElement.getAsJsonArray()) {
+                configurations.add(gson.fromJson(element, Configuration.class));
+            }
+        }
+        return configurations;
+    }
+
+    // Runs one configuration to the end, or until the timeout, on threads of its own
+    static JsonObject simulate(int index, Configuration configuration, long timeoutMillis) throws InterruptedException {
+        JsonObject result = new JsonObject();
+        result.addProperty("index", index);
+        result.add("configuration", new Gson().toJsonTree(configuration));
+        if (configuration.getMaxTicketCapacity() < 1) {
+            result.addProperty("completed", false);
+            result.addProperty("error", "maxTicketCapacity must be at least 1");
+            return result;
+        }
+
+        TicketPool ticketPool = new TicketPool(configuration.getMaxTicketCapacity(), configuration.getTotalTickets());
+        AtomicInteger ticketCounter = new AtomicInteger(1);
+        List<Vendor> vendors = new ArrayList<>();
+        List<Customer> customers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < configuration.getVendorNum(); i++) {
+            Vendor vendor = new Vendor(ticketPool, configuration.getTotalTickets(), "Vendor_" + i,
+                    configuration.getTicketReleaseRate(), ticketCounter);
+            vendors.add(vendor);
+            threads.add(new Thread(vendor, "run-" + index + "-Vendor_" + i));
+        }
+        for (int i = 0; i < configuration.getCustomerNum(); i++) {
+            Customer customer = new Customer(ticketPool, "Customer_" + i, configuration.getCustomerRetrievalRate());
+            customers.add(customer);
+            threads.add(new Thread(customer, "run-" + index + "-Customer_" + i));
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        boolean finished = true;
+        for (Thread thread : threads) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+            }
+            if (thread.isAlive()) {
+                finished = false;
+                break;
+            }
+        }
+        long wallNanos = System.nanoTime() - start;
+        if (!finished) {
+            logger.warning("Run " + index + " did not finish within " + timeoutMillis + " ms");
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            for (Thread thread : threads) {
+                thread.join(1000);
+            }
+        }
+
+        JsonObject vendorCounts = new JsonObject();
+        long ticketsReleased = 0;
+        for (Vendor vendor : vendors) {
+            vendorCounts.addProperty(vendor.getVendorName(), vendor.getTicketsReleased());
+            ticketsReleased += vendor.getTicketsReleased();
+        }
+        JsonObject customerCounts = new JsonObject();
+        long ticketsSold = 0;
+        for (Customer customer : customers) {
+            customerCounts.addProperty(customer.getCustomerName(), customer.getTicketsPurchased());
+            ticketsSold += customer.getTicketsPurchased();
+        }
+        result.addProperty("completed", finished && ticketsSold == configuration.getTotalTickets());
+        result.addProperty("ticketsReleased", ticketsReleased);
+        result.addProperty("ticketsSold", ticketsSold);
+        result.addProperty("wallTimeMs", TimeUnit.NANOSECONDS.toMillis(wallNanos));
+        result.addProperty("ticketsPerSecond", perSecond(ticketsSold, wallNanos));
+        result.add("vendors", vendorCounts);
+        result.add("customers", customerCounts);
+        return result;
+    }
+
+    private static double perSecond(long tickets, long nanos) {
+        return nanos > 0 ? Math.round(tickets * 1e10 / nanos) / 10.0 : 0;
+    }
+}
@@ -0,0 +1,54 @@
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * Formats log records as "timestamp message", the layout the SystemLogger has always used.
+ * Unlike a shared SimpleDateFormat it is safe to use from several threads, and as a log is
+ * written many records share the same second, the formatted timestamp of the current second
+ * is cached instead of being formatted again for every record.
+ */
+public class CachedTimestampFormatter extends Formatter {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter
+            .ofPattern("MMM dd, yyyy hh:mm:ss a", Locale.getDefault())
+            .withZone(ZoneId.systemDefault());
+
+    // The second last formatted and its text, replaced together so readers never see a mismatched pair
+    private static final class CachedSecond {
+        final long epochSecond;
+        final String text;
+
+        CachedSecond(long epochSecond, String text) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+        }
+    }
+
+    private volatile CachedSecond cached = new CachedSecond(Long.MIN_VALUE, "");
+
+    @Override
+    public String format(LogRecord record) {
+        String message = formatMessage(record);
+        String timestamp = timestamp(record.getMillis());
+        StringBuilder line = new StringBuilder(timestamp.length() + message.length() + 2);
+        line.append(timestamp).append(' ').append(message).append('\n');
+        if (record.getThrown() != null) {
+            line.append(record.getThrown()).append('\n');
+        }
+        return line.toString();
+    }
+
+    public String timestamp(long millis) {
+        long epochSecond = Math.floorDiv(millis, 1000);
+        CachedSecond current = cached;
+        if (current.epochSecond != epochSecond) {
+            current = new CachedSecond(epochSecond, TIMESTAMP.format(Instant.ofEpochSecond(epochSecond)));
+            cached = current;
+        }
+        return current.text;
+    }
+}
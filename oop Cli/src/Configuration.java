@@ -19,47 +19,47 @@ public class Configuration {
         this.customerRetrievalRate = customerRetrievalRate;
         this.maxTicketCapacity = maxTicketCapacity;
 
-        logger.info("Configuration created: " + this.toString());
+        logger.info(() -> "Configuration created: " + this);
     }
 
     public int getTotalTickets() {
-        logger.fine("getTotalTickets() called. Value: " + this.totalTickets);
+        logger.fine(() -> "getTotalTickets() called. Value: " + this.totalTickets);
         return this.totalTickets;
     }
 
     public int getVendorNum() {
-        logger.fine("getVendorNum() called. Value: " + this.vendorNum);
+        logger.fine(() -> "getVendorNum() called. Value: " + this.vendorNum);
         return this.vendorNum;
     }
 
     public int getCustomerNum() {
-        logger.fine("getCustomerNum() called. Value: " + this.customerNum);
+        logger.fine(() -> "getCustomerNum() called. Value: " + this.customerNum);
         return this.customerNum;
     }
 
     public int getTicketReleaseRate() {
-        logger.fine("getTicketReleaseRate() called. Value: " + this.ticketReleaseRate);
+        logger.fine(() -> "getTicketReleaseRate() called. Value: " + this.ticketReleaseRate);
         return this.ticketReleaseRate;
     }
 
     public int getCustomerRetrievalRate() {
-        logger.fine("getCustomerRetrievalRate() called. Value: " + this.customerRetrievalRate);
+        logger.fine(() -> "getCustomerRetrievalRate() called. Value: " + this.customerRetrievalRate);
         return this.customerRetrievalRate;
     }
 
     public int getMaxTicketCapacity() {
-        logger.fine("getMaxTicketCapacity() called. Value: " + this.maxTicketCapacity);
+        logger.fine(() -> "getMaxTicketCapacity() called. Value: " + this.maxTicketCapacity);
         return this.maxTicketCapacity;
     }
 
     public String getStartDateTime() {
-        logger.fine("getStartDateTime() called. Value: " + this.startDateTime);
+        logger.fine(() -> "getStartDateTime() called. Value: " + this.startDateTime);
         return this.startDateTime;
     }
 
     public void setStartDateTime(String dateTime) {
         this.startDateTime = dateTime;
-        logger.info("StartDateTime set to: " + dateTime);
+        logger.info(() -> "StartDateTime set to: " + dateTime);
     }
 
     @Override
@@ -0,0 +1,180 @@
+import com.google.gson.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Append-only store of the configurations entered so far, in JSON Lines: one compact JSON
+ * configuration per line, oldest first. Saving appends one line with a single write, and loading
+ * the last configuration reads backwards from the end of the file only as far as its line starts,
+ * so neither gets slower as the history grows. A line left half-written by a crash is skipped
+ * when loading, and the next save starts on a new line.
+ *
+ * The configurations used to be kept as one JSON array in configuration.json. The first time the
+ * store is opened, that array is copied into the store and the old file is renamed to
+ * configuration.json.migrated.
+ */
+public class ConfigurationStore {
+
+    private static final Logger logger = Logger.getLogger(ConfigurationStore.class.getName());
+
+    public static final String DEFAULT_FILE = "configurations.jsonl";
+    public static final String LEGACY_FILE = "configuration.json";
+
+    private static final int CHUNK_SIZE = 4096; // Bytes read at a time when scanning back from the end
+
+    private final Path file;
+    private final Gson gson = new Gson();
+
+    public ConfigurationStore(Path file) {
+        this.file = file;
+    }
+
+    // Opens the default store in the working directory, migrating the old array file if there is one
+    public static ConfigurationStore open() throws IOException {
+        ConfigurationStore store = new ConfigurationStore(Paths.get(DEFAULT_FILE));
+        store.migrateFrom(Paths.get(LEGACY_FILE));
+        return store;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // Copies a JSON array of configurations into the store, once: only if the store does not exist yet
+    public boolean migrateFrom(Path legacyFile) throws IOException {
+        if (Files.exists(file) || !Files.exists(legacyFile)) {
+            return false;
+        }
+        JsonElement jsonElement;
+        try (Reader reader = Files.newBufferedReader(legacyFile, StandardCharsets.UTF_8)) {
+            jsonElement = JsonParser.parseReader(reader);
+        } catch (JsonParseException e) {
+            throw new IOException("Cannot migrate " + legacyFile + ": " + e.getMessage(), e);
+        }
+        StringBuilder lines = new StringBuilder();
+        if (jsonElement.isJsonArray()) {
+            for (JsonElement element : jsonElement.getAsJsonArray()) {
+                lines.append(gson.toJson(element)).append('\n');
+            }
+        }
+        // Write the whole history under a temporary name first, so an interrupted migration can simply run again
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temporary, lines, StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(legacyFile, legacyFile.resolveSibling(legacyFile.getFileName() + ".migrated"),
+                StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Migrated " + legacyFile + " to " + file);
+        return true;
+    }
+
+    // Appends one configuration to the end of the store
+    public void append(Configuration configuration) throws IOException {
+        byte[] line = (gson.toJson(configuration) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer buffer;
+            if (size > 0 && lastByte(channel, size) != '\n') {
+                // The previous save was cut short: start a new line rather than corrupt this one too
+                buffer = ByteBuffer.allocate(line.length + 1).put((byte) '\n').put(line).flip();
+            } else {
+                buffer = ByteBuffer.wrap(line);
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, size + buffer.position()); // At the end of the file, which READ does not allow APPEND for
+            }
+        }
+    }
+
+    // Loads the most recently saved configuration, or null if there is none
+    public Configuration loadLast() throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long end = channel.size();
+            while (end > 0) {
+                // The byte before end ends the line (or is the last byte of a line cut short)
+                long start = lastNewlineBefore(channel, end - 1) + 1;
+                String line = read(channel, start, end).trim();
+                if (!line.isEmpty()) {
+                    try {
+                        return gson.fromJson(line, Configuration.class);
+                    } catch (JsonParseException e) {
+                        logger.warning("Skipping unreadable configuration in " + file + ": " + e.getMessage());
+                    }
+                }
+                end = start; // Move on to the line before
+            }
+        }
+        return null;
+    }
+
+    // Loads every configuration in the store, oldest first
+    public List<Configuration> loadAll() throws IOException {
+        List<Configuration> configurations = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return configurations;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    configurations.add(gson.fromJson(line, Configuration.class));
+                } catch (JsonParseException e) {
+                    logger.warning("Skipping unreadable configuration in " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return configurations;
+    }
+
+    private static byte lastByte(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        channel.read(buffer, size - 1);
+        return buffer.get(0);
+    }
+
+    // Finds the last newline before the given position, scanning back chunk by chunk; -1 if there is none
+    private static long lastNewlineBefore(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        while (position > 0) {
+            int length = (int) Math.min(CHUNK_SIZE, position);
+            long chunkStart = position - length;
+            buffer.clear().limit(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, chunkStart + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return chunkStart + i;
+                }
+            }
+            position = chunkStart;
+        }
+        return -1;
+    }
+
+    private static String read(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+}
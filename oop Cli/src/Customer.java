@@ -8,6 +8,7 @@ class Customer implements Runnable {
     private final TicketPool ticketPool;
     private final String customerName;
     private final long retrievalRate;
+    private volatile int ticketsPurchased = 0; // Written only by the customer's own thread
 
     public Customer(TicketPool ticketPool, String customerName, long retrievalRate) {
         this.ticketPool = ticketPool;
@@ -21,10 +22,11 @@ class Customer implements Runnable {
             try {
                 String ticket = ticketPool.purchaseTicket();
                 if (ticket == null) {
-                    logger.info(customerName + " couldn't purchase a ticket. No more tickets available.");
+                    logger.info(() -> customerName + " couldn't purchase a ticket. No more tickets available.");
                     break; // Stop once all tickets are sold
                 }
-                logger.info(customerName + " purchased Ticket: " + ticket);
+                ticketsPurchased++;
+                logger.info(() -> customerName + " purchased Ticket: " + ticket);
                 Thread.sleep(retrievalRate);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -32,5 +34,12 @@ class Customer implements Runnable {
             }
         }
     }
-}
 
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public int getTicketsPurchased() {
+        return ticketsPurchased;
+    }
+}
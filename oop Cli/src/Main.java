@@ -1,6 +1,3 @@
-import com.google.gson.*;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -11,15 +8,24 @@ public class Main {
 
     private static final Logger logger = Logger.getLogger(Main.class.getName());
 
+    // One scanner for the whole session: several scanners on System.in lose each other's buffered input
+    private static final Scanner scanner = new Scanner(System.in);
+
     public static void main(String[] args) {
-        int totalTickets;
-        int vendorNum;
-        int customerNum;
-        int ticketReleaseRate;
-        int customerRetrievalRate;
-        int maxTicketCapacity;
+        if (args.length > 0) {
+            // Non-interactive mode, see BatchRunner
+            System.exit(BatchRunner.run(args));
+        }
+        SystemLogger.initializeLogger();
+        while (runOnce()) {
+            // Run again until the user chooses to exit
+        }
+        logger.info("Exiting program...");
+    }
+
+    // Runs one interactive simulation and returns whether the user wants to run again
+    private static boolean runOnce() {
         Configuration configuration;
-        Scanner scanner = new Scanner(System.in);
 
         // Setup logger
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -60,15 +66,10 @@ public class Main {
         logger.info("Press 1 to run again");
         logger.info( "Press 2 to exit");
         int runAgainChoice = validateChoice("Your choice:", 1, 2);
-        if (runAgainChoice == 1) {
-            main(args); // Restart program
-        } else {
-            logger.info("Exiting program...");
-        }
+        return runAgainChoice == 1;
     }
 
     public static int validateChoice(String statement, int min, int max) {
-        Scanner scanner = new Scanner(System.in);
         int user_input;
         while (true) {
             try {
@@ -88,7 +89,6 @@ public class Main {
     }
 
     public static int validate(String statement) {
-        Scanner scanner = new Scanner(System.in);
         int userInput;
         while (true) {
             try {
@@ -108,7 +108,6 @@ public class Main {
     }
 
     public static int validate(String statement, int upperLimit) {
-        Scanner scanner = new Scanner(System.in);
         int userInput;
         while (true) {
             try {
@@ -128,14 +127,8 @@ public class Main {
     }
 
     public static Configuration loadConfiguration() {
-        Gson gson = new Gson();
-        try (FileReader reader = new FileReader("configuration.json")) {
-            JsonElement jsonElement = JsonParser.parseReader(reader);
-            if (jsonElement.isJsonArray()) {
-                JsonArray jsonArray = jsonElement.getAsJsonArray();
-                JsonElement lastElement = jsonArray.get(jsonArray.size() - 1); // Load last configuration
-                return gson.fromJson(lastElement, Configuration.class);
-            }
+        try {
+            return ConfigurationStore.open().loadLast(); // Reads only the last line of the store
         } catch (IOException e) {
             logger.warning("Error loading previous configuration: " + e.getMessage());
         }
@@ -153,26 +146,8 @@ public class Main {
     }
 
     public static void storeJSON(Configuration configuration) {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        List<Configuration> configurationList = new ArrayList<>();
-
-        try (FileReader reader = new FileReader("configuration.json")) {
-            JsonElement jsonElement = JsonParser.parseReader(reader);
-            if (jsonElement.isJsonArray()) {
-                JsonArray jsonArray = jsonElement.getAsJsonArray();
-                for (JsonElement element : jsonArray) {
-                    Configuration existingConfig = gson.fromJson(element, Configuration.class);
-                    configurationList.add(existingConfig);
-                }
-            }
-        } catch (IOException e) {
-            logger.info("No existing configuration file found. A new file will be created.");
-        }
-
-        configurationList.add(configuration);
-
-        try (FileWriter writer = new FileWriter("configuration.json")) {
-            gson.toJson(configurationList, writer);
+        try {
+            ConfigurationStore.open().append(configuration); // One line appended, the history is not rewritten
             logger.info("Configuration successfully recorded.");
         } catch (IOException e) {
             logger.severe("Error recording configuration: " + e.getMessage());
@@ -1,51 +1,51 @@
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Paths;
 import java.util.logging.*;
 
 public class SystemLogger {
     private static final Logger logger = Logger.getLogger(SystemLogger.class.getName());
     private static boolean initialized = false; // Flag for initialization
 
+    // Log file settings, overridable with -Dticketing.log.file=... etc.; an empty file name turns the file log off
+    private static final String LOG_FILE = System.getProperty("ticketing.log.file", "logs/ticketing.log");
+    private static final long LOG_MAX_BYTES = Long.getLong("ticketing.log.max-bytes", 10L * 1024 * 1024);
+    private static final int LOG_FILES = Integer.getInteger("ticketing.log.files", 5);
+    private static final int LOG_QUEUE_SIZE = Integer.getInteger("ticketing.log.queue-size", 16384);
+
     // Constructor (avoids initialization)
     public SystemLogger() {
     }
 
-    // Initialize logger with file and console handlers (called once)
-    private synchronized static void initializeLogger() {
-        if (!initialized) {
-            try {
-                // Create FileHandler for logging to a file (append mode)
-                FileHandler fileHandler = new FileHandler("D:/Degree/Second year/SEM 1/OOP/Assignment oop/Firestone", true);
-                fileHandler.setLevel(Level.ALL);
-
-                // Create ConsoleHandler for logging to the console
-                ConsoleHandler consoleHandler = new ConsoleHandler();
-                consoleHandler.setLevel(Level.ALL);
-
-                // Apply the same formatter to both handlers
-                Formatter formatter = new Formatter() {
-                    private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy hh:mm:ss a");
-
-                    @Override
-                    public String format(LogRecord record) {
-                        return dateFormat.format(new Date(record.getMillis())) + " " + record.getMessage() + "\n";
-                    }
-                };
-                fileHandler.setFormatter(formatter);
-                consoleHandler.setFormatter(formatter);
-
-                // Add both handlers to the logger
-                logger.addHandler(fileHandler);
-                logger.addHandler(consoleHandler);
+    // Initialize logging for the whole program (called once): every logger's records go to the console
+    // and, through an asynchronous rotating handler, to the log file
+    public synchronized static void initializeLogger() {
+        initializeLogger(LOG_FILE);
+    }
 
-                // Disable default console logging
-                logger.setUseParentHandlers(false);
+    public synchronized static void initializeLogger(String logFile) {
+        if (!initialized) {
+            Logger rootLogger = Logger.getLogger("");
+            CachedTimestampFormatter formatter = new CachedTimestampFormatter(); // Thread-safe, unlike SimpleDateFormat
+
+            // Apply the same formatter to the console handlers
+            for (Handler handler : rootLogger.getHandlers()) {
+                if (handler instanceof ConsoleHandler) {
+                    handler.setFormatter(formatter);
+                }
+            }
 
-                initialized = true; // Mark initialization complete
-            } catch (IOException e) {
-                System.out.println("Error setting up logging: " + e.getMessage());
+            if (logFile != null && !logFile.isBlank()) {
+                try {
+                    // Writes on its own thread, so logging threads never wait for the disk
+                    AsyncFileHandler fileHandler = new AsyncFileHandler(Paths.get(logFile), LOG_MAX_BYTES, LOG_FILES, LOG_QUEUE_SIZE);
+                    fileHandler.setFormatter(formatter);
+                    rootLogger.addHandler(fileHandler); // Closed, and so flushed, by the LogManager at exit
+                } catch (IOException e) {
+                    System.out.println("Error setting up logging: " + e.getMessage());
+                }
             }
+
+            initialized = true; // Mark initialization complete
         }
     }
 
@@ -14,13 +14,21 @@ class TicketPool {
     }
 
     public synchronized boolean addTicket(String ticket) {
-        if (totalTicketsAdded < totalTickets && tickets.size() < maxCapacity) {
+        while (totalTicketsAdded < totalTickets && tickets.size() >= maxCapacity) {
+            try {
+                wait(); // Wait until a customer makes room
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (totalTicketsAdded < totalTickets) {
             tickets.add(ticket);
             totalTicketsAdded++;
             notifyAll(); // Notify customers waiting for tickets
             return true;
         }
-        return false;
+        return false; // Every ticket has been released
     }
 
     public synchronized String purchaseTicket() {
@@ -36,7 +44,9 @@ class TicketPool {
                 return null;
             }
         }
-        return tickets.remove(0);
+        String ticket = tickets.remove(0);
+        notifyAll(); // Notify vendors waiting for room
+        return ticket;
     }
 
     public synchronized int getRemainingTickets() {
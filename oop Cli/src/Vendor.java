@@ -7,6 +7,7 @@ public class Vendor implements Runnable {
     private final String vendorName;
     private final int releaseRate;
     private final AtomicInteger ticketCounter;
+    private volatile int ticketsReleased = 0; // Written only by the vendor's own thread
     private static final Logger logger = Logger.getLogger(Vendor.class.getName());
 
     public Vendor(TicketPool ticketPool, int totalTickets, String vendorName, int releaseRate, AtomicInteger ticketCounter) {
@@ -23,7 +24,8 @@ public class Vendor implements Runnable {
             try {
                 String ticket = "T" + ticketCounter.getAndIncrement();
                 if (ticketPool.addTicket(ticket)) {
-                    logger.info(vendorName + " added a ticket (" + ticket + ")");
+                    ticketsReleased++;
+                    logger.info(() -> vendorName + " added a ticket (" + ticket + ")");
                 } else {
                     break; // Stop if no more tickets can be added
                 }
@@ -34,4 +36,12 @@ public class Vendor implements Runnable {
             }
         }
     }
-}
\ No newline at end of file
+
+    public String getVendorName() {
+        return vendorName;
+    }
+
+    public int getTicketsReleased() {
+        return ticketsReleased;
+    }
+}